@@ -0,0 +1,90 @@
+package com.aldebaran.qi;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the dispatch of a call coming from native to an advertised method:
+ * <ul>
+ * <li>reflective: monitor proxy resolved by name, then reflective call on the
+ * instance (path used before pre-bound invokers)</li>
+ * <li>invoker: pre-bound {@link AdvertisedMethodInvoker}</li>
+ * <li>direct: plain Java call, as reference</li>
+ * </ul>
+ * Only the Java part of the call is measured, no native library is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdvertisedMethodBenchmark {
+    /**
+     * Advertised interface
+     */
+    public interface Calculator {
+        int add(int a, int b);
+    }
+
+    /**
+     * Advertised implementation
+     */
+    public static class CalculatorImpl implements Calculator {
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    /**
+     * JNI signature given by native side for "add::i(ii)"
+     */
+    private static final String SIGNATURE = "(Ljava/lang/Integer;Ljava/lang/Integer;)Ljava/lang/Integer;";
+
+    private Calculator calculator;
+    private Object reflectiveMonitor;
+    private AdvertisedMethodInvoker invoker;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.calculator = new CalculatorImpl();
+        this.reflectiveMonitor = Proxy.newProxyInstance(Calculator.class.getClassLoader(),
+                new Class<?>[]{Calculator.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] parameters) throws Throwable {
+                        return method.invoke(AdvertisedMethodBenchmark.this.calculator, parameters);
+                    }
+                });
+        this.invoker = new AdvertisedMethodInvoker(new AdvertisedMethodMonitor<Calculator>(this.calculator),
+                Calculator.class.getMethod("add", int.class, int.class));
+    }
+
+    @Benchmark
+    public Object reflective() {
+        return NativeTools.callJava(this.reflectiveMonitor, "add", SIGNATURE, new Object[]{40, 2});
+    }
+
+    @Benchmark
+    public Object invoker() {
+        return NativeTools.callJava(this.invoker, "add", SIGNATURE, new Object[]{40, 2});
+    }
+
+    @Benchmark
+    public int direct() {
+        return this.calculator.add(40, 2);
+    }
+}
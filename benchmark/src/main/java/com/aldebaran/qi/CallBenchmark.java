@@ -0,0 +1,43 @@
+package com.aldebaran.qi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Round trip of {@link AnyObject#call(String, Object...)} through an
+ * in-process session: client proxy, libqi transport, advertised Java method
+ * and back.
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallBenchmark {
+    /**
+     * Latency of one call, waiting its result
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer callLatency(final InProcessServices services) throws Exception {
+        return services.proxy.<Integer>call("add", 40, 2).get();
+    }
+
+    /**
+     * Calls per second, with concurrent callers
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(4)
+    public Integer callThroughput(final InProcessServices services) throws Exception {
+        return services.proxy.<Integer>call("add", 40, 2).get();
+    }
+}
@@ -0,0 +1,54 @@
+package com.aldebaran.qi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a chain of {@link Future#andThenApply(Function)} on a finished
+ * future, until the last result is available.<br>
+ * Needs the native library.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutureBenchmark {
+    /**
+     * Continuation adding one
+     */
+    private static final Function<Integer, Integer> INCREMENT = new Function<Integer, Integer>() {
+        @Override
+        public Integer execute(Integer value) throws Throwable {
+            return value + 1;
+        }
+    };
+
+    /**
+     * Number of chained continuations
+     */
+    @Param({"1", "10"})
+    public int length;
+
+    @Benchmark
+    public Integer andThenApplyChain() throws Exception {
+        Future<Integer> future = Future.of(0);
+
+        for (int i = 0; i < this.length; i++) {
+            future = future.andThenApply(FutureBenchmark.INCREMENT);
+        }
+
+        return future.get();
+    }
+}
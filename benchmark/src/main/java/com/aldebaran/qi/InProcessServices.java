@@ -0,0 +1,101 @@
+package com.aldebaran.qi;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * In-process service directory, with a server session exposing a service and a
+ * client session holding a proxy on it.<br>
+ * The service has:
+ * <ul>
+ * <li>method "add::i(ii)"</li>
+ * <li>signal "tick::(i)", listened by the client, received values are put in
+ * {@link #ticks}</li>
+ * <li>property "level" of type int</li>
+ * </ul>
+ * Needs the native library.
+ */
+@State(Scope.Benchmark)
+public class InProcessServices {
+    /**
+     * Advertised interface
+     */
+    public interface Calculator {
+        int add(int a, int b);
+    }
+
+    /**
+     * Advertised implementation
+     */
+    public static class CalculatorImpl implements Calculator {
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    public ServiceDirectory serviceDirectory;
+    public Session server;
+    public Session client;
+    /**
+     * Service object, on server side
+     */
+    public AnyObject service;
+    /**
+     * Proxy on the service, on client side
+     */
+    public AnyObject proxy;
+    /**
+     * Service property
+     */
+    public Property<Integer> level;
+    /**
+     * Values received by the client listener of "tick"
+     */
+    public final BlockingQueue<Integer> ticks = new LinkedBlockingQueue<Integer>();
+
+    private QiSignalConnection tickConnection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.serviceDirectory = new ServiceDirectory();
+        final String url = this.serviceDirectory.listenUrl();
+
+        final DynamicObjectBuilder builder = new DynamicObjectBuilder();
+        builder.advertiseMethods(Calculator.class, new CalculatorImpl());
+        builder.advertiseSignal("tick::(i)");
+        this.level = new Property<Integer>(Integer.class, 0);
+        builder.advertiseProperty("level", this.level);
+        builder.setThreadingModel(DynamicObjectBuilder.ObjectThreadingModel.MultiThread);
+        this.service = builder.object();
+
+        this.server = new Session();
+        this.server.connect(url).get();
+        this.server.registerService("benchmark", this.service);
+
+        this.client = new Session();
+        this.client.connect(url).get();
+        this.proxy = this.client.service("benchmark").get();
+        this.tickConnection = this.proxy.connect("tick", new QiSignalListener() {
+            @Override
+            public void onSignalReceived(Object... args) {
+                InProcessServices.this.ticks.offer((Integer) args[0]);
+            }
+        });
+        this.tickConnection.waitForDone();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        this.tickConnection.disconnect().get();
+        this.client.close().get();
+        this.server.close().get();
+        this.serviceDirectory.close();
+    }
+}
@@ -0,0 +1,42 @@
+package com.aldebaran.qi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Property} get and set, on the local property and through the client
+ * proxy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyBenchmark {
+    @Benchmark
+    public Integer localGet(final InProcessServices services) throws Exception {
+        return services.level.getValue().get();
+    }
+
+    @Benchmark
+    public Void localSet(final InProcessServices services) throws Exception {
+        return services.level.setValue(42).get();
+    }
+
+    @Benchmark
+    public Integer remoteGet(final InProcessServices services) throws Exception {
+        return services.proxy.getProperty(Integer.class, "level").get();
+    }
+
+    @Benchmark
+    public Void remoteSet(final InProcessServices services) throws Exception {
+        return services.proxy.setProperty("level", 42).get();
+    }
+}
@@ -0,0 +1,113 @@
+package com.aldebaran.qi;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aldebaran.qi.serialization.QiSerializer;
+
+/**
+ * {@link QiSerializer} conversions of a struct, a list and a map, both ways.
+ * <br>
+ * Only the Java part is measured, no native library is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+    /**
+     * Sensor sample, like the ones sent at high rate by services
+     */
+    @QiStruct
+    public static class Sample {
+        @QiField(0)
+        public String sensor;
+        @QiField(1)
+        public long timestamp;
+        @QiField(2)
+        public double value;
+        @QiField(3)
+        public List<Integer> flags;
+
+        public Sample() {
+        }
+    }
+
+    private static final Type LIST_TYPE = new TypeToken<List<Integer>>() {
+    }.getType();
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Integer>>() {
+    }.getType();
+
+    private final QiSerializer serializer = QiSerializer.getDefault();
+    private Sample sample;
+    private Object serializedSample;
+    private List<Integer> list;
+    private Map<String, Integer> map;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.sample = new Sample();
+        this.sample.sensor = "accelerometer";
+        this.sample.timestamp = 1234567890L;
+        this.sample.value = 9.81;
+        this.sample.flags = new ArrayList<Integer>();
+        this.sample.flags.add(1);
+        this.sample.flags.add(2);
+        this.serializedSample = this.serializer.serialize(this.sample);
+
+        this.list = new ArrayList<Integer>();
+        this.map = new HashMap<String, Integer>();
+
+        for (int i = 0; i < 1000; i++) {
+            this.list.add(i);
+            this.map.put("key" + i, i);
+        }
+    }
+
+    @Benchmark
+    public Object serializeStruct() throws Exception {
+        return this.serializer.serialize(this.sample);
+    }
+
+    @Benchmark
+    public Object deserializeStruct() throws Exception {
+        return this.serializer.deserialize(this.serializedSample, Sample.class);
+    }
+
+    @Benchmark
+    public Object serializeList() throws Exception {
+        return this.serializer.serialize(this.list);
+    }
+
+    @Benchmark
+    public Object deserializeList() throws Exception {
+        return this.serializer.deserialize(this.list, SerializerBenchmark.LIST_TYPE);
+    }
+
+    @Benchmark
+    public Object serializeMap() throws Exception {
+        return this.serializer.serialize(this.map);
+    }
+
+    @Benchmark
+    public Object deserializeMap() throws Exception {
+        return this.serializer.deserialize(this.map, SerializerBenchmark.MAP_TYPE);
+    }
+}
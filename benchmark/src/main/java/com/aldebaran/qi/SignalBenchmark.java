@@ -0,0 +1,28 @@
+package com.aldebaran.qi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency from {@link AnyObject#post(String, Object...)} on the service to
+ * the {@link QiSignalListener} of a client proxy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignalBenchmark {
+    @Benchmark
+    public Integer postToListener(final InProcessServices services) throws Exception {
+        services.service.post("tick", 42);
+        return services.ticks.take();
+    }
+}
@@ -18,7 +18,7 @@ extern "C"
 {
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_Application_qiApplicationCreate(JNIEnv *env, jobject obj, jobjectArray jargs, jstring jdefaultUrl, jboolean listen);
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_Application_qiApplicationGetSession(JNIEnv *env, jobject obj, jlong pApplication);
-  JNIEXPORT void JNICALL Java_com_aldebaran_qi_Application_qiApplicationDestroy(JNIEnv *env, jobject obj, jlong pApplication);
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_Application_qiApplicationDestroy(JNIEnv *env, jclass cls, jlong pApplication);
   JNIEXPORT void JNICALL Java_com_aldebaran_qi_Application_qiApplicationStart(JNIEnv *env, jobject obj, jlong pApplication);
   JNIEXPORT void JNICALL Java_com_aldebaran_qi_Application_qiApplicationRun(JNIEnv *env, jobject obj, jlong pApplication);
   JNIEXPORT void JNICALL Java_com_aldebaran_qi_Application_qiApplicationStop(JNIEnv *env, jobject obj, jlong pApplication);
@@ -10,6 +10,7 @@
 #ifndef _JAVA_JNI_CALLBRIDGE_HPP_
 #define _JAVA_JNI_CALLBRIDGE_HPP_
 
+#include <cstdint>
 #include <list>
 #include <jni.h>
 
@@ -17,6 +18,12 @@
 
 // Generic callback for call forward
 qi::Future<qi::AnyValue>*    call_from_java(JNIEnv *env, qi::AnyObject object, const std::string& strMethodName, jobjectArray listParams);
+qi::Future<qi::AnyValue>*    call_from_java(JNIEnv *env, qi::AnyObject object, unsigned int methodId, jobjectArray listParams);
+/// Number of calls that used a method already resolved for the same object, name and parameters classes.
+std::uint64_t                method_resolution_cache_hits();
+/// Number of calls that had to look for a suitable method.
+std::uint64_t                method_resolution_cache_misses();
+int                          resolve_method_id(const qi::AnyObject& object, const std::string& methodName, const std::string& paramsSignature);
 qi::AnyReference                 call_to_java(std::string signature, void* data, const qi::GenericFunctionParameters& params);
 qi::AnyReference                 event_callback_to_java(void *vinfo, const std::vector<qi::AnyReference>& params);
 
@@ -21,8 +21,12 @@ extern "C"
   JNIEXPORT jboolean JNICALL Java_com_aldebaran_qi_Future_qiFutureCallIsCancelled(JNIEnv *env, jobject obj, jlong pFuture);
   JNIEXPORT jboolean JNICALL Java_com_aldebaran_qi_Future_qiFutureCallIsDone(JNIEnv *env, jobject obj, jlong pFuture);
   JNIEXPORT void JNICALL Java_com_aldebaran_qi_Future_qiFutureCallWaitWithTimeout(JNIEnv *env, jobject obj, jlong pFuture, jint timeout);
-  JNIEXPORT void JNICALL Java_com_aldebaran_qi_Future_qiFutureDestroy(JNIEnv* env, jobject obj, jlong pFuture);
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_Future_qiFutureDestroy(JNIEnv* env, jclass cls, jlong pFuture);
   JNIEXPORT void JNICALL Java_com_aldebaran_qi_Future_qiFutureCallConnectCallback(JNIEnv *env, jobject obj, jlong pFuture, jobject callback, jint futureCallbackType);
+  JNIEXPORT jstring JNICALL Java_com_aldebaran_qi_Future_qiFutureUncaughtError(JNIEnv *env, jclass cls, jlong pFuture);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_Future_qiFutureOfValue(JNIEnv *env, jclass cls, jobject value);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_Future_qiFutureOfError(JNIEnv *env, jclass cls, jstring errorMessage);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_Future_qiFutureOfCancelled(JNIEnv *env, jclass cls);
   /**
    * Call native future "andThen" for Function(P)->R
    * @param env JNI environment
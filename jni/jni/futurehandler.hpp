@@ -37,7 +37,7 @@ namespace qi
 
       // We need to get global reference on each object of array to use them in callback thread.
       jint size = env->GetArrayLength(args);
-      jobjectArray array = (jobjectArray) env->NewGlobalRef(env->NewObjectArray(size, env->FindClass("java/lang/Object"), 0));
+      jobjectArray array = (jobjectArray) env->NewGlobalRef(env->NewObjectArray(size, cls_object, 0));
       jint i = 0;
       while (i < size)
       {
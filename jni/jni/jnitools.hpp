@@ -11,12 +11,14 @@
 #define _JAVA_JNI_JNITOOLS_HPP_
 
 #include <iostream>
+#include <cstdint>
 #include <jni.h>
 
 #ifdef ANDROID
 # include <android/log.h>
 #endif
 
+#include <qi/log.hpp>
 #include <qi/property.hpp>
 
 // Define a portable JNIEnv* pointer (API between arm and intel differs)
@@ -40,12 +42,16 @@ extern jclass cls_long;
 extern jclass cls_boolean;
 
 extern jclass cls_future;
-extern jfieldID field_future_pointer;
 extern jclass cls_anyobject;
 extern jclass cls_tuple;
 
 extern jclass cls_list;
 extern jclass cls_arraylist;
+extern jclass cls_intArray;
+extern jclass cls_longArray;
+extern jclass cls_floatArray;
+extern jclass cls_doubleArray;
+extern jclass cls_byteArray;
 
 extern jclass cls_map;
 extern jclass cls_hashmap;
@@ -54,7 +60,70 @@ extern jclass cls_enum;
 extern jclass cls_object;
 extern jclass cls_nativeTools;
 extern jclass cls_throwable;
+extern jclass cls_bytebuffer;
+extern jclass cls_rawbuffer;
+extern jclass cls_signalBatchDispatcher;
+extern jclass cls_signalLatestDispatcher;
+extern jclass cls_function;
+extern jclass cls_consumer;
+extern jclass cls_futureCallback;
+extern jclass cls_signalListener;
+extern jclass cls_callback;
 extern jmethodID method_NativeTools_callJava;
+extern jmethodID method_NativeTools_listFromArray;
+extern jmethodID method_NativeTools_mapToArray;
+
+// Method and field IDs used by the converters, resolved once by initTypeSystem.
+extern jmethodID method_Void_init;
+extern jmethodID method_Boolean_init;
+extern jmethodID method_Boolean_booleanValue;
+extern jmethodID method_Integer_init;
+extern jmethodID method_Integer_intValue;
+extern jmethodID method_Long_init;
+extern jmethodID method_Long_longValue;
+extern jmethodID method_Float_init;
+extern jmethodID method_Float_floatValue;
+extern jmethodID method_Double_init;
+extern jmethodID method_Double_doubleValue;
+
+extern jmethodID method_Future_init;
+extern jmethodID method_Future_of;
+extern jmethodID method_Future_pointer;
+extern jmethodID method_AnyObject_init;
+extern jfieldID field_anyobject_pointer;
+extern jmethodID method_Tuple_init;
+extern jmethodID method_Tuple_size;
+extern jmethodID method_Tuple_get;
+extern jmethodID method_Tuple_set;
+
+extern jmethodID method_ArrayList_init;
+extern jmethodID method_List_size;
+extern jmethodID method_List_get;
+extern jmethodID method_List_add;
+extern jmethodID method_List_toArray;
+
+extern jmethodID method_HashMap_init;
+extern jmethodID method_Map_size;
+extern jmethodID method_Map_put;
+
+extern jmethodID method_ByteBuffer_allocate;
+extern jmethodID method_ByteBuffer_put;
+extern jmethodID method_ByteBuffer_asReadOnlyBuffer;
+extern jmethodID method_ByteBuffer_limit;
+extern jmethodID method_ByteBuffer_position;
+extern jmethodID method_ByteBuffer_hasArray;
+extern jmethodID method_ByteBuffer_array;
+extern jmethodID method_ByteBuffer_arrayOffset;
+extern jmethodID method_RawBuffer_track;
+extern jmethodID method_SignalBatchDispatcher_deliver;
+extern jmethodID method_SignalLatestDispatcher_deliver;
+extern jmethodID method_Function_execute;
+extern jmethodID method_Consumer_consume;
+extern jmethodID method_FutureCallback_onFinished;
+extern jmethodID method_QiSignalListener_onSignalReceived;
+extern jmethodID method_Callback_onSuccess;
+extern jmethodID method_Callback_onFailure;
+extern jmethodID method_Callback_onComplete;
 extern JavaVM* javaVirtualMachine;
 
 extern jclass LogReportClass;
@@ -67,6 +136,14 @@ extern "C"
   JNIEXPORT void JNICALL JNI_OnUnload(JavaVM* vm, void* unused);
   JNIEXPORT void JNICALL Java_com_aldebaran_qi_EmbeddedTools_initTypeSystem(JNIEnv* env,
                                                                             jclass unused = nullptr);
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_EmbeddedTools_setPersistentThreadAttachment(JNIEnv* env,
+                                                                                         jclass cls,
+                                                                                         jboolean persistent);
+  JNIEXPORT jboolean JNICALL Java_com_aldebaran_qi_EmbeddedTools_isPersistentThreadAttachment(JNIEnv* env,
+                                                                                            jclass cls);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_EmbeddedTools_getThreadAttachCount(JNIEnv* env, jclass cls);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_EmbeddedTools_getThreadDetachCount(JNIEnv* env, jclass cls);
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_log_LogReport_setNativeLevelMask(JNIEnv* env, jclass cls, jint mask);
 } // !extern C
 
 namespace qi {
@@ -82,6 +159,20 @@ namespace qi {
         JNIEnv* get();
     };
 
+    /// If true, threads attached by JNIAttach stay attached to the JVM once released and are only
+    /// detached when they exit. It avoids an attach/detach (and a new java.lang.Thread object) for
+    /// each callback run by the libqi event loop threads.
+    void setPersistentThreadAttachment(bool persistent);
+    bool persistentThreadAttachment();
+
+    /// Number of times JNIAttach attached or detached a thread since the library was loaded.
+    std::uint64_t threadAttachCount();
+    std::uint64_t threadDetachCount();
+
+    /// Applies a category filter to the logs forwarded to Java, as `qi::log::addFilter` does for
+    /// the default handler. Does nothing before the forwarding handler is added.
+    void filterJavaLogCategory(const std::string& category, qi::LogLevel level);
+
     // String conversion
     std::string toString(jstring input);
     jstring     toJstring(const std::string& input);
@@ -22,8 +22,7 @@ class JNIMap
     JNIMap(jobject obj);
 
     int     size();
-    jobjectArray keys();
-    jobject get(jobject key);
+    jobjectArray entries();
     jobject object();
     void    put(jobject key, jobject value);
 
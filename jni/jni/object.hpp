@@ -18,13 +18,22 @@ extern "C"
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_property(JNIEnv* env, jobject jobj, jlong pObj, jstring name);
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_setProperty(JNIEnv* env, jobject jobj, jlong pObj, jstring name, jobject property);
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_asyncCall(JNIEnv* env, jobject jobj, jlong pObj, jstring methodName, jobjectArray args);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_getMethodResolutionCacheHitCount(JNIEnv* env, jclass cls);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_getMethodResolutionCacheMissCount(JNIEnv* env, jclass cls);
+  JNIEXPORT jint JNICALL Java_com_aldebaran_qi_AnyObject_resolveMethod(JNIEnv* env, jobject jobj, jlong pObj, jstring methodName, jstring paramsSignature);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_asyncCallById(JNIEnv* env, jobject jobj, jlong pObj, jint methodId, jobjectArray args);
   JNIEXPORT jstring JNICALL Java_com_aldebaran_qi_AnyObject_metaObjectToString(JNIEnv* env, jobject jobj, jlong pObj);
-  JNIEXPORT void JNICALL Java_com_aldebaran_qi_AnyObject_destroy(JNIEnv* env, jobject jobj, jlong pObj);
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_AnyObject_destroy(JNIEnv* env, jclass cls, jlong pObj);
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_connect(JNIEnv *env, jobject obj, jlong pObject, jstring method, jobject instance, jstring service, jstring event);
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_disconnect(JNIEnv *env, jobject jobj, jlong pObject, jlong subscriberId);
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_connectSignal(JNIEnv *env, jobject obj, jlong pObject, jstring jSignalName, jobject listener);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_connectBatchSignal(JNIEnv *env, jobject obj, jlong pObject, jstring jSignalName, jobject dispatcher, jint maxBatchSize, jlong maxDelayMillis, jint capacity);
+  JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_connectLatestSignal(JNIEnv *env, jobject obj, jlong pObject, jstring jSignalName, jobject dispatcher, jlong minIntervalMillis);
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_disconnectSignal(JNIEnv *env, jobject obj, jlong pObject, jlong subscriberId);
   JNIEXPORT void JNICALL Java_com_aldebaran_qi_AnyObject_post(JNIEnv *env, jobject obj, jlong pObject, jstring eventName, jobjectArray args);
+  JNIEXPORT jint JNICALL Java_com_aldebaran_qi_AnyObject_resolveSignal(JNIEnv *env, jobject jobj, jlong pObject, jstring jSignalName);
+  JNIEXPORT jstring JNICALL Java_com_aldebaran_qi_AnyObject_checkSignalArguments(JNIEnv *env, jobject jobj, jlong pObject, jint signalId, jstring jSignature);
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_AnyObject_postById(JNIEnv *env, jobject jobj, jlong pObject, jint signalId, jobjectArray jargs);
   JNIEXPORT jobject JNICALL Java_com_aldebaran_qi_AnyObject_decodeJSON(JNIEnv* env, jclass cls, jstring str);
   JNIEXPORT jstring JNICALL Java_com_aldebaran_qi_AnyObject_encodeJSON(JNIEnv* env, jclass cls, jobject what);
   JNIEXPORT jint JNICALL Java_com_aldebaran_qi_AnyObject_compare(JNIEnv * env, jclass cls, jlong object1, jlong object2);
@@ -51,7 +51,7 @@ JNIEXPORT void JNICALL Java_com_aldebaran_qi_Promise__1setOnCancel
   (JNIEnv *, jobject, jlong, jobject);
 
 JNIEXPORT void JNICALL Java_com_aldebaran_qi_Promise__1destroyPromise
-  (JNIEnv *, jobject, jlong);
+  (JNIEnv *, jclass, jlong);
 
 #ifdef __cplusplus
 }
@@ -0,0 +1,50 @@
+/*
+**  Copyright (C) 2018 SoftBank Robotics Europe
+**  See COPYING for the license
+*/
+
+#ifndef QI_JNI_RAWBUFFER_JNI_HPP
+#define QI_JNI_RAWBUFFER_JNI_HPP
+
+#include <jni.h>
+#include <qi/buffer.hpp>
+#include <boost/optional.hpp>
+
+namespace qi
+{
+namespace jni
+{
+
+/// If true, raw buffers given to Java are read-only direct `java.nio.ByteBuffer` views on the
+/// native memory instead of heap copies.
+void setZeroCopyRawBuffers(bool zeroCopy);
+bool zeroCopyRawBuffers();
+
+/// Creates a read-only direct `java.nio.ByteBuffer` on the content of the buffer and returns a
+/// local reference to it.
+/// A copy of the `qi::Buffer` (which shares its content) is kept alive until the Java buffer is
+/// released with `com.aldebaran.qi.RawBuffer.release` or garbage collected.
+jobject createDirectByteBuffer(JNIEnv& env, const qi::Buffer& buffer);
+
+/// Creates a `qi::Buffer` from the content of a `java.nio.ByteBuffer`, from its start to its limit.
+/// If it is a direct buffer created by `createDirectByteBuffer`, the original `qi::Buffer` is
+/// returned without copy. Other direct buffers are copied once from their native memory, heap
+/// buffers are copied once from their backing array.
+/// Returns an empty optional if the content is not accessible.
+boost::optional<qi::Buffer> bufferFromByteBuffer(JNIEnv& env, jobject byteBuffer);
+
+} // namespace jni
+} // namespace qi
+
+extern "C"
+{
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_RawBuffer_setZeroCopy(JNIEnv* env, jclass cls,
+                                                                     jboolean zeroCopy);
+  JNIEXPORT jboolean JNICALL Java_com_aldebaran_qi_RawBuffer_isZeroCopy(JNIEnv* env, jclass cls);
+  JNIEXPORT jint JNICALL Java_com_aldebaran_qi_RawBuffer_getLiveBufferCount(JNIEnv* env, jclass cls);
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_RawBuffer_destroy(JNIEnv* env, jclass cls, jlong id);
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_RawBuffer_releaseDirectBuffer(JNIEnv* env, jclass cls,
+                                                                             jobject byteBuffer);
+} // !extern "C"
+
+#endif // !QI_JNI_RAWBUFFER_JNI_HPP
@@ -15,7 +15,7 @@
 extern "C"
 {
   JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_ServiceDirectory_qiTestSDCreate(JNIEnv *env, jobject obj);
-  JNIEXPORT void JNICALL Java_com_aldebaran_qi_ServiceDirectory_qiTestSDDestroy(JNIEnv *env, jobject obj, jlong pServiceDirectory);
+  JNIEXPORT void JNICALL Java_com_aldebaran_qi_ServiceDirectory_qiTestSDDestroy(JNIEnv *env, jclass cls, jlong pServiceDirectory);
   JNIEXPORT jstring JNICALL Java_com_aldebaran_qi_ServiceDirectory_qiListenUrl(JNIEnv *env, jobject obj, jlong pServiceDirectory);
   JNIEXPORT void JNICALL Java_com_aldebaran_qi_ServiceDirectory_qiTestSDClose(JNIEnv *env, jobject obj, jlong pServiceDirectory);
 } // !extern "C"
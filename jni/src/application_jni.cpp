@@ -88,7 +88,7 @@ JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_Application_qiApplicationGetSessio
   return (jlong)app->session().get();
 }
 
-JNIEXPORT void JNICALL Java_com_aldebaran_qi_Application_qiApplicationDestroy(JNIEnv *env, jobject QI_UNUSED(obj), jlong pApplication)
+JNIEXPORT void JNICALL Java_com_aldebaran_qi_Application_qiApplicationDestroy(JNIEnv *env, jclass QI_UNUSED(cls), jlong pApplication)
 {
   qi::Application* app = reinterpret_cast<qi::Application *>(pApplication);
 
@@ -132,5 +132,8 @@ JNIEXPORT void JNICALL Java_com_aldebaran_qi_Application_qiApplicationStop(JNIEn
 
 JNIEXPORT void JNICALL Java_com_aldebaran_qi_Application_setLogCategory(JNIEnv *env, jclass cls, jstring category, jlong verbosity)
 {
-  ::qi::log::addFilter(qi::jni::toString(category), (qi::LogLevel)verbosity, 0);
+  const std::string categoryName = qi::jni::toString(category);
+  ::qi::log::addFilter(categoryName, (qi::LogLevel)verbosity, 0);
+  // Filtered logs do not cross into Java either
+  qi::jni::filterJavaLogCategory(categoryName, (qi::LogLevel)verbosity);
 }
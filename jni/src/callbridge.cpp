@@ -12,6 +12,15 @@
 #include <boost/range/counting_range.hpp>
 #include <boost/algorithm/string/join.hpp>
 #include <boost/container/small_vector.hpp>
+#include <boost/optional.hpp>
+#include <boost/thread/shared_mutex.hpp>
+#include <boost/thread/locks.hpp>
+
+#include <atomic>
+#include <map>
+#include <memory>
+#include <mutex>
+#include <unordered_map>
 
 #include <ka/errorhandling.hpp>
 
@@ -160,6 +169,266 @@ namespace
                                               std::forward<Range2>(javaParams));
   }
 
+  /// Converts the Java parameters to the types of the parameters of a method, then calls it.
+  ///
+  /// Linearizable<jobject> Range
+  template<typename Range>
+  qi::Future<qi::AnyReference> metaCallConverting(const qi::AnyObject& object,
+                                                  const qi::MetaMethod& method,
+                                                  Range&& javaParams)
+  {
+    const auto& paramsSig = paramsSigs(method);
+    const auto size = static_cast<std::size_t>(boost::size(javaParams));
+    if (paramsSig.size() != size)
+      return qi::makeFutureError<qi::AnyReference>(
+        "Method '" + method.toString() + "' expects " + std::to_string(paramsSig.size())
+        + " parameters, " + std::to_string(size) + " given.");
+
+    std::vector<qi::AnyValue> params(size);
+    qi::AnyReferenceVector paramsAsReferences;
+    paramsAsReferences.reserve(size);
+    std::size_t i = 0u;
+    for (const jobject param : javaParams)
+    {
+      const auto convRef = AnyValue_from_JObject(param, paramsSig[i]);
+      params[i].reset(convRef.first, false, true);
+      paramsAsReferences.push_back(params[i].asReference());
+      ++i;
+    }
+
+    // `metaCall` clones the parameters, our copies can be destroyed once it returns.
+    return object.metaCall(method.uid(), paramsAsReferences);
+  }
+
+  /// Methods already chosen by `callSuitableMethod`, per object, method name and Java classes of
+  /// the parameters.
+  /// Classes are compared by identity (`IsSameObject` on global references), so that a lookup
+  /// makes no call into Java. The global references are released when their entry is evicted,
+  /// never at teardown. The table of objects is only read under a shared lock, and each
+  /// object has its own lock for its methods, so calls on different objects do not contend.
+  /// A cached method is used only if the current metaobject of the object still has it, so that
+  /// entries are invalidated when a remote metaobject changes.
+  class MethodResolutionCache
+  {
+  public:
+    /// Java classes of the parameters of a call, as local references.
+    using Classes = std::vector<jclass>;
+
+    /// Returns the method cached for this object, name and classes, counts a hit or a miss.
+    boost::optional<qi::MetaMethod> find(JNIEnv& env,
+                                         const qi::AnyObject& object,
+                                         const std::string& methodName,
+                                         const Classes& classes)
+    {
+      if (const auto entry = objectEntry(object))
+      {
+        std::lock_guard<std::mutex> lock(entry->mutex);
+        if (entry->object.lock() == object)
+        {
+          const auto methodsIt = entry->methods.find(methodName);
+          if (methodsIt != entry->methods.end())
+          {
+            auto& methods = methodsIt->second;
+            for (auto it = methods.begin(); it != methods.end(); ++it)
+            {
+              if (!sameClasses(env, it->classes, classes))
+                continue;
+
+              const qi::MetaMethod* const current = object.metaObject().method(it->method.uid());
+              if (current && sameMethod(*current, it->method))
+              {
+                ++_hits;
+                return *current;
+              }
+              releaseMethod(env, *it);
+              methods.erase(it);
+              --entry->count;
+              break;
+            }
+          }
+        }
+      }
+      ++_misses;
+      return {};
+    }
+
+    void insert(JNIEnv& env,
+                const qi::AnyObject& object,
+                const std::string& methodName,
+                const Classes& classes,
+                const qi::MetaMethod& method)
+    {
+      const auto entry = obtainObjectEntry(env, object);
+      std::lock_guard<std::mutex> lock(entry->mutex);
+      if (!(entry->object.lock() == object))
+      {
+        // An other object now lives at this address.
+        entry->object = qi::AnyWeakObject(object);
+        releaseMethods(env, *entry);
+      }
+      if (entry->count >= maxMethodsPerObject)
+        releaseMethods(env, *entry);
+
+      Method cached{ {}, method };
+      cached.classes.reserve(classes.size());
+      for (const jclass clazz : classes)
+        cached.classes.push_back(static_cast<jclass>(env.NewGlobalRef(clazz)));
+      entry->methods[methodName].push_back(std::move(cached));
+      ++entry->count;
+    }
+
+    /// Counts a call that could not use the cache.
+    void countMiss()
+    {
+      ++_misses;
+    }
+
+    std::uint64_t hits() const
+    {
+      return _hits.load();
+    }
+
+    std::uint64_t misses() const
+    {
+      return _misses.load();
+    }
+
+  private:
+    struct Method
+    {
+      /// Global references, released by `releaseMethod`.
+      std::vector<jclass> classes;
+      qi::MetaMethod method;
+    };
+
+    struct ObjectEntry
+    {
+      std::mutex mutex;
+      qi::AnyWeakObject object;
+      std::unordered_map<std::string, std::vector<Method>> methods;
+      std::size_t count = 0u;
+    };
+    using ObjectEntryPtr = std::shared_ptr<ObjectEntry>;
+
+    static const std::size_t maxObjects = 256u;
+    static const std::size_t maxMethodsPerObject = 128u;
+
+    static bool sameMethod(const qi::MetaMethod& m1, const qi::MetaMethod& m2)
+    {
+      return m1.name() == m2.name() && m1.parametersSignature() == m2.parametersSignature()
+             && m1.returnSignature() == m2.returnSignature();
+    }
+
+    static bool sameClasses(JNIEnv& env, const Classes& cached, const Classes& classes)
+    {
+      if (cached.size() != classes.size())
+        return false;
+      for (std::size_t i = 0u; i < classes.size(); ++i)
+      {
+        if (env.IsSameObject(cached[i], classes[i]) != JNI_TRUE)
+          return false;
+      }
+      return true;
+    }
+
+    static void releaseMethod(JNIEnv& env, Method& method)
+    {
+      for (const jclass clazz : method.classes)
+        env.DeleteGlobalRef(clazz);
+      method.classes.clear();
+    }
+
+    /// Empties the methods of an entry. The entry lock must be held.
+    static void releaseMethods(JNIEnv& env, ObjectEntry& entry)
+    {
+      for (auto& methods : entry.methods)
+      {
+        for (auto& method : methods.second)
+          releaseMethod(env, method);
+      }
+      entry.methods.clear();
+      entry.count = 0u;
+    }
+
+    ObjectEntryPtr objectEntry(const qi::AnyObject& object)
+    {
+      boost::shared_lock<boost::shared_mutex> lock(_objectsMutex);
+      const auto it = _objects.find(object.asGenericObject());
+      return it == _objects.end() ? ObjectEntryPtr{} : it->second;
+    }
+
+    ObjectEntryPtr obtainObjectEntry(JNIEnv& env, const qi::AnyObject& object)
+    {
+      if (auto entry = objectEntry(object))
+        return entry;
+
+      boost::unique_lock<boost::shared_mutex> lock(_objectsMutex);
+      if (_objects.size() >= maxObjects)
+      {
+        // Evicted entries may still be used by a lookup: they are emptied under their own lock.
+        for (auto it = _objects.begin(); it != _objects.end();)
+        {
+          std::lock_guard<std::mutex> entryLock(it->second->mutex);
+          if (it->second->object.lock().isValid())
+            ++it;
+          else
+          {
+            releaseMethods(env, *it->second);
+            it = _objects.erase(it);
+          }
+        }
+        if (_objects.size() >= maxObjects)
+        {
+          for (auto& evicted : _objects)
+          {
+            std::lock_guard<std::mutex> entryLock(evicted.second->mutex);
+            releaseMethods(env, *evicted.second);
+          }
+          _objects.clear();
+        }
+      }
+
+      auto& entry = _objects[object.asGenericObject()];
+      if (!entry)
+        entry = std::make_shared<ObjectEntry>();
+      return entry;
+    }
+
+    boost::shared_mutex _objectsMutex;
+    std::unordered_map<const qi::GenericObject*, ObjectEntryPtr> _objects;
+    std::atomic<std::uint64_t> _hits{ 0u };
+    std::atomic<std::uint64_t> _misses{ 0u };
+  };
+
+  MethodResolutionCache& methodResolutionCache()
+  {
+    // Never destroyed: static destructors run when the JVM may already be gone, its global
+    // references must not be released then.
+    static MethodResolutionCache* const cache = new MethodResolutionCache;
+    return *cache;
+  }
+
+  /// Fills the classes of the parameters, as local references to release, for the resolution
+  /// cache. Returns false if the chosen method may depend on the content of the parameters
+  /// (lists, maps and tuples are converted element by element).
+  ///
+  /// Linearizable<jobject> Range
+  template<typename Range>
+  bool resolutionClasses(JNIEnv& env, Range&& javaParams, MethodResolutionCache::Classes& classes)
+  {
+    classes.reserve(boost::size(javaParams));
+    for (const jobject param : javaParams)
+    {
+      if (env.IsSameObject(param, nullptr))
+        return false;
+      if (env.IsInstanceOf(param, cls_list) || env.IsInstanceOf(param, cls_map)
+          || env.IsInstanceOf(param, cls_tuple))
+        return false;
+      classes.push_back(env.GetObjectClass(param));
+    }
+    return true;
+  }
+
   /// Tries to call a method if a suitable one is found for this name and parameters, otherwise
   /// returns a future with an error.
   qi::Future<qi::AnyReference> callSuitableMethod(JNIEnv& env,
@@ -179,6 +448,20 @@ namespace
     const auto javaParams =
       transform(scopedJavaParams, [](const ScopedJavaParam& param) { return param.value; });
 
+    // Skip the resolution below if this object was already called with this name and the same
+    // parameters classes.
+    auto& cache = methodResolutionCache();
+    MethodResolutionCache::Classes classes;
+    const auto releaseClasses = ka::scoped([&] {
+      for (const jclass clazz : classes)
+        qi::jni::releaseObject(clazz);
+    });
+    const bool cacheable = resolutionClasses(env, javaParams, classes);
+    if (!cacheable)
+      cache.countMiss();
+    else if (const auto cachedMethod = cache.find(env, object, methodNameMaybeWithSig, classes))
+      return metaCallConverting(object, *cachedMethod, javaParams);
+
     // We cannot use `qi::MetaObject::findMethod` because:
     //   - The overload that takes no argument needs the exact name (with the signature) which we
     //     are not sure to have here.
@@ -204,6 +487,8 @@ namespace
       return qi::makeFutureError<qi::AnyReference>(*errorMsg);
 
     const auto& candidate = boost::get<ParamsBoundMethod>(methodOrError);
+    if (cacheable)
+      cache.insert(env, object, methodNameMaybeWithSig, classes, candidate.method);
 
     // `qi::Object<T>::metaCall` clones the parameters that are given to it, meaning we can safely
     // destroy the copies we own once the call is done.
@@ -213,6 +498,41 @@ namespace
                            qi::AnyReferenceVector{ begin(paramsAsReferences),
                                                    end(paramsAsReferences) });
   }
+
+  /// Calls a method already resolved by its id: the parameters are converted to the types of
+  /// this method only, there is no name lookup nor trial conversion.
+  qi::Future<qi::AnyReference> callMethodById(JNIEnv& env,
+                                              const qi::AnyObject& object,
+                                              unsigned int methodId,
+                                              jobjectArray javaParamsArr)
+  {
+    const qi::MetaMethod* const method = object.metaObject().method(methodId);
+    if (!method)
+      return qi::makeFutureError<qi::AnyReference>(
+        "No method with id " + std::to_string(methodId) + " in the given object.");
+
+    const auto size = env.GetArrayLength(javaParamsArr);
+    std::vector<jobject> javaParams;
+    javaParams.reserve(size);
+    const auto releaseParams = ka::scoped([&] {
+      for (const jobject param : javaParams)
+        qi::jni::releaseObject(param);
+    });
+    for (jint i = 0; i < size; ++i)
+      javaParams.push_back(env.GetObjectArrayElement(javaParamsArr, i));
+
+    return metaCallConverting(object, *method, javaParams);
+  }
+
+  /// Adapts the future of a method call to the future given to Java.
+  qi::Future<qi::AnyValue>* toJavaCallFuture(const qi::Future<qi::AnyReference>& metfut)
+  {
+    qi::Promise<qi::AnyValue> promise;
+    qi::adaptFuture(metfut, promise, [](const qi::AnyReference& ref, qi::AnyValue& val) {
+      val.reset(ref, false, true);
+    });
+    return new auto(promise.future());
+  }
 }
 
 /**
@@ -231,15 +551,67 @@ qi::Future<qi::AnyValue>* call_from_java(JNIEnv* env,
       },
       ka::exception_message{}),
     [&]{
-      const auto metfut = callSuitableMethod(*env, object, methodNameMaybeWithSig, javaParamsArr);
-      qi::Promise<qi::AnyValue> promise;
-      qi::adaptFuture(metfut, promise, [](const qi::AnyReference& ref, qi::AnyValue& val) {
-        val.reset(ref, false, true);
-      });
-      return new auto(promise.future());
+      return toJavaCallFuture(callSuitableMethod(*env, object, methodNameMaybeWithSig, javaParamsArr));
     });
 }
 
+/**
+ * @brief call_from_java Calls a method of a `qi.Object`, already resolved by its id, from a Java
+ * call.
+ */
+qi::Future<qi::AnyValue>* call_from_java(JNIEnv* env,
+                                         qi::AnyObject object,
+                                         unsigned int methodId,
+                                         jobjectArray javaParamsArr)
+{
+  return ka::invoke_catch(
+    ka::compose(
+      [&](const std::string& msg) {
+        throwNewDynamicCallException(env, msg.c_str());
+        return nullptr;
+      },
+      ka::exception_message{}),
+    [&]{
+      return toJavaCallFuture(callMethodById(*env, object, methodId, javaParamsArr));
+    });
+}
+
+/**
+ * @brief resolve_method_id Finds the method to bind to a Java interface method.
+ * @return The id of the method with exactly this name and parameters signature if any, else of the
+ * most compatible method with the same name and parameters convertible from this signature.
+ * @throw std::runtime_error If no method is compatible.
+ */
+int resolve_method_id(const qi::AnyObject& object,
+                      const std::string& methodName,
+                      const std::string& paramsSignature)
+{
+  const auto& metaObject = object.metaObject();
+  const auto nameWithSig = methodName + "::" + paramsSignature;
+  const auto exactId = metaObject.methodId(nameWithSig);
+  if (exactId >= 0)
+    return exactId;
+
+  // Only overloads whose parameters are convertible from the signature: binding another
+  // overload of the same arity would make every call fail at conversion.
+  auto compatibleMethods = metaObject.findCompatibleMethod(nameWithSig);
+  sort(compatibleMethods, greaterCompatibility);
+  if (!compatibleMethods.empty() && compatibleMethods.front().second > 0.f)
+    return static_cast<int>(compatibleMethods.front().first.uid());
+
+  throw std::runtime_error("No method " + nameWithSig + " nor compatible overload in the given object.");
+}
+
+std::uint64_t method_resolution_cache_hits()
+{
+  return methodResolutionCache().hits();
+}
+
+std::uint64_t method_resolution_cache_misses()
+{
+  return methodResolutionCache().misses();
+}
+
 /**
  * @brief object2value Embed a jobject inside a jvalue
  * @param object jobject to embed
@@ -140,9 +140,7 @@ static jobject obtainValue(JNIEnv *env, qi::Future<qi::AnyValue>* future, jint m
  */
 static jobject callFunctionExecute(JNIEnv *env, jobject function, jobject argument)
 {
-    static const char *method = "execute";
-    static const char *methodSig = "(Ljava/lang/Object;)Ljava/lang/Object;";
-    jobject answer = qi::jni::Call<jobject>::invoke(env, function, method, methodSig, argument);
+    jobject answer = env->CallObjectMethod(function, method_Function_execute, argument);
 
     //Check if exception happened on Java side
     qi::jni::handlePendingException(*env);
@@ -158,9 +156,7 @@ static jobject callFunctionExecute(JNIEnv *env, jobject function, jobject argume
  */
 static void callConsumerConsume(JNIEnv *env, jobject function, jobject argument)
 {
-    static const char *method = "consume";
-    static const char *methodSig = "(Ljava/lang/Object;)V";
-    qi::jni::Call<void>::invoke(env, function, method, methodSig, argument);
+    env->CallVoidMethod(function, method_Consumer_consume, argument);
 
     //Check if exception happened on Java side
     qi::jni::handlePendingException(*env);
@@ -172,10 +168,7 @@ static void callConsumerConsume(JNIEnv *env, jobject function, jobject argument)
  */
 static jobject futureOfNull(JNIEnv *env)
 {
-    static const char *method = "of";
-    static const char *methodSig = "(Ljava/lang/Object;)Lcom/aldebaran/qi/Future;";
-    jmethodID methodOf = env->GetStaticMethodID(cls_future,method,methodSig);
-    return env->CallStaticObjectMethod(cls_future, methodOf, nullptr);
+    return env->CallStaticObjectMethod(cls_future, method_Future_of, nullptr);
 }
 
 /**
@@ -191,8 +184,8 @@ static qi::Future<qi::AnyValue> obtainFutureCfromFutureJava(JNIEnv *env, jobject
         future = futureOfNull(env);
     }
 
-    // Obtain the C++ pointer embed in Future Java
-    jlong pointer = env->GetLongField(future, field_future_pointer);
+    // Obtain the C++ pointer embed in Future Java (Created on demand for a completed future)
+    jlong pointer = env->CallLongMethod(future, method_Future_pointer);
 
     //Check if exception happened on Java side
     qi::jni::handlePendingException(*env);
@@ -229,9 +222,7 @@ struct CallbackFunctor
         qi::jni::JNIAttach attach;
         JNIEnv *env = attach.get();
 
-        static const char *method = "onFinished";
-        static const char *methodSig = "(Lcom/aldebaran/qi/Future;)V";
-        qi::jni::Call<void>::invoke(env, callback, method, methodSig, argFuture);
+        env->CallVoidMethod(callback, method_FutureCallback_onFinished, argFuture);
         if (env->ExceptionCheck() == JNI_TRUE)
         {
             qiLogError() << "Exception when calling Future.Callback.onFinished(…) from JNI";
@@ -450,7 +441,37 @@ JNIEXPORT void JNICALL Java_com_aldebaran_qi_Future_qiFutureCallConnectCallback(
     future->connect(CallbackFunctor{ gThisFuture, gCallback }, type);
 }
 
-JNIEXPORT void JNICALL Java_com_aldebaran_qi_Future_qiFutureDestroy(JNIEnv* QI_UNUSED(env), jobject QI_UNUSED(obj), jlong pFuture)
+JNIEXPORT jstring JNICALL Java_com_aldebaran_qi_Future_qiFutureUncaughtError(JNIEnv *QI_UNUSED(env), jclass QI_UNUSED(cls), jlong pFuture)
+{
+    auto * future = futureFromPointer(pFuture);
+    if (future->wait(0) != qi::FutureState_FinishedWithError)
+        return nullptr;
+    return qi::jni::toJstring(future->error());
+}
+
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_Future_qiFutureOfValue(JNIEnv *QI_UNUSED(env), jclass QI_UNUSED(cls), jobject value)
+{
+    std::unique_ptr<qi::Future<qi::AnyValue>> resultPointer(
+          new qi::Future<qi::AnyValue>(qi::AnyValue::from<jobject>(value)));
+    return reinterpret_cast<jlong>(resultPointer.release());
+}
+
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_Future_qiFutureOfError(JNIEnv *QI_UNUSED(env), jclass QI_UNUSED(cls), jstring errorMessage)
+{
+    std::unique_ptr<qi::Future<qi::AnyValue>> resultPointer(
+          new qi::Future<qi::AnyValue>(qi::makeFutureError<qi::AnyValue>(qi::jni::toString(errorMessage))));
+    return reinterpret_cast<jlong>(resultPointer.release());
+}
+
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_Future_qiFutureOfCancelled(JNIEnv *QI_UNUSED(env), jclass QI_UNUSED(cls))
+{
+    qi::Promise<qi::AnyValue> promise;
+    promise.setCanceled();
+    std::unique_ptr<qi::Future<qi::AnyValue>> resultPointer(new auto(promise.future()));
+    return reinterpret_cast<jlong>(resultPointer.release());
+}
+
+JNIEXPORT void JNICALL Java_com_aldebaran_qi_Future_qiFutureDestroy(JNIEnv* QI_UNUSED(env), jclass QI_UNUSED(cls), jlong pFuture)
 {
     auto * future = futureFromPointer(pFuture);
     delete future;
@@ -19,9 +19,9 @@ static qi::FutureHandler globalFutureHandler;
 
 namespace qi {
 
-  void FutureHandler::onSuccess(JNIEnv *env, jclass cls, qi::CallbackInfo *info)
+  void FutureHandler::onSuccess(JNIEnv *env, jclass QI_UNUSED(cls), qi::CallbackInfo *info)
   {
-    jmethodID mid = env->GetMethodID(cls, "onSuccess", "(Lcom/aldebaran/qi/Future;[Ljava/lang/Object;)V");
+    const jmethodID mid = method_Callback_onSuccess;
     if (mid == 0)
     {
       qiLogError("qimessaging.jni") << "onSuccess method of com.aldebaran.qi.Callback is not implemented";
@@ -33,9 +33,9 @@ namespace qi {
     env->DeleteGlobalRef(fut);
   }
 
-  void FutureHandler::onFailure(JNIEnv *env, jclass cls, qi::CallbackInfo *info)
+  void FutureHandler::onFailure(JNIEnv *env, jclass QI_UNUSED(cls), qi::CallbackInfo *info)
   {
-    jmethodID mid = env->GetMethodID(cls, "onFailure", "(Lcom/aldebaran/qi/Future;[Ljava/lang/Object;)V");
+    const jmethodID mid = method_Callback_onFailure;
     if (mid == 0)
     {
       qiLogError("qimessaging.jni") << "onFailure method of com.aldebaran.qi.Callback is not implemented";
@@ -47,9 +47,9 @@ namespace qi {
     env->DeleteGlobalRef(fut);
   }
 
-  void FutureHandler::onComplete(JNIEnv *env, jclass cls, qi::CallbackInfo *info)
+  void FutureHandler::onComplete(JNIEnv *env, jclass QI_UNUSED(cls), qi::CallbackInfo *info)
   {
-    jmethodID mid = env->GetMethodID(cls, "onComplete", "(Lcom/aldebaran/qi/Future;[Ljava/lang/Object;)V");
+    const jmethodID mid = method_Callback_onComplete;
     if (mid == 0)
     {
       qiLogError("qimessaging.jni") << "onComplete method of com.aldebaran.qi.Callback is not implemented";
@@ -103,9 +103,7 @@ namespace qi {
     {
       if ((*it).second == info)
       {
-        jmethodID init = 0;
-
-        if ((init = env->GetMethodID(cls_future, "<init>", "(J)V")) == 0)
+        if (!method_Future_init)
         {
           qiLogError("qimessaging.jni") << "Cannot find com.aldebaran.qi.Future.<init>(J) constructor";
           return 0;
@@ -113,7 +111,7 @@ namespace qi {
 
         // Create a new Future class.
         // Add a new global ref to object to avoid destruction before entry into Java code.
-        jobject future = env->NewObject(cls_future, init, (*it).first);
+        jobject future = env->NewObject(cls_future, method_Future_init, (*it).first);
 #ifdef ANDROID
         return env->NewGlobalRef(future);
 #else
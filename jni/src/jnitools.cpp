@@ -12,9 +12,11 @@
 #include <signal.h>
 #include <qi/signature.hpp>
 #include <qi/session.hpp>
+#include <qi/buffer.hpp>
 #include "jnitools.hpp"
 
 #include <boost/thread/tss.hpp>
+#include <atomic>
 
 qiLogCategory("qimessaging.jni");
 
@@ -27,12 +29,16 @@ jclass cls_long;
 jclass cls_boolean;
 
 jclass cls_future;
-jfieldID field_future_pointer;
 jclass cls_anyobject;
 jclass cls_tuple;
 
 jclass cls_list;
 jclass cls_arraylist;
+jclass cls_intArray;
+jclass cls_longArray;
+jclass cls_floatArray;
+jclass cls_doubleArray;
+jclass cls_byteArray;
 
 jclass cls_map;
 jclass cls_hashmap;
@@ -40,7 +46,69 @@ jclass cls_enum;
 jclass cls_object;
 jclass cls_nativeTools;
 jclass cls_throwable;
+jclass cls_bytebuffer;
+jclass cls_rawbuffer;
+jclass cls_signalBatchDispatcher;
+jclass cls_signalLatestDispatcher;
+jclass cls_function;
+jclass cls_consumer;
+jclass cls_futureCallback;
+jclass cls_signalListener;
+jclass cls_callback;
 jmethodID method_NativeTools_callJava;
+jmethodID method_NativeTools_listFromArray;
+jmethodID method_NativeTools_mapToArray;
+
+jmethodID method_Void_init;
+jmethodID method_Boolean_init;
+jmethodID method_Boolean_booleanValue;
+jmethodID method_Integer_init;
+jmethodID method_Integer_intValue;
+jmethodID method_Long_init;
+jmethodID method_Long_longValue;
+jmethodID method_Float_init;
+jmethodID method_Float_floatValue;
+jmethodID method_Double_init;
+jmethodID method_Double_doubleValue;
+
+jmethodID method_Future_init;
+jmethodID method_Future_of;
+jmethodID method_Future_pointer;
+jmethodID method_AnyObject_init;
+jfieldID field_anyobject_pointer;
+jmethodID method_Tuple_init;
+jmethodID method_Tuple_size;
+jmethodID method_Tuple_get;
+jmethodID method_Tuple_set;
+
+jmethodID method_ArrayList_init;
+jmethodID method_List_size;
+jmethodID method_List_get;
+jmethodID method_List_add;
+jmethodID method_List_toArray;
+
+jmethodID method_HashMap_init;
+jmethodID method_Map_size;
+jmethodID method_Map_put;
+
+jmethodID method_ByteBuffer_allocate;
+jmethodID method_ByteBuffer_put;
+jmethodID method_ByteBuffer_asReadOnlyBuffer;
+jmethodID method_ByteBuffer_limit;
+jmethodID method_ByteBuffer_position;
+jmethodID method_ByteBuffer_hasArray;
+jmethodID method_ByteBuffer_array;
+jmethodID method_ByteBuffer_arrayOffset;
+jmethodID method_RawBuffer_track;
+jmethodID method_SignalBatchDispatcher_deliver;
+jmethodID method_SignalLatestDispatcher_deliver;
+jmethodID method_Function_execute;
+jmethodID method_Consumer_consume;
+jmethodID method_FutureCallback_onFinished;
+jmethodID method_QiSignalListener_onSignalReceived;
+jmethodID method_Callback_onSuccess;
+jmethodID method_Callback_onFailure;
+jmethodID method_Callback_onComplete;
 
 /**
  * @brief Reference of Java class to report log
@@ -51,6 +119,17 @@ jclass LogReportClass;
  */
 jmethodID jniLog;
 
+namespace
+{
+  /// Log levels having a Java LogCatcher, one bit per `qi::LogLevel`. Updated by LogReport on
+  /// each registration change, so that other logs never leave C++.
+  std::atomic<std::uint32_t> javaLogLevelMask{0u};
+
+  /// Subscriber of the handler forwarding logs to Java, if added.
+  std::atomic<bool> javaLogHandlerAdded{false};
+  qi::log::SubscriberId javaLogHandlerId = 0;
+}
+
 JavaVM* javaVirtualMachine = nullptr;
 
 
@@ -76,6 +155,9 @@ void forwardToJavaLogReport(const qi::LogLevel verb,
   // Do nothing if the LogReport Java class could not be loaded.
   if(!msg || !LogReportClass)
      return;
+  // Nor if no Java LogCatcher listens to this level: no string, no up-call.
+  if ((javaLogLevelMask.load(std::memory_order_relaxed) & (1u << static_cast<unsigned>(verb))) == 0u)
+     return;
   qi::jni::JNIAttach attach;
   auto* const env = attach.get();
   const auto message = ka::scoped(env->NewStringUTF(msg), qi::jni::releaseString);
@@ -102,6 +184,131 @@ static inline jclass loadClass(JNIEnv *env, const char *className)
   return reinterpret_cast<jclass>(env->NewGlobalRef(env->FindClass(className)));
 }
 
+/// Returns a global reference to the class, or null without pending exception if it is not
+/// available.
+static inline jclass loadOptionalClass(JNIEnv *env, const char *className)
+{
+  const auto cls = ka::scoped(env->FindClass(className), qi::jni::releaseClazz);
+  if (!cls.value)
+  {
+    env->ExceptionClear();
+    return nullptr;
+  }
+  return reinterpret_cast<jclass>(env->NewGlobalRef(cls.value));
+}
+
+/// Returns the method ID, or null if the class or the method is not available.
+static inline jmethodID loadMethod(JNIEnv *env, jclass cls, const char *name, const char *sig)
+{
+  if (!cls)
+    return nullptr;
+  const auto mid = env->GetMethodID(cls, name, sig);
+  if (!mid)
+  {
+    env->ExceptionClear();
+    qiLogError() << "Cannot find method " << name << sig;
+  }
+  return mid;
+}
+
+/// Returns the static method ID, or null if the class or the method is not available.
+static inline jmethodID loadStaticMethod(JNIEnv *env, jclass cls, const char *name, const char *sig)
+{
+  if (!cls)
+    return nullptr;
+  const auto mid = env->GetStaticMethodID(cls, name, sig);
+  if (!mid)
+  {
+    env->ExceptionClear();
+    qiLogError() << "Cannot find static method " << name << sig;
+  }
+  return mid;
+}
+
+/// Returns the field ID, or null if the class or the field is not available.
+static inline jfieldID loadField(JNIEnv *env, jclass cls, const char *name, const char *sig)
+{
+  if (!cls)
+    return nullptr;
+  const auto fid = env->GetFieldID(cls, name, sig);
+  if (!fid)
+  {
+    env->ExceptionClear();
+    qiLogError() << "Cannot find field " << name << " " << sig;
+  }
+  return fid;
+}
+
+/// Method and field IDs used on the conversion paths. They are resolved once here so that
+/// converting a value never looks up a symbol.
+static void init_methods(JNIEnv *env)
+{
+  method_Void_init = loadMethod(env, cls_void, "<init>", "()V");
+  method_Boolean_init = loadMethod(env, cls_boolean, "<init>", "(Z)V");
+  method_Boolean_booleanValue = loadMethod(env, cls_boolean, "booleanValue", "()Z");
+  method_Integer_init = loadMethod(env, cls_integer, "<init>", "(I)V");
+  method_Integer_intValue = loadMethod(env, cls_integer, "intValue", "()I");
+  method_Long_init = loadMethod(env, cls_long, "<init>", "(J)V");
+  method_Long_longValue = loadMethod(env, cls_long, "longValue", "()J");
+  // java.lang.Float is constructible from a double, so both float types share the signature.
+  method_Float_init = loadMethod(env, cls_float, "<init>", "(D)V");
+  method_Float_floatValue = loadMethod(env, cls_float, "floatValue", "()F");
+  method_Double_init = loadMethod(env, cls_double, "<init>", "(D)V");
+  method_Double_doubleValue = loadMethod(env, cls_double, "doubleValue", "()D");
+
+  method_Future_init = loadMethod(env, cls_future, "<init>", "(J)V");
+  method_Future_of = loadStaticMethod(env, cls_future, "of", "(Ljava/lang/Object;)Lcom/aldebaran/qi/Future;");
+  // Completed futures create their C++ future on demand, so the pointer is never read as a field.
+  method_Future_pointer = loadMethod(env, cls_future, "pointer", "()J");
+  method_AnyObject_init = loadMethod(env, cls_anyobject, "<init>", "(J)V");
+  field_anyobject_pointer = loadField(env, cls_anyobject, "_p", "J");
+  method_Tuple_init = loadMethod(env, cls_tuple, "<init>", "([Ljava/lang/Object;)V");
+  method_Tuple_size = loadMethod(env, cls_tuple, "size", "()I");
+  method_Tuple_get = loadMethod(env, cls_tuple, "get", "(I)Ljava/lang/Object;");
+  method_Tuple_set = loadMethod(env, cls_tuple, "set", "(ILjava/lang/Object;)V");
+
+  method_ArrayList_init = loadMethod(env, cls_arraylist, "<init>", "()V");
+  method_List_size = loadMethod(env, cls_list, "size", "()I");
+  method_List_get = loadMethod(env, cls_list, "get", "(I)Ljava/lang/Object;");
+  method_List_add = loadMethod(env, cls_list, "add", "(Ljava/lang/Object;)Z");
+  method_List_toArray = loadMethod(env, cls_list, "toArray", "()[Ljava/lang/Object;");
+  method_NativeTools_listFromArray =
+    loadStaticMethod(env, cls_nativeTools, "listFromArray", "(Ljava/lang/Object;)Ljava/util/ArrayList;");
+
+  method_NativeTools_mapToArray =
+    loadStaticMethod(env, cls_nativeTools, "mapToArray", "(Ljava/util/Map;)[Ljava/lang/Object;");
+  method_HashMap_init = loadMethod(env, cls_hashmap, "<init>", "()V");
+  method_Map_size = loadMethod(env, cls_map, "size", "()I");
+  method_Map_put = loadMethod(env, cls_map, "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
+
+  method_ByteBuffer_allocate = loadStaticMethod(env, cls_bytebuffer, "allocate", "(I)Ljava/nio/ByteBuffer;");
+  method_ByteBuffer_put = loadMethod(env, cls_bytebuffer, "put", "([BII)Ljava/nio/ByteBuffer;");
+  method_ByteBuffer_asReadOnlyBuffer = loadMethod(env, cls_bytebuffer, "asReadOnlyBuffer", "()Ljava/nio/ByteBuffer;");
+  method_ByteBuffer_limit = loadMethod(env, cls_bytebuffer, "limit", "()I");
+  method_ByteBuffer_position = loadMethod(env, cls_bytebuffer, "position", "()I");
+  method_ByteBuffer_hasArray = loadMethod(env, cls_bytebuffer, "hasArray", "()Z");
+  method_ByteBuffer_array = loadMethod(env, cls_bytebuffer, "array", "()[B");
+  method_ByteBuffer_arrayOffset = loadMethod(env, cls_bytebuffer, "arrayOffset", "()I");
+  method_RawBuffer_track = loadStaticMethod(env, cls_rawbuffer, "track", "(Ljava/nio/ByteBuffer;J)V");
+  method_SignalBatchDispatcher_deliver =
+    loadMethod(env, cls_signalBatchDispatcher, "deliver", "([Ljava/lang/Object;J)V");
+  method_SignalLatestDispatcher_deliver =
+    loadMethod(env, cls_signalLatestDispatcher, "deliver", "([Ljava/lang/Object;J)V");
+
+  method_Function_execute = loadMethod(env, cls_function, "execute", "(Ljava/lang/Object;)Ljava/lang/Object;");
+  method_Consumer_consume = loadMethod(env, cls_consumer, "consume", "(Ljava/lang/Object;)V");
+  method_FutureCallback_onFinished =
+    loadMethod(env, cls_futureCallback, "onFinished", "(Lcom/aldebaran/qi/Future;)V");
+  method_QiSignalListener_onSignalReceived =
+    loadMethod(env, cls_signalListener, "onSignalReceived", "([Ljava/lang/Object;)V");
+  method_Callback_onSuccess =
+    loadMethod(env, cls_callback, "onSuccess", "(Lcom/aldebaran/qi/Future;[Ljava/lang/Object;)V");
+  method_Callback_onFailure =
+    loadMethod(env, cls_callback, "onFailure", "(Lcom/aldebaran/qi/Future;[Ljava/lang/Object;)V");
+  method_Callback_onComplete =
+    loadMethod(env, cls_callback, "onComplete", "(Lcom/aldebaran/qi/Future;[Ljava/lang/Object;)V");
+}
+
 static void init_classes(JNIEnv *env)
 {
   cls_void = loadClass(env, "java/lang/Void");
@@ -113,12 +320,16 @@ static void init_classes(JNIEnv *env)
   cls_boolean = loadClass(env, "java/lang/Boolean");
 
   cls_future = loadClass(env, "com/aldebaran/qi/Future");
-  field_future_pointer = env->GetFieldID(cls_future, "_fut", "J");
   cls_anyobject = loadClass(env, "com/aldebaran/qi/AnyObject");
   cls_tuple = loadClass(env, "com/aldebaran/qi/Tuple");
 
   cls_list = loadClass(env, "java/util/List");
   cls_arraylist = loadClass(env, "java/util/ArrayList");
+  cls_intArray = loadClass(env, "[I");
+  cls_longArray = loadClass(env, "[J");
+  cls_floatArray = loadClass(env, "[F");
+  cls_doubleArray = loadClass(env, "[D");
+  cls_byteArray = loadClass(env, "[B");
 
   cls_map = loadClass(env, "java/util/Map");
   cls_hashmap = loadClass(env, "java/util/HashMap");
@@ -127,6 +338,16 @@ static void init_classes(JNIEnv *env)
   cls_nativeTools = loadClass(env, "com/aldebaran/qi/NativeTools");
   cls_enum = loadClass(env, "java/lang/Enum");
   cls_throwable = loadClass(env, "java/lang/Throwable");
+  cls_bytebuffer = loadClass(env, "java/nio/ByteBuffer");
+  cls_rawbuffer = loadClass(env, "com/aldebaran/qi/RawBuffer");
+  cls_signalBatchDispatcher = loadClass(env, "com/aldebaran/qi/SignalBatchDispatcher");
+  cls_signalLatestDispatcher = loadClass(env, "com/aldebaran/qi/SignalLatestDispatcher");
+  cls_function = loadClass(env, "com/aldebaran/qi/Function");
+  cls_consumer = loadClass(env, "com/aldebaran/qi/Consumer");
+  cls_futureCallback = loadClass(env, "com/aldebaran/qi/Future$Callback");
+  cls_signalListener = loadClass(env, "com/aldebaran/qi/QiSignalListener");
+  // The legacy callback interface of FutureHandler is not shipped anymore.
+  cls_callback = loadOptionalClass(env, "com/aldebaran/qi/Callback");
 
   method_NativeTools_callJava = env->GetStaticMethodID(cls_nativeTools,
                                                        "callJava",
@@ -135,13 +356,71 @@ static void init_classes(JNIEnv *env)
   // KLUDGE: LogReport has been written outside, and may not be available.
   LogReportClass = loadClass(env, "com/aldebaran/qi/log/LogReport");
   jniLog = LogReportClass ? env->GetStaticMethodID(LogReportClass, "jniLog", "(ILjava/lang/String;)V") : nullptr;
+
+  init_methods(env);
 }
 
 JNIEXPORT void JNICALL Java_com_aldebaran_qi_EmbeddedTools_initTypeSystem(JNIEnv* env, jclass QI_UNUSED(cls))
 {
   init_classes(env);
 
-  qi::log::addHandler("QiJniLogHandler", forwardToJavaLogReport, qi::LogLevel_Debug);
+  if (LogReportClass)
+  {
+    // From now on, LogReport pushes the levels of its catchers, starting with the current ones
+    // from inside its lock.
+    const jmethodID jniReady = env->GetStaticMethodID(LogReportClass, "jniReady", "()V");
+    env->CallStaticVoidMethod(LogReportClass, jniReady);
+    if (env->ExceptionCheck() == JNI_TRUE)
+    {
+      env->ExceptionDescribe();
+      env->ExceptionClear();
+    }
+  }
+
+  javaLogHandlerId = qi::log::addHandler("QiJniLogHandler", forwardToJavaLogReport, qi::LogLevel_Debug);
+  javaLogHandlerAdded.store(true);
+}
+
+JNIEXPORT void JNICALL Java_com_aldebaran_qi_log_LogReport_setNativeLevelMask(JNIEnv* QI_UNUSED(env),
+                                                                             jclass QI_UNUSED(cls),
+                                                                             jint mask)
+{
+  javaLogLevelMask.store(static_cast<std::uint32_t>(mask));
+}
+
+namespace qi {
+  namespace jni {
+    void filterJavaLogCategory(const std::string& category, qi::LogLevel level)
+    {
+      if (javaLogHandlerAdded.load())
+        qi::log::addFilter(category, level, javaLogHandlerId);
+    }
+  }
+}
+
+JNIEXPORT void JNICALL Java_com_aldebaran_qi_EmbeddedTools_setPersistentThreadAttachment(JNIEnv* QI_UNUSED(env),
+                                                                                       jclass QI_UNUSED(cls),
+                                                                                       jboolean persistent)
+{
+  qi::jni::setPersistentThreadAttachment(persistent != JNI_FALSE);
+}
+
+JNIEXPORT jboolean JNICALL Java_com_aldebaran_qi_EmbeddedTools_isPersistentThreadAttachment(JNIEnv* QI_UNUSED(env),
+                                                                                          jclass QI_UNUSED(cls))
+{
+  return qi::jni::persistentThreadAttachment() ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_EmbeddedTools_getThreadAttachCount(JNIEnv* QI_UNUSED(env),
+                                                                               jclass QI_UNUSED(cls))
+{
+  return static_cast<jlong>(qi::jni::threadAttachCount());
+}
+
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_EmbeddedTools_getThreadDetachCount(JNIEnv* QI_UNUSED(env),
+                                                                               jclass QI_UNUSED(cls))
+{
+  return static_cast<jlong>(qi::jni::threadDetachCount());
 }
 
 /**
@@ -208,6 +487,9 @@ void getJavaSignature(std::string &javaSignature, const std::string& qiSignature
         i++;
       break;
     }
+    case qi::Signature::Type_Raw:
+      javaSignature.append("Ljava/nio/ByteBuffer;");
+      break;
     case qi::Signature::Type_Object:
     {
       javaSignature.append("L");
@@ -402,6 +684,8 @@ std::string propertyBaseSignature(JNIEnv *env, jclass propertyBase)
     return { static_cast<char>(qi::Signature::Type_Object) };
   if (env->IsAssignableFrom(propertyBase, cls_double))
     return { static_cast<char>(qi::Signature::Type_Float) };
+  if (env->IsAssignableFrom(propertyBase, cls_bytebuffer))
+    return { static_cast<char>(qi::Signature::Type_Raw) };
   if (env->IsAssignableFrom(propertyBase, cls_map))
   {
     return std::string{} + static_cast<char>(qi::Signature::Type_Map) +
@@ -444,6 +728,8 @@ qi::TypeInterface *propertyValueClassToType(JNIEnv *env, jclass clazz)
     return qi::typeOf<qi::AnyObject>();
   if (env->IsAssignableFrom(clazz, cls_double))
     return qi::typeOf<double>();
+  if (env->IsAssignableFrom(clazz, cls_bytebuffer))
+    return qi::typeOf<qi::Buffer>();
   if (env->IsAssignableFrom(clazz, cls_map))
     return qi::typeOf<std::map<qi::AnyValue, qi::AnyValue>>();
   if (env->IsAssignableFrom(clazz, cls_list))
@@ -459,22 +745,69 @@ namespace qi {
   namespace jni {
 
     namespace {
+      /// Whether threads attached by JNIAttach stay attached until they exit.
+      std::atomic<bool> persistentAttachment{false};
+      /// Number of threads attached to the JVM by JNIAttach.
+      std::atomic<std::uint64_t> attachCount{0};
+      /// Number of threads detached from the JVM by JNIAttach.
+      std::atomic<std::uint64_t> detachCount{0};
+
+      void detachCurrentThread()
+      {
+        if (javaVirtualMachine)
+        {
+          javaVirtualMachine->DetachCurrentThread();
+          ++detachCount;
+        }
+      }
+
       struct JNIHandle
       {
         JNIHandle() :
           lockCount(0),
           env(0),
-          attached(false)
+          attached(false),
+          framePushed(false)
         {}
 
+        // Called at thread exit: a thread kept attached by the persistent mode must be detached
+        // before it dies.
+        ~JNIHandle()
+        {
+          if (attached)
+            detachCurrentThread();
+        }
+
         unsigned int lockCount;
         JNIEnv* env;
         bool attached;
+        /// Whether a local frame is pushed for the outermost JNIAttach of an attached thread.
+        bool framePushed;
       };
     }
 
     static boost::thread_specific_ptr<JNIHandle> ThreadJNI;
 
+    void setPersistentThreadAttachment(bool persistent)
+    {
+      persistentAttachment = persistent;
+    }
+
+    bool persistentThreadAttachment()
+    {
+      return persistentAttachment;
+    }
+
+    std::uint64_t threadAttachCount()
+    {
+      return attachCount;
+    }
+
+    std::uint64_t threadDetachCount()
+    {
+      return detachCount;
+    }
+
     JNIAttach::JNIAttach(JNIEnv* env)
     {
       if (!javaVirtualMachine)
@@ -503,8 +836,15 @@ namespace qi {
             throw std::runtime_error("Cannot attach callback thread to Java VM");
           }
           ThreadJNI->attached = true;
+          ++attachCount;
         }
       }
+
+      // A thread attached by us never returns to Java, so its local references are only freed
+      // when it is detached. Persistent threads are not, so each outermost JNIAttach frames the
+      // local references created until its release.
+      if (ThreadJNI->lockCount == 0 && ThreadJNI->attached)
+        ThreadJNI->framePushed = ThreadJNI->env->PushLocalFrame(16) == JNI_OK;
       ++ThreadJNI->lockCount;
     }
 
@@ -515,10 +855,20 @@ namespace qi {
 
       if (ThreadJNI->lockCount == 0)
       {
+        if (ThreadJNI->framePushed)
+        {
+          ThreadJNI->env->PopLocalFrame(nullptr);
+          ThreadJNI->framePushed = false;
+        }
+
+        // In persistent mode, the thread keeps its JNI environment and is detached by the
+        // JNIHandle destructor when it exits.
+        if (ThreadJNI->attached && persistentAttachment)
+          return;
+
         if (ThreadJNI->attached)
         {
-          if (javaVirtualMachine)
-            javaVirtualMachine->DetachCurrentThread();
+          detachCurrentThread();
           ThreadJNI->attached = false;
         }
         ThreadJNI->env = 0;
@@ -671,9 +1021,7 @@ namespace qi {
       if (!env)
         return nullptr;
 
-      jclass objectClass = env->FindClass("java/lang/Object");
-      jobjectArray array = env->NewObjectArray(values.size(), objectClass, nullptr);
-      qi::jni::releaseClazz(objectClass);
+      jobjectArray array = env->NewObjectArray(values.size(), cls_object, nullptr);
       int i = 0;
       for (const AnyReference &ref : values)
       {
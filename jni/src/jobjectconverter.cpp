@@ -8,8 +8,13 @@
 */
 
 
+#include <type_traits>
+
 #include <boost/locale.hpp>
 #include <boost/core/ignore_unused.hpp>
+#include <boost/optional.hpp>
+
+#include <ka/scoped.hpp>
 
 #include <qi/log.hpp>
 #include <qi/signature.hpp>
@@ -26,12 +31,116 @@
 #include <tuple_jni.hpp>
 #include <object_jni.hpp>
 #include <future_jni.hpp>
+#include <rawbuffer_jni.hpp>
 
 qiLogCategory("qimessaging.jni");
 using namespace qi;
 
 static const int JAVA_INT_NBYTES = 4;
 
+namespace
+{
+  template <typename T>
+  T numberOf(const qi::AnyReference& value)
+  {
+    return std::is_floating_point<T>::value ? static_cast<T>(value.toDouble())
+                                            : static_cast<T>(value.toInt());
+  }
+
+  /// Creates a `java.util.ArrayList` from a list of numbers: the numbers are copied at once in a
+  /// Java primitive array, which is then boxed in a list on the Java side. Two JNI calls instead of
+  /// two per element.
+  template <typename T, typename Array>
+  jobject primitiveListToJObject(JNIEnv& env,
+                                 qi::AnyReference list,
+                                 Array (JNIEnv::*newArray)(jsize),
+                                 void (JNIEnv::*setRegion)(Array, jsize, jsize, const T*))
+  {
+    std::vector<T> converted;
+    const std::vector<T>* values = nullptr;
+    // Most lists are already stored as a vector of the same type: no conversion needed.
+    if (list.type()->info() == qi::typeOf<std::vector<T>>()->info())
+    {
+      values = list.ptr<std::vector<T>>(false);
+    }
+    else
+    {
+      converted.reserve(list.size());
+      for (auto it = list.begin(), end = list.end(); it != end; ++it)
+        converted.push_back(numberOf<T>(*it));
+      values = &converted;
+    }
+
+    const auto size = static_cast<jsize>(values->size());
+    const auto array = ka::scoped((env.*newArray)(size), qi::jni::releaseObject);
+    if (!array.value)
+      return nullptr;
+    if (size > 0)
+      (env.*setRegion)(array.value, 0, size, values->data());
+    return env.CallStaticObjectMethod(cls_nativeTools, method_NativeTools_listFromArray, array.value);
+  }
+
+  /// Converts lists of signed 8, 32 or 64 bits integers, floats or doubles with a bulk copy.
+  /// The elements of the created list have the same types as with the generic conversion.
+  /// Returns an empty optional for other values.
+  boost::optional<jobject> numberListToJObject(qi::AnyReference value)
+  {
+    if (value.kind() != qi::TypeKind_List)
+      return {};
+
+    auto* const elementType = static_cast<qi::ListTypeInterface*>(value.type())->elementType();
+    qi::jni::JNIAttach attach;
+    JNIEnv& env = *attach.get();
+
+    switch (elementType->kind())
+    {
+      case qi::TypeKind_Int:
+      {
+        auto* const intType = static_cast<qi::IntTypeInterface*>(elementType);
+        if (!intType->isSigned())
+          return {};
+        switch (intType->size())
+        {
+          case sizeof(jbyte):
+            return primitiveListToJObject<jbyte>(env, value, &JNIEnv::NewByteArray, &JNIEnv::SetByteArrayRegion);
+          case sizeof(jint):
+            return primitiveListToJObject<jint>(env, value, &JNIEnv::NewIntArray, &JNIEnv::SetIntArrayRegion);
+          case sizeof(jlong):
+            return primitiveListToJObject<jlong>(env, value, &JNIEnv::NewLongArray, &JNIEnv::SetLongArrayRegion);
+          default:
+            return {};
+        }
+      }
+      case qi::TypeKind_Float:
+        switch (static_cast<qi::FloatTypeInterface*>(elementType)->size())
+        {
+          case sizeof(jfloat):
+            return primitiveListToJObject<jfloat>(env, value, &JNIEnv::NewFloatArray, &JNIEnv::SetFloatArrayRegion);
+          case sizeof(jdouble):
+            return primitiveListToJObject<jdouble>(env, value, &JNIEnv::NewDoubleArray, &JNIEnv::SetDoubleArrayRegion);
+          default:
+            return {};
+        }
+      default:
+        return {};
+    }
+  }
+
+  /// Copies a Java primitive array in a `std::vector` at once.
+  template <typename T, typename Array>
+  qi::AnyReference vectorFromPrimitiveArray(JNIEnv& env,
+                                            jobject array,
+                                            void (JNIEnv::*getRegion)(Array, jsize, jsize, T*))
+  {
+    const auto javaArray = static_cast<Array>(array);
+    const auto size = env.GetArrayLength(javaArray);
+    std::vector<T> values(static_cast<std::size_t>(size));
+    if (size > 0)
+      (env.*getRegion)(javaArray, 0, size, values.data());
+    return qi::AnyReference::from(values).clone();
+  }
+} // anonymous namespace
+
 struct toJObject
 {
     toJObject(jobject *result)
@@ -52,11 +161,11 @@ struct toJObject
       env->ExceptionClear();
 
       if (byteSize == 0)
-        *result = qi::jni::construct(env, "java/lang/Boolean", "(Z)V", static_cast<jboolean>(value));
+        *result = env->NewObject(cls_boolean, method_Boolean_init, static_cast<jboolean>(value));
       else if (byteSize <= JAVA_INT_NBYTES)
-        *result = qi::jni::construct(env, "java/lang/Integer", "(I)V", static_cast<jint>(value));
+        *result = env->NewObject(cls_integer, method_Integer_init, static_cast<jint>(value));
       else
-        *result = qi::jni::construct(env, "java/lang/Long", "(J)V", static_cast<jlong>(value));
+        *result = env->NewObject(cls_long, method_Long_init, static_cast<jlong>(value));
       checkForError();
     }
 
@@ -79,10 +188,7 @@ struct toJObject
 
     void visitVoid()
     {
-      jclass cls = env->FindClass("java/lang/Void");
-      jmethodID mid = env->GetMethodID(cls, "<init>", "()V");
-      *result = env->NewObject(cls, mid);
-      qi::jni::releaseClazz(cls);
+      *result = env->NewObject(cls_void, method_Void_init);
       checkForError();
     }
 
@@ -94,14 +200,17 @@ struct toJObject
       env->ExceptionClear();
 
       jclass floatClass = nullptr;
+      jmethodID mid = nullptr;
       switch(byteSize)
       {
         case sizeof(jfloat):
           // java.lang.Float is constructible from Double, so we can generalize the construction.
           floatClass = cls_float;
+          mid = method_Float_init;
           break;
         case sizeof(jdouble):
           floatClass = cls_double;
+          mid = method_Double_init;
           break;
         default:
         {
@@ -115,7 +224,6 @@ struct toJObject
         }
       }
 
-      jmethodID mid = env->GetMethodID(floatClass, "<init>", "(D)V");
       if (!mid)
       {
         throwNewException(env, "AnyValue to Float : could not find float type init method.");
@@ -202,13 +310,12 @@ struct toJObject
 private:
     jobject newTuple(jobjectArray values)
     {
-      jmethodID ctor = env->GetMethodID(cls_tuple, "<init>", "([Ljava/lang/Object;)V");
-      if (!ctor)
+      if (!method_Tuple_init)
       {
         qiLogError() << "Cannot find Tuple constructor";
         return nullptr;
       }
-      jobject result = env->NewObject(cls_tuple, ctor, values);
+      jobject result = env->NewObject(cls_tuple, method_Tuple_init, values);
       return result;
     }
 
@@ -231,10 +338,16 @@ public:
       qiLogVerbose() << "visitRaw";
       qi::Buffer buf = value.as<qi::Buffer>();
 
+      // Expose the native memory directly, without any copy.
+      if (qi::jni::zeroCopyRawBuffers() && buf.size() > 0)
+      {
+        *result = qi::jni::createDirectByteBuffer(*env, buf);
+        checkForError();
+        return;
+      }
+
       // Create a new ByteBuffer and reserve enough space
-      jclass cls = env->FindClass("java/nio/ByteBuffer");
-      jmethodID mid = env->GetStaticMethodID(cls, "allocate", "(I)Ljava/nio/ByteBuffer;");
-      jobject ar = env->CallStaticObjectMethod(cls, mid, buf.size());
+      jobject ar = env->CallStaticObjectMethod(cls_bytebuffer, method_ByteBuffer_allocate, buf.size());
 
       // Put qi::Buffer content into a byte[] object
       const jbyte* data = (const jbyte*) buf.data();
@@ -242,10 +355,8 @@ public:
       env->SetByteArrayRegion(byteArray, 0, buf.size(), data);
 
       // Put the byte[] object into the ByteBuffer
-      mid = env->GetMethodID(cls, "put","([BII)Ljava/nio/ByteBuffer;");
-      *result = env->CallObjectMethod(ar, mid, byteArray, 0, buf.size());
+      *result = env->CallObjectMethod(ar, method_ByteBuffer_put, byteArray, 0, buf.size());
       checkForError();
-      env->DeleteLocalRef(cls);
       env->DeleteLocalRef(ar);
       env->DeleteLocalRef(byteArray);
     }
@@ -279,6 +390,9 @@ jobject JObject_from_AnyValue(qi::AnyReference val)
     // We stored a null value, typeDispatch would be unhappy, so directly return nullptr here
     return nullptr;
   }
+  if (const auto numberList = numberListToJObject(val))
+    return *numberList;
+
   jobject result= NULL;
   toJObject tjo(&result);
   qi::typeDispatch<toJObject>(tjo, val);
@@ -287,25 +401,34 @@ jobject JObject_from_AnyValue(qi::AnyReference val)
 
 void JObject_from_AnyValue(qi::AnyReference val, jobject* target)
 {
+  if (const auto numberList = numberListToJObject(val))
+  {
+    *target = *numberList;
+    return;
+  }
+
   toJObject tal(target);
   qi::typeDispatch<toJObject>(tal, val);
 }
 
 qi::AnyReference AnyValue_from_JObject_List(jobject val)
 {
-  JNIEnv* env;
-  JNIList list(val);
-  std::vector<qi::AnyValue>& res = *new std::vector<qi::AnyValue>();
-  int size = 0;
+  qi::jni::JNIAttach attach;
+  JNIEnv* env = attach.get();
 
-  javaVirtualMachine->GetEnv((void **) &env, QI_JNI_MIN_VERSION);
+  // Get all the elements with a single call, instead of two calls per element.
+  const auto elements = ka::scoped(
+    static_cast<jobjectArray>(env->CallObjectMethod(val, method_List_toArray)), qi::jni::releaseObject);
+  if (!elements.value)
+    throw std::runtime_error("Cannot get the elements of a java.util.List");
 
-  size = list.size();
+  const auto size = env->GetArrayLength(elements.value);
+  std::vector<qi::AnyValue>& res = *new std::vector<qi::AnyValue>();
   res.reserve(size);
-  for (int i = 0; i < size; i++)
+  for (jsize i = 0; i < size; i++)
   {
-    jobject current = list.get(i);
-    std::pair<qi::AnyReference, bool> conv = AnyValue_from_JObject(current);
+    const auto current = ka::scoped(env->GetObjectArrayElement(elements.value, i), qi::jni::releaseObject);
+    std::pair<qi::AnyReference, bool> conv = AnyValue_from_JObject(current.value);
     res.push_back(qi::AnyValue(conv.first, !conv.second, true));
   }
 
@@ -314,20 +437,24 @@ qi::AnyReference AnyValue_from_JObject_List(jobject val)
 
 qi::AnyReference AnyValue_from_JObject_Map(jobject hashmap)
 {
-  JNIEnv* env;
-  std::map<qi::AnyValue, qi::AnyValue>& res = *new std::map<qi::AnyValue, qi::AnyValue>();
+  qi::jni::JNIAttach attach;
+  JNIEnv* env = attach.get();
   JNIMap map(hashmap);
 
-  javaVirtualMachine->GetEnv((void **) &env, QI_JNI_MIN_VERSION);
+  // Walk the map once: keys and values come interleaved in a single array,
+  // instead of a keySet() array followed by one get() call per key.
+  const auto entries = ka::scoped(map.entries(), qi::jni::releaseObject);
+  if (!entries.value)
+    throw std::runtime_error("Cannot get the entries of a java.util.Map");
 
-  jobjectArray keys = map.keys();
-  int size = env->GetArrayLength(keys);
-  for (int i = 0; i < size; ++i)
+  std::map<qi::AnyValue, qi::AnyValue>& res = *new std::map<qi::AnyValue, qi::AnyValue>();
+  const auto size = env->GetArrayLength(entries.value);
+  for (jsize i = 0; i + 1 < size; i += 2)
   {
-    jobject key = env->GetObjectArrayElement(keys, i);
-    jobject value = map.get(key);
-    std::pair<qi::AnyReference, bool> convKey = AnyValue_from_JObject(key);
-    std::pair<qi::AnyReference, bool> convValue = AnyValue_from_JObject(value);
+    const auto key = ka::scoped(env->GetObjectArrayElement(entries.value, i), qi::jni::releaseObject);
+    const auto value = ka::scoped(env->GetObjectArrayElement(entries.value, i + 1), qi::jni::releaseObject);
+    std::pair<qi::AnyReference, bool> convKey = AnyValue_from_JObject(key.value);
+    std::pair<qi::AnyReference, bool> convValue = AnyValue_from_JObject(value.value);
     res[qi::AnyValue(convKey.first, !convKey.second, true)] = qi::AnyValue(convValue.first, !convValue.second, true);
   }
   return qi::AnyReference::from(res);
@@ -357,14 +484,15 @@ qi::AnyReference AnyValue_from_JObject_Tuple(jobject val)
  * Make AnyReference from a Java Future object.
  * Future objects have a JNI member (a qi::Future) that we can
  * directly rely on, hence the use of the JNI Environment.
+ * Completed futures only create it when asked for, so it is read through Future.pointer().
  * @param val The Future object.
  * @param env The JNI Environment.
  * @return
  */
 qi::AnyReference AnyValue_from_JObject_Future(jobject val, JNIEnv* env)
 {
-  auto fieldId = env->GetFieldID(cls_future, "_fut", "J");
-  auto futureAddress = env->GetLongField(val, fieldId);
+  auto futureAddress = env->CallLongMethod(val, method_Future_pointer);
+  qi::jni::handlePendingException(*env);
   auto future = reinterpret_cast<qi::Future<qi::AnyValue>*>(futureAddress);
   auto any = qi::AnyReference::from(*future);
   return any.clone(); // makes a copy of the content, and keeps ownership on it
@@ -414,39 +542,59 @@ qi::AnyReference _AnyValue_from_JObject(jobject val)
 
   if (env->IsInstanceOf(val, cls_float))
   {
-    jmethodID mid = env->GetMethodID(cls_float, "floatValue", "()F");
-    jfloat v = env->CallFloatMethod(val, mid);
+    jfloat v = env->CallFloatMethod(val, method_Float_floatValue);
     return qi::AnyReference::from(v).clone();
   }
 
   if (env->IsInstanceOf(val, cls_double)) // If double, convert to float
   {
-    jmethodID mid = env->GetMethodID(cls_double, "doubleValue", "()D");
-    jdouble v = env->CallDoubleMethod(val, mid);
+    jdouble v = env->CallDoubleMethod(val, method_Double_doubleValue);
     return qi::AnyReference::from(v).clone();
   }
 
   if (env->IsInstanceOf(val, cls_long))
   {
-    jmethodID mid = env->GetMethodID(cls_long, "longValue", "()J");
-    jlong v = env->CallLongMethod(val, mid);
+    jlong v = env->CallLongMethod(val, method_Long_longValue);
     return qi::AnyReference::from(v).clone();
   }
 
   if (env->IsInstanceOf(val, cls_boolean))
   {
-    jmethodID mid = env->GetMethodID(cls_boolean, "booleanValue", "()Z");
-    jboolean v = env->CallBooleanMethod(val, mid);
+    jboolean v = env->CallBooleanMethod(val, method_Boolean_booleanValue);
     return qi::AnyReference::from(static_cast<bool>(v)).clone();
   }
 
   if (env->IsInstanceOf(val, cls_integer))
   {
-    jmethodID mid = env->GetMethodID(cls_integer, "intValue", "()I");
-    jint v = env->CallIntMethod(val, mid);
+    jint v = env->CallIntMethod(val, method_Integer_intValue);
     return qi::AnyReference::from(v).clone();
   }
 
+  if (env->IsInstanceOf(val, cls_intArray))
+  {
+    return vectorFromPrimitiveArray<jint>(*env, val, &JNIEnv::GetIntArrayRegion);
+  }
+
+  if (env->IsInstanceOf(val, cls_longArray))
+  {
+    return vectorFromPrimitiveArray<jlong>(*env, val, &JNIEnv::GetLongArrayRegion);
+  }
+
+  if (env->IsInstanceOf(val, cls_floatArray))
+  {
+    return vectorFromPrimitiveArray<jfloat>(*env, val, &JNIEnv::GetFloatArrayRegion);
+  }
+
+  if (env->IsInstanceOf(val, cls_doubleArray))
+  {
+    return vectorFromPrimitiveArray<jdouble>(*env, val, &JNIEnv::GetDoubleArrayRegion);
+  }
+
+  if (env->IsInstanceOf(val, cls_byteArray))
+  {
+    return vectorFromPrimitiveArray<jbyte>(*env, val, &JNIEnv::GetByteArrayRegion);
+  }
+
   if (env->IsInstanceOf(val, cls_list))
   {
     return AnyValue_from_JObject_List(val);
@@ -471,6 +619,13 @@ qi::AnyReference _AnyValue_from_JObject(jobject val)
   {
     return AnyValue_from_JObject_RemoteObject(val, env);
   }
+
+  if (env->IsInstanceOf(val, cls_bytebuffer))
+  {
+    const auto buffer = qi::jni::bufferFromByteBuffer(*env, val);
+    if (buffer)
+      return qi::AnyReference::from(*buffer).clone();
+  }
   qiLogError() << "Cannot serialize return value: Unable to convert JObject to AnyValue";
   throw std::runtime_error("Cannot serialize return value: Unable to convert JObject to AnyValue");
 }
@@ -664,10 +819,7 @@ jobject toJavaStringObjectMap(JNIEnv& env, const AnyValueMap& map)
 {
   const auto result = ka::scoped(
     [&] {
-      const auto mapClass =
-        ka::scoped(env.FindClass("java/util/HashMap"), &qi::jni::releaseClazz);
-      const auto init = env.GetMethodID(mapClass.value, "<init>", "()V");
-      return env.NewObject(mapClass.value, init);
+      return env.NewObject(cls_hashmap, method_HashMap_init);
     }(),
     &qi::jni::releaseObject);
 
@@ -680,9 +832,7 @@ jobject toJavaStringObjectMap(JNIEnv& env, const AnyValueMap& map)
     const auto valObj =
       ka::scoped(JObject_from_AnyValue(val.asReference()), &qi::jni::releaseObject);
     qi::jni::releaseObject(
-      qi::jni::Call<jobject>::invoke(&env, result.value, "put",
-                                     "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;",
-                                     keyJString.value, valObj.value));
+      env.CallObjectMethod(result.value, method_Map_put, keyJString.value, valObj.value));
   }
   return env.NewLocalRef(result.value);
 }
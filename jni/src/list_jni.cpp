@@ -16,14 +16,13 @@ JNIList::JNIList()
 {
   javaVirtualMachine->GetEnv((void**) &_env, QI_JNI_MIN_VERSION);
 
-  jmethodID mid = _env->GetMethodID(cls_arraylist, "<init>", "()V");
-  if (!mid)
+  if (!method_ArrayList_init)
   {
     qiLogFatal("qimessaging.jni") << "JNIList::JNIList: Cannot call constructor";
     throw std::runtime_error("JNIList::JNIList: Cannot call constructor");
   }
 
-  _obj = _env->NewObject(cls_arraylist, mid);
+  _obj = _env->NewObject(cls_arraylist, method_ArrayList_init);
 }
 
 JNIList::JNIList(jobject obj)
@@ -34,28 +33,24 @@ JNIList::JNIList(jobject obj)
 
 int JNIList::size()
 {
-  jmethodID mid = _env->GetMethodID(cls_list, "size", "()I");
-
-  if (!mid)
+  if (!method_List_size)
   {
     qiLogFatal("qimessaging.jni") << "JNIList::size() : Cannot call size()";
     throw std::runtime_error("JNIList::size() : Cannot call size()");
   }
 
-  return _env->CallIntMethod(_obj, mid);
+  return _env->CallIntMethod(_obj, method_List_size);
 }
 
 jobject JNIList::get(int index)
 {
-  jmethodID mid = _env->GetMethodID(cls_list, "get", "(I)Ljava/lang/Object;");
-
-  if (!mid)
+  if (!method_List_get)
   {
     qiLogFatal("qimessaging.jni") << "JNIList::get() : Cannot call get()";
     throw std::runtime_error("JNIList::get() : Cannot call get()");
   }
 
-  return _env->CallObjectMethod(_obj, mid, index);
+  return _env->CallObjectMethod(_obj, method_List_get, index);
 }
 
 jobject JNIList::object()
@@ -65,13 +60,11 @@ jobject JNIList::object()
 
 bool JNIList::push_back(jobject current)
 {
-  jmethodID mid = _env->GetMethodID(cls_list, "add", "(Ljava/lang/Object;)Z");
-
-  if (!mid)
+  if (!method_List_add)
   {
     qiLogFatal("qimessaging.jni") << "JNIList::push_back() : Cannot call add()";
     throw std::runtime_error("JNIList::push_back() : Cannot call add()");
   }
 
-  return _env->CallBooleanMethod(_obj, mid, current);
+  return _env->CallBooleanMethod(_obj, method_List_add, current);
 }
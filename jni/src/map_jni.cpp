@@ -19,14 +19,13 @@ JNIMap::JNIMap()
 {
   javaVirtualMachine->GetEnv(reinterpret_cast<void**>(&_env), QI_JNI_MIN_VERSION);
 
-  jmethodID mid = _env->GetMethodID(cls_hashmap, "<init>", "()V");
-  if (!mid)
+  if (!method_HashMap_init)
   {
     qiLogFatal() << "JNIMap::JNIMap : Cannot call constructor";
     throw std::runtime_error("JNIMap::JNIMap : Cannot call constructor");
   }
 
-  _obj = _env->NewObject(cls_hashmap, mid);
+  _obj = _env->NewObject(cls_hashmap, method_HashMap_init);
 }
 
 JNIMap::JNIMap(jobject obj)
@@ -37,21 +36,20 @@ JNIMap::JNIMap(jobject obj)
 
 void JNIMap::put(jobject key, jobject value)
 {
-  jmethodID mid = _env->GetMethodID(cls_map, "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
-
   if (!key || !value)
   {
     qiLogFatal() << "JNIMap::put() : Given key/value pair is null";
     return;
   }
 
-  if (!mid)
+  if (!method_Map_put)
   {
     qiLogFatal() << "JNIMap::put() : Cannot call put";
     throw std::runtime_error("JNIMap::put() : Cannot call put");
   }
 
-  _env->CallObjectMethod(_obj, mid, key, value);
+  // Release the previous value returned by put, to not fill the local reference table.
+  _env->DeleteLocalRef(_env->CallObjectMethod(_obj, method_Map_put, key, value));
 }
 
 jobject JNIMap::object()
@@ -61,41 +59,22 @@ jobject JNIMap::object()
 
 int     JNIMap::size()
 {
-  jmethodID mid = _env->GetMethodID(cls_map, "size", "()I");
-
-  if (!mid) // or throw std::runtime_error ?
+  if (!method_Map_size) // or throw std::runtime_error ?
     return (-1);
 
-  return _env->CallIntMethod(_obj, mid);
-}
-
-jobjectArray JNIMap::keys()
-{
-  jobject set = qi::jni::Call<jobject>::invoke(_env, _obj, "keySet", "()Ljava/util/Set;");
-  if (!set)
-    return nullptr;
-  jobject asArray = qi::jni::Call<jobject>::invoke(_env, set, "toArray", "()[Ljava/lang/Object;");
-  if (!asArray)
-    return nullptr;
-  return static_cast<jobjectArray>(asArray);
+  return _env->CallIntMethod(_obj, method_Map_size);
 }
 
-jobject JNIMap::get(jobject key)
+/// Returns the keys and values in a single array: key0, value0, key1, value1, ...
+/// The map is walked once, on the Java side.
+jobjectArray JNIMap::entries()
 {
-  jmethodID mid = _env->GetMethodID(cls_map, "get", "(Ljava/lang/Object;)Ljava/lang/Object;");
-
-  if (!key)
+  if (!method_NativeTools_mapToArray)
   {
-    qiLogFatal() << "JNIMap::get() : Given key is null";
-    return 0;
+    qiLogFatal() << "JNIMap::entries() : Cannot call method mapToArray";
+    throw std::runtime_error("JNIMap::entries() : Cannot call method mapToArray");
   }
 
-  if (!mid)
-  {
-    qiLogFatal() << "JNIMap::get() : Cannot call method get";
-    throw std::runtime_error("JNIMap::get() : Cannot call method get");
-  }
-
-  return _env->CallObjectMethod(_obj, mid, key);
+  return static_cast<jobjectArray>(
+    _env->CallStaticObjectMethod(cls_nativeTools, method_NativeTools_mapToArray, _obj));
 }
-
@@ -8,9 +8,19 @@
 */
 
 #include <cstdint>
+#include <deque>
+#include <iterator>
+#include <memory>
+#include <mutex>
 #include <type_traits>
 
+#include <boost/optional.hpp>
+
+#include <ka/scoped.hpp>
+
 #include <qi/anyobject.hpp>
+#include <qi/async.hpp>
+#include <qi/clock.hpp>
 #include <qi/jsoncodec.hpp>
 
 #include <jnitools.hpp>
@@ -93,6 +103,48 @@ JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_asyncCall(JNIEnv* env, j
   return (jlong) fut;
 }
 
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_getMethodResolutionCacheHitCount(JNIEnv* QI_UNUSED(env), jclass QI_UNUSED(cls))
+{
+  return static_cast<jlong>(method_resolution_cache_hits());
+}
+
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_getMethodResolutionCacheMissCount(JNIEnv* QI_UNUSED(env), jclass QI_UNUSED(cls))
+{
+  return static_cast<jlong>(method_resolution_cache_misses());
+}
+
+JNIEXPORT jint JNICALL Java_com_aldebaran_qi_AnyObject_resolveMethod(JNIEnv* env, jobject QI_UNUSED(jobj), jlong pObject, jstring jmethod, jstring jparamsSignature)
+{
+  qi::AnyObject&    obj = *(reinterpret_cast<qi::AnyObject*>(pObject));
+  if (!qi::jni::assertion(env, obj.isValid(), "AnyObject.resolveMethod: Invalid qi.AnyObject."))
+    return -1;
+
+  try {
+    return resolve_method_id(obj, qi::jni::toString(jmethod), qi::jni::toString(jparamsSignature));
+  } catch (std::exception& e)
+  {
+    throwNewDynamicCallException(env, e.what());
+    return -1;
+  }
+}
+
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_asyncCallById(JNIEnv* env, jobject QI_UNUSED(jobj), jlong pObject, jint methodId, jobjectArray args)
+{
+  qi::AnyObject&    obj = *(reinterpret_cast<qi::AnyObject*>(pObject));
+  if (!qi::jni::assertion(env, obj.isValid(), "AnyObject.asyncCallById: Invalid qi.AnyObject."))
+    return 0;
+
+  qi::jni::JNIAttach attach(env);
+
+  try {
+    return (jlong) call_from_java(env, obj, static_cast<unsigned int>(methodId), args);
+  } catch (std::exception& e)
+  {
+    throwNewDynamicCallException(env, e.what());
+    return 0;
+  }
+}
+
 JNIEXPORT jstring JNICALL Java_com_aldebaran_qi_AnyObject_metaObjectToString(JNIEnv* env, jobject QI_UNUSED(jobj), jlong pObject)
 {
   qi::AnyObject&    obj = *(reinterpret_cast<qi::AnyObject*>(pObject));
@@ -105,7 +157,7 @@ JNIEXPORT jstring JNICALL Java_com_aldebaran_qi_AnyObject_metaObjectToString(JNI
   return qi::jni::toJstring(ss.str());
 }
 
-JNIEXPORT void JNICALL Java_com_aldebaran_qi_AnyObject_destroy(JNIEnv* QI_UNUSED(env), jobject QI_UNUSED(jobj), jlong pObject)
+JNIEXPORT void JNICALL Java_com_aldebaran_qi_AnyObject_destroy(JNIEnv* QI_UNUSED(env), jclass QI_UNUSED(cls), jlong pObject)
 {
   qi::AnyObject*    obj = reinterpret_cast<qi::AnyObject*>(pObject);
 
@@ -146,10 +198,8 @@ JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_connectSignal(JNIEnv *en
         qi::jni::JNIAttach attach;
         JNIEnv *env = attach.get();
 
-        const char *method = "onSignalReceived";
-        const char *methodSig = "([Ljava/lang/Object;)V";
         jobjectArray jparams = qi::jni::toJobjectArray(params);
-        qi::jni::Call<void>::invoke(env, listener, method, methodSig, jparams);
+        env->CallVoidMethod(listener, method_QiSignalListener_onSignalReceived, jparams);
         env->DeleteLocalRef(jparams);
         jthrowable exception = env->ExceptionOccurred();
         if (exception)
@@ -170,6 +220,358 @@ JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_connectSignal(JNIEnv *en
   return reinterpret_cast<jlong>(futurePtr);
 }
 
+namespace
+{
+  /// Arguments of a signal emission, copied to outlive the emission.
+  using Emission = std::vector<qi::AnyValue>;
+
+  Emission copyEmission(const std::vector<qi::AnyReference>& params)
+  {
+    Emission emission;
+    emission.reserve(params.size());
+    for (const auto& param : params)
+      emission.emplace_back(param);
+    return emission;
+  }
+
+  /// Converts the arguments of an emission into a Java Object[] (a local reference).
+  jobjectArray toJavaArguments(const Emission& emission)
+  {
+    std::vector<qi::AnyReference> params;
+    params.reserve(emission.size());
+    for (const auto& value : emission)
+      params.push_back(value.asReference());
+    return qi::jni::toJobjectArray(params);
+  }
+
+  /// Reports and clears an exception thrown by a listener: it must not reach the emitter.
+  void clearListenerException(JNIEnv *env)
+  {
+    if (env->ExceptionCheck() == JNI_TRUE)
+    {
+      env->ExceptionDescribe();
+      env->ExceptionClear();
+    }
+  }
+
+  /// Buffers the emissions of a signal and delivers them to Java in batches, with one JNI
+  /// up-call per batch.
+  /// A batch is delivered when `maxBatchSize` emissions are pending, or `maxDelay` after the
+  /// first pending one, from a task of the event loop: the emitting thread never calls Java.
+  /// Only one task delivers at a time: while Java handles a batch, new emissions accumulate, and
+  /// beyond `capacity` the oldest ones are dropped and counted. A batch holds at most
+  /// `maxBatchSize` emissions.
+  class SignalBatcher : public std::enable_shared_from_this<SignalBatcher>
+  {
+  public:
+    SignalBatcher(qi::jni::SharedGlobalRef dispatcher,
+                  std::size_t maxBatchSize,
+                  qi::MilliSeconds maxDelay,
+                  std::size_t capacity)
+      : _dispatcher(std::move(dispatcher))
+      , _maxBatchSize(maxBatchSize)
+      , _maxDelay(maxDelay)
+      , _capacity(capacity)
+    {
+    }
+
+    /// Called for each emission, on the emitting thread.
+    void push(const std::vector<qi::AnyReference>& params)
+    {
+      // The references are only valid during the emission
+      Emission emission = copyEmission(params);
+
+      bool deliver = false;
+      bool schedule = false;
+      {
+        std::lock_guard<std::mutex> lock(_mutex);
+        if (_pending.size() >= _capacity)
+        {
+          _pending.pop_front();
+          ++_dropped;
+        }
+        _pending.push_back(std::move(emission));
+
+        if (_delivering)
+          return; // The delivering thread takes it
+        if (_pending.size() >= _maxBatchSize)
+          deliver = _delivering = true;
+        else if (!_timerScheduled)
+          schedule = _timerScheduled = true;
+      }
+
+      if (deliver)
+      {
+        auto self = shared_from_this();
+        qi::async([self] { self->drain(); });
+      }
+      else if (schedule)
+      {
+        auto self = shared_from_this();
+        qi::asyncDelay([self] { self->onTimer(); }, _maxDelay);
+      }
+    }
+
+  private:
+    void onTimer()
+    {
+      {
+        std::lock_guard<std::mutex> lock(_mutex);
+        _timerScheduled = false;
+        if (_delivering || _pending.empty())
+          return;
+        _delivering = true;
+      }
+      drain();
+    }
+
+    /// Delivers the pending emissions, by batches of at most `maxBatchSize`, until none is left.
+    /// Only called by the delivering task.
+    void drain()
+    {
+      qi::jni::JNIAttach attach;
+      JNIEnv *env = attach.get();
+
+      while (true)
+      {
+        std::deque<Emission> batch;
+        jlong dropped = 0;
+        {
+          std::lock_guard<std::mutex> lock(_mutex);
+          if (_pending.empty())
+          {
+            _delivering = false;
+            return;
+          }
+          if (_pending.size() <= _maxBatchSize)
+            batch.swap(_pending);
+          else
+          {
+            const auto end = _pending.begin() + static_cast<std::ptrdiff_t>(_maxBatchSize);
+            batch.assign(std::make_move_iterator(_pending.begin()), std::make_move_iterator(end));
+            _pending.erase(_pending.begin(), end);
+          }
+          dropped = static_cast<jlong>(_dropped);
+          _dropped = 0;
+        }
+        deliver(env, batch, dropped);
+      }
+    }
+
+    void deliver(JNIEnv *env, const std::deque<Emission>& batch, jlong dropped)
+    {
+      const auto emissions = ka::scoped(
+            env->NewObjectArray(static_cast<jsize>(batch.size()), cls_object, nullptr),
+            qi::jni::releaseObject);
+      jsize index = 0;
+      for (const auto& emission : batch)
+      {
+        const auto jparams = ka::scoped(toJavaArguments(emission), qi::jni::releaseObject);
+        env->SetObjectArrayElement(emissions.value, index++, jparams.value);
+      }
+
+      env->CallVoidMethod(_dispatcher.get(), method_SignalBatchDispatcher_deliver, emissions.value, dropped);
+      clearListenerException(env);
+    }
+
+    const qi::jni::SharedGlobalRef _dispatcher;
+    const std::size_t _maxBatchSize;
+    const qi::MilliSeconds _maxDelay;
+    const std::size_t _capacity;
+
+    std::mutex _mutex;
+    std::deque<Emission> _pending;
+    std::uint64_t _dropped = 0;
+    bool _delivering = false;
+    bool _timerScheduled = false;
+  };
+
+  /// Keeps only the newest emission of a signal and delivers it to Java at most once per
+  /// `minInterval`, never while Java still handles the previous one. Replaced emissions are
+  /// counted as coalesced. Deliveries run in tasks of the event loop: the emitting thread never
+  /// calls Java.
+  class SignalConflater : public std::enable_shared_from_this<SignalConflater>
+  {
+  public:
+    SignalConflater(qi::jni::SharedGlobalRef dispatcher, qi::MilliSeconds minInterval)
+      : _dispatcher(std::move(dispatcher))
+      , _minInterval(minInterval)
+    {
+    }
+
+    /// Called for each emission, on the emitting thread.
+    void push(const std::vector<qi::AnyReference>& params)
+    {
+      Emission emission = copyEmission(params);
+      bool deliver = false;
+      qi::Duration delay{};
+      {
+        std::lock_guard<std::mutex> lock(_mutex);
+        if (_latest)
+          ++_coalesced;
+        _latest = std::move(emission);
+
+        if (_delivering || _timerScheduled)
+          return; // Taken by the next delivery
+
+        const auto next = _lastDelivery + _minInterval;
+        const auto now = qi::SteadyClock::now();
+        if (now >= next)
+          deliver = _delivering = true;
+        else
+        {
+          _timerScheduled = true;
+          delay = next - now;
+        }
+      }
+
+      if (deliver)
+      {
+        auto self = shared_from_this();
+        qi::async([self] { self->drain(); });
+      }
+      else
+        scheduleTimer(delay);
+    }
+
+  private:
+    void scheduleTimer(qi::Duration delay)
+    {
+      auto self = shared_from_this();
+      qi::asyncDelay([self] { self->onTimer(); }, delay);
+    }
+
+    void onTimer()
+    {
+      {
+        std::lock_guard<std::mutex> lock(_mutex);
+        _timerScheduled = false;
+        if (_delivering || !_latest)
+          return;
+        _delivering = true;
+      }
+      drain();
+    }
+
+    /// Delivers the newest emission until none is pending, or until the interval must elapse.
+    /// Only called by the delivering task.
+    void drain()
+    {
+      qi::jni::JNIAttach attach;
+      JNIEnv *env = attach.get();
+
+      while (true)
+      {
+        Emission emission;
+        jlong coalesced = 0;
+        qi::Duration delay{};
+        {
+          std::lock_guard<std::mutex> lock(_mutex);
+          if (!_latest)
+          {
+            _delivering = false;
+            return;
+          }
+
+          const auto now = qi::SteadyClock::now();
+          const auto next = _lastDelivery + _minInterval;
+          if (now < next)
+          {
+            // Emitted while Java was busy, but too early
+            _delivering = false;
+            _timerScheduled = true;
+            delay = next - now;
+          }
+          else
+          {
+            emission = std::move(*_latest);
+            _latest = boost::none;
+            coalesced = static_cast<jlong>(_coalesced);
+            _coalesced = 0;
+            _lastDelivery = now;
+          }
+        }
+
+        if (delay != qi::Duration{})
+        {
+          scheduleTimer(delay);
+          return;
+        }
+
+        const auto jparams = ka::scoped(toJavaArguments(emission), qi::jni::releaseObject);
+        env->CallVoidMethod(_dispatcher.get(), method_SignalLatestDispatcher_deliver, jparams.value, coalesced);
+        clearListenerException(env);
+      }
+    }
+
+    const qi::jni::SharedGlobalRef _dispatcher;
+    const qi::MilliSeconds _minInterval;
+
+    std::mutex _mutex;
+    boost::optional<Emission> _latest;
+    std::uint64_t _coalesced = 0;
+    qi::SteadyClock::time_point _lastDelivery;
+    bool _delivering = false;
+    bool _timerScheduled = false;
+  };
+}
+
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_connectBatchSignal(JNIEnv *env, jobject QI_UNUSED(obj), jlong pObject, jstring jSignalName, jobject dispatcher, jint maxBatchSize, jlong maxDelayMillis, jint capacity)
+{
+  qi::AnyObject *anyObject = reinterpret_cast<qi::AnyObject *>(pObject);
+  if (!qi::jni::assertion(env, anyObject->isValid(),
+                          "AnyObject.connectBatchSignal: Invalid qi.AnyObject."))
+    return 0;
+
+  std::string signalName = qi::jni::toString(jSignalName);
+  auto batcher = std::make_shared<SignalBatcher>(qi::jni::makeSharedGlobalRef(env, dispatcher),
+                                                 static_cast<std::size_t>(maxBatchSize),
+                                                 qi::MilliSeconds(maxDelayMillis),
+                                                 static_cast<std::size_t>(capacity));
+
+  qi::SignalSubscriber subscriber {
+    qi::AnyFunction::fromDynamicFunction(
+      [batcher](const std::vector<qi::AnyReference> &params) -> qi::AnyReference {
+        batcher->push(params);
+        return {}; // a void AnyReference
+      }
+    )
+  };
+
+  qi::Future<qi::SignalLink> signalLinkFuture = anyObject->connect(signalName, subscriber);
+
+  qi::Future<qi::AnyValue> future = qi::toAnyValueFuture(std::move(signalLinkFuture));
+  auto futurePtr = new qi::Future<qi::AnyValue>(std::move(future));
+  return reinterpret_cast<jlong>(futurePtr);
+}
+
+JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_connectLatestSignal(JNIEnv *env, jobject QI_UNUSED(obj), jlong pObject, jstring jSignalName, jobject dispatcher, jlong minIntervalMillis)
+{
+  qi::AnyObject *anyObject = reinterpret_cast<qi::AnyObject *>(pObject);
+  if (!qi::jni::assertion(env, anyObject->isValid(),
+                          "AnyObject.connectLatestSignal: Invalid qi.AnyObject."))
+    return 0;
+
+  std::string signalName = qi::jni::toString(jSignalName);
+  auto conflater = std::make_shared<SignalConflater>(qi::jni::makeSharedGlobalRef(env, dispatcher),
+                                                     qi::MilliSeconds(minIntervalMillis));
+
+  qi::SignalSubscriber subscriber {
+    qi::AnyFunction::fromDynamicFunction(
+      [conflater](const std::vector<qi::AnyReference> &params) -> qi::AnyReference {
+        conflater->push(params);
+        return {}; // a void AnyReference
+      }
+    )
+  };
+
+  qi::Future<qi::SignalLink> signalLinkFuture = anyObject->connect(signalName, subscriber);
+
+  qi::Future<qi::AnyValue> future = qi::toAnyValueFuture(std::move(signalLinkFuture));
+  auto futurePtr = new qi::Future<qi::AnyValue>(std::move(future));
+  return reinterpret_cast<jlong>(futurePtr);
+}
+
 JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_disconnectSignal(JNIEnv *env, jobject QI_UNUSED(obj), jlong pObject, jlong subscriberId)
 {
   qi::AnyObject *anyObject = reinterpret_cast<qi::AnyObject *>(pObject);
@@ -184,48 +586,106 @@ JNIEXPORT jlong JNICALL Java_com_aldebaran_qi_AnyObject_disconnectSignal(JNIEnv
   return reinterpret_cast<jlong>(futurePtr);
 }
 
+namespace
+{
+  /// Converts the arguments of a signal emission from Java. The values are owned by the returned
+  /// vector.
+  std::vector<qi::AnyValue> signalArgumentsFromJava(JNIEnv *env, jobjectArray jargs)
+  {
+    const jsize size = env->GetArrayLength(jargs);
+    std::vector<qi::AnyValue> args(static_cast<std::size_t>(size));
+    for (jsize i = 0; i < size; ++i)
+    {
+      const auto current = ka::scoped(env->GetObjectArrayElement(jargs, i), qi::jni::releaseObject);
+      const auto conv = AnyValue_from_JObject(current.value);
+      args[static_cast<std::size_t>(i)].reset(conv.first, false, conv.second);
+    }
+    return args;
+  }
+
+  qi::GenericFunctionParameters asParameters(const std::vector<qi::AnyValue>& args)
+  {
+    qi::GenericFunctionParameters params;
+    params.reserve(args.size());
+    for (const auto& arg : args)
+      params.push_back(arg.asReference());
+    return params;
+  }
+}
+
 JNIEXPORT void JNICALL Java_com_aldebaran_qi_AnyObject_post(JNIEnv *env, jobject QI_UNUSED(jobj), jlong pObject, jstring eventName, jobjectArray jargs)
 {
-  qi::AnyObject obj = *(reinterpret_cast<qi::AnyObject *>(pObject));
+  qi::AnyObject& obj = *(reinterpret_cast<qi::AnyObject *>(pObject));
   if (!qi::jni::assertion(env, obj.isValid(), "AnyObject.post: Invalid qi.AnyObject."))
     return;
 
-  std::string   event = qi::jni::toString(eventName);
-  qi::GenericFunctionParameters params;
-  std::string signature;
-  jsize size;
-  jsize i = 0;
-
+  const std::string event = qi::jni::toString(eventName);
   qi::jni::JNIAttach attach(env);
 
-  size = env->GetArrayLength(jargs);
-  i = 0;
-  while (i < size)
+  try {
+    const auto args = signalArgumentsFromJava(env, jargs);
+    obj.metaPost(event, asParameters(args));
+  } catch (std::exception& e)
   {
-    jobject current = env->GetObjectArrayElement(jargs, i);
-    qi::AnyReference val = qi::AnyReference(AnyValue_from_JObject(current).first);
-    params.push_back(val);
-    i++;
+    throwNewException(env, e.what());
   }
+}
 
-  // Signature construction
-  signature = event + "::(";
-  for (unsigned i=0; i< params.size(); ++i)
-    signature += params[i].signature(true).toString();
-  signature += ")";
+JNIEXPORT jint JNICALL Java_com_aldebaran_qi_AnyObject_resolveSignal(JNIEnv *env, jobject QI_UNUSED(jobj), jlong pObject, jstring jSignalName)
+{
+  qi::AnyObject& obj = *(reinterpret_cast<qi::AnyObject *>(pObject));
+  if (!qi::jni::assertion(env, obj.isValid(), "AnyObject.resolveSignal: Invalid qi.AnyObject."))
+    return -1;
+
+  return obj.metaObject().signalId(qi::jni::toString(jSignalName));
+}
+
+JNIEXPORT jstring JNICALL Java_com_aldebaran_qi_AnyObject_checkSignalArguments(JNIEnv *env, jobject QI_UNUSED(jobj), jlong pObject, jint signalId, jstring jSignature)
+{
+  qi::AnyObject& obj = *(reinterpret_cast<qi::AnyObject *>(pObject));
+  if (!qi::jni::assertion(env, obj.isValid(), "AnyObject.checkSignalArguments: Invalid qi.AnyObject."))
+    return nullptr;
+
+  const qi::MetaSignal* const signal = obj.metaObject().signal(static_cast<unsigned int>(signalId));
+  if (!signal)
+    return qi::jni::toJstring("No signal with id " + std::to_string(signalId) + " in the given object.");
+
+  const qi::Signature expected = signal->parametersSignature();
+  if (expected.type() != qi::Signature::Type_Tuple)
+    return nullptr; // Dynamic signal: anything can be emitted
+
+  const qi::Signature given(qi::jni::toString(jSignature));
+  const auto& expectedArgs = expected.children();
+  const auto& givenArgs = given.children();
+  bool fits = expectedArgs.size() == givenArgs.size();
+  for (std::size_t i = 0u; fits && i < givenArgs.size(); ++i)
+  {
+    // Arguments converted by the serializer are only known at emission
+    fits = givenArgs[i].type() == qi::Signature::Type_Dynamic
+           || givenArgs[i].isConvertibleTo(expectedArgs[i]) > 0.f;
+  }
+
+  if (fits)
+    return nullptr;
+  return qi::jni::toJstring("Signal " + signal->name() + " expects " + expected.toString()
+                            + ", not " + given.toString() + ".");
+}
+
+JNIEXPORT void JNICALL Java_com_aldebaran_qi_AnyObject_postById(JNIEnv *env, jobject QI_UNUSED(jobj), jlong pObject, jint signalId, jobjectArray jargs)
+{
+  qi::AnyObject& obj = *(reinterpret_cast<qi::AnyObject *>(pObject));
+  if (!qi::jni::assertion(env, obj.isValid(), "AnyObject.postById: Invalid qi.AnyObject."))
+    return;
+
+  qi::jni::JNIAttach attach(env);
 
   try {
-    obj.metaPost(event, params);
+    const auto args = signalArgumentsFromJava(env, jargs);
+    obj.metaPost(static_cast<unsigned int>(signalId), asParameters(args));
   } catch (std::exception& e)
   {
     throwNewException(env, e.what());
   }
-
-  // Destroy arguments
-  i = 0;
-  for(qi::GenericFunctionParameters::iterator it = params.begin(); it != params.end(); ++it)
-    (*it).destroy();
-  return;
 }
 
 JNIEXPORT jobject JNICALL Java_com_aldebaran_qi_AnyObject_decodeJSON(JNIEnv *QI_UNUSED(env), jclass QI_UNUSED(cls), jstring what)
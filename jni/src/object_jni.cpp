@@ -44,8 +44,7 @@ jobject createAnyObject(std::unique_ptr<qi::AnyObject> object, boost::optional<J
     return nullptr;
 
   auto& env = getEnv(aenv);
-  const auto methodId = env.GetMethodID(cls_anyobject, "<init>", "(J)V");
-  if (!methodId)
+  if (!method_AnyObject_init)
   {
     const auto msg = "qi::jni::AnyObject: Cannot find AnyObject constructor.";
     qiLogError() << msg;
@@ -54,7 +53,7 @@ jobject createAnyObject(std::unique_ptr<qi::AnyObject> object, boost::optional<J
 
   // Release the `qi::AnyObject`, its lifetime will be bound to the Java object.
   const auto internalPtr = reinterpret_cast<jlong>(object.release());
-  return env.NewObject(cls_anyobject, methodId, internalPtr);
+  return env.NewObject(cls_anyobject, method_AnyObject_init, internalPtr);
 }
 
 jobject createAnyObject(const qi::AnyObject& o, boost::optional<JNIEnv&> env)
@@ -68,15 +67,14 @@ qi::AnyObject internalQiAnyObject(jobject jAnyObject, boost::optional<JNIEnv&> a
   if (env.IsSameObject(jAnyObject, nullptr))
     return {};
 
-  const auto fieldId = env.GetFieldID(cls_anyobject, "_p", "J");
-  if (!fieldId)
+  if (!field_anyobject_pointer)
   {
     const auto msg = "qi::jni::AnyObject: Cannot get AnyObject Java object internal native pointer.";
     qiLogWarning() << msg;
     throw std::runtime_error{ msg };
   }
 
-  const auto internalPtr = env.GetLongField(jAnyObject, fieldId);
+  const auto internalPtr = env.GetLongField(jAnyObject, field_anyobject_pointer);
   auto* const qiAnyObj = reinterpret_cast<const qi::AnyObject*>(internalPtr);
   return qiAnyObj ? *qiAnyObj : qi::AnyObject();
 }
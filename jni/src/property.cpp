@@ -131,7 +131,7 @@ jlong JNICALL Java_com_aldebaran_qi_Property_set(JNIEnv* env,
 }
 
 void JNICALL Java_com_aldebaran_qi_Property_destroy(JNIEnv* env,
-                                                    jobject QI_UNUSED(propertyObj),
+                                                    jclass QI_UNUSED(propertyClass),
                                                     jlong pointer)
 {
   ka::invoke_catch(
@@ -0,0 +1,213 @@
+/*
+**  Copyright (C) 2018 SoftBank Robotics Europe
+**  See COPYING for the license
+*/
+
+#include <atomic>
+#include <cstdint>
+#include <map>
+#include <mutex>
+#include <unordered_map>
+
+#include <ka/scoped.hpp>
+#include <qi/log.hpp>
+
+#include "jnitools.hpp"
+#include "rawbuffer_jni.hpp"
+
+qiLogCategory("qimessaging.jni");
+
+namespace qi
+{
+namespace jni
+{
+
+namespace
+{
+  std::atomic<bool> zeroCopy{false};
+
+  /// Native buffers currently viewed by Java direct buffers.
+  /// Each view has a unique id, so that a stale Java handle never releases a buffer allocated
+  /// later at the same address.
+  class DirectBufferRegistry
+  {
+  public:
+    /// Returns the id of the new entry.
+    std::int64_t add(const qi::Buffer& buffer)
+    {
+      std::lock_guard<std::mutex> lock{_mutex};
+      const auto id = ++_lastId;
+      _buffers.insert(std::make_pair(id, buffer));
+      _ids[buffer.data()] = id;
+      return id;
+    }
+
+    void remove(std::int64_t id)
+    {
+      std::lock_guard<std::mutex> lock{_mutex};
+      const auto it = _buffers.find(id);
+      if (it == _buffers.end())
+        return;
+
+      const auto address = it->second.data();
+      const auto idIt = _ids.find(address);
+      if (idIt != _ids.end() && idIt->second == id)
+        _ids.erase(idIt);
+      _buffers.erase(it);
+    }
+
+    void remove(const void* address)
+    {
+      std::lock_guard<std::mutex> lock{_mutex};
+      const auto idIt = _ids.find(address);
+      if (idIt == _ids.end())
+        return;
+      _buffers.erase(idIt->second);
+      _ids.erase(idIt);
+    }
+
+    boost::optional<qi::Buffer> find(const void* address)
+    {
+      std::lock_guard<std::mutex> lock{_mutex};
+      const auto idIt = _ids.find(address);
+      if (idIt == _ids.end())
+        return {};
+      return _buffers.at(idIt->second);
+    }
+
+    std::size_t size()
+    {
+      std::lock_guard<std::mutex> lock{_mutex};
+      return _buffers.size();
+    }
+
+  private:
+    std::mutex _mutex;
+    std::int64_t _lastId = 0;
+    std::map<std::int64_t, qi::Buffer> _buffers;
+    std::unordered_map<const void*, std::int64_t> _ids;
+  };
+
+  DirectBufferRegistry& registry()
+  {
+    static DirectBufferRegistry instance;
+    return instance;
+  }
+
+  boost::optional<qi::Buffer> copyBuffer(const void* data, std::size_t size)
+  {
+    qi::Buffer buffer;
+    if (size > 0 && !buffer.write(data, size))
+      return {};
+    return buffer;
+  }
+} // anonymous namespace
+
+void setZeroCopyRawBuffers(bool value)
+{
+  zeroCopy = value;
+}
+
+bool zeroCopyRawBuffers()
+{
+  return zeroCopy;
+}
+
+jobject createDirectByteBuffer(JNIEnv& env, const qi::Buffer& buffer)
+{
+  // The copy of a qi::Buffer shares its content, it is only kept to hold the memory.
+  const auto id = registry().add(buffer);
+  const auto direct = ka::scoped(
+    env.NewDirectByteBuffer(const_cast<void*>(buffer.data()), static_cast<jlong>(buffer.size())),
+    releaseObject);
+  if (!direct.value)
+  {
+    registry().remove(id);
+    return nullptr;
+  }
+
+  jobject readOnly = env.CallObjectMethod(direct.value, method_ByteBuffer_asReadOnlyBuffer);
+  if (!readOnly)
+  {
+    registry().remove(id);
+    return nullptr;
+  }
+
+  // Let Java know when the view is released.
+  env.CallStaticVoidMethod(cls_rawbuffer, method_RawBuffer_track, readOnly, static_cast<jlong>(id));
+  return readOnly;
+}
+
+boost::optional<qi::Buffer> bufferFromByteBuffer(JNIEnv& env, jobject byteBuffer)
+{
+  // As for any ByteBuffer consumer, the content is from the position to the limit.
+  const auto position = static_cast<std::size_t>(env.CallIntMethod(byteBuffer, method_ByteBuffer_position));
+  const auto limit = static_cast<std::size_t>(env.CallIntMethod(byteBuffer, method_ByteBuffer_limit));
+  const auto size = limit > position ? limit - position : 0u;
+
+  if (const auto address = env.GetDirectBufferAddress(byteBuffer))
+  {
+    const auto known = registry().find(address);
+    if (known && position == 0u && known->size() == limit)
+      return known;
+    return copyBuffer(static_cast<const char*>(address) + position, size);
+  }
+
+  if (env.CallBooleanMethod(byteBuffer, method_ByteBuffer_hasArray) != JNI_TRUE)
+  {
+    qiLogWarning() << "Cannot access the content of a ByteBuffer that is neither direct nor backed by an array.";
+    return {};
+  }
+
+  const auto array = ka::scoped(
+    static_cast<jbyteArray>(env.CallObjectMethod(byteBuffer, method_ByteBuffer_array)),
+    releaseObject);
+  const auto offset = env.CallIntMethod(byteBuffer, method_ByteBuffer_arrayOffset);
+
+  // The array is only read, and no JNI call is made while it is held.
+  auto* const data = static_cast<jbyte*>(env.GetPrimitiveArrayCritical(array.value, nullptr));
+  if (!data)
+    return {};
+  const auto result = copyBuffer(data + offset + position, size);
+  env.ReleasePrimitiveArrayCritical(array.value, data, JNI_ABORT);
+  return result;
+}
+
+} // namespace jni
+} // namespace qi
+
+JNIEXPORT void JNICALL Java_com_aldebaran_qi_RawBuffer_setZeroCopy(JNIEnv* QI_UNUSED(env),
+                                                                   jclass QI_UNUSED(cls),
+                                                                   jboolean zeroCopy)
+{
+  qi::jni::setZeroCopyRawBuffers(zeroCopy != JNI_FALSE);
+}
+
+JNIEXPORT jboolean JNICALL Java_com_aldebaran_qi_RawBuffer_isZeroCopy(JNIEnv* QI_UNUSED(env),
+                                                                      jclass QI_UNUSED(cls))
+{
+  return qi::jni::zeroCopyRawBuffers() ? JNI_TRUE : JNI_FALSE;
+}
+
+JNIEXPORT jint JNICALL Java_com_aldebaran_qi_RawBuffer_getLiveBufferCount(JNIEnv* QI_UNUSED(env),
+                                                                          jclass QI_UNUSED(cls))
+{
+  return static_cast<jint>(qi::jni::registry().size());
+}
+
+JNIEXPORT void JNICALL Java_com_aldebaran_qi_RawBuffer_destroy(JNIEnv* QI_UNUSED(env),
+                                                               jclass QI_UNUSED(cls),
+                                                               jlong id)
+{
+  qi::jni::registry().remove(static_cast<std::int64_t>(id));
+}
+
+JNIEXPORT void JNICALL Java_com_aldebaran_qi_RawBuffer_releaseDirectBuffer(JNIEnv* env,
+                                                                           jclass QI_UNUSED(cls),
+                                                                           jobject byteBuffer)
+{
+  if (env->IsSameObject(byteBuffer, nullptr))
+    return;
+  if (const auto address = env->GetDirectBufferAddress(byteBuffer))
+    qi::jni::registry().remove(address);
+}
@@ -21,41 +21,35 @@ JNITuple::JNITuple(jobject obj)
 
 int JNITuple::size()
 {
-  jmethodID mid = _env->GetMethodID(cls_tuple, "size", "()I");
-
-  if (!mid)
+  if (!method_Tuple_size)
   {
     qiLogFatal("qimessaging.jni") << "JNITuple : Cannot call method size()I";
     throw std::runtime_error("JNITuple : Cannot call method size()I");
   }
 
-  return _env->CallIntMethod(_obj, mid);
+  return _env->CallIntMethod(_obj, method_Tuple_size);
 }
 
 jobject JNITuple::get(int index)
 {
-  jmethodID mid = _env->GetMethodID(cls_tuple, "get", "(I)Ljava/lang/Object;");
-
-  if (!mid)
+  if (!method_Tuple_get)
   {
     qiLogFatal("qimessaging.jni") << "JNITuple : Cannot call method get(I)Ljava/lang/Object;";
     throw std::runtime_error("JNITuple : Cannot call method get(I)Ljava/lang/Object;");
   }
 
-  return _env->CallObjectMethod(_obj, mid, index);
+  return _env->CallObjectMethod(_obj, method_Tuple_get, index);
 }
 
 void JNITuple::set(int index, jobject obj)
 {
-  jmethodID mid = _env->GetMethodID(cls_tuple, "set", "(ILjava/lang/Object;)V");
-
-  if (!mid)
+  if (!method_Tuple_set)
   {
     qiLogFatal("qimessaging.jni") << "JNITuple : Cannot call method set(ILjava/lang/Object;)V";
     throw std::runtime_error("JNITuple : Cannot call method set(ILjava/lang/Object;)V");
   }
 
-  _env->CallVoidMethod(_obj, mid, index, obj);
+  _env->CallVoidMethod(_obj, method_Tuple_set, index, obj);
 }
 
 jobject JNITuple::object()
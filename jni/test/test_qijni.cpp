@@ -1,5 +1,6 @@
 #include <gtest/gtest.h>
 #include <boost/algorithm/string/replace.hpp>
+#include <boost/thread/thread.hpp>
 #include <jni.h>
 #include <ka/errorhandling.hpp>
 #include <qi/type/dynamicobjectbuilder.hpp>
@@ -174,6 +175,39 @@ TEST(QiJNI, dynamicObjectBuilderAdvertiseMethodVoidVoid)
   ASSERT_FALSE(test::environment->jniEnv->ExceptionCheck());
 }
 
+TEST(QiJNI, threadIsAttachedAndDetachedForEachUseByDefault)
+{
+  setPersistentThreadAttachment(false);
+  const auto attachCount = threadAttachCount();
+  const auto detachCount = threadDetachCount();
+
+  boost::thread([]{
+    { JNIAttach attach; }
+    { JNIAttach attach; }
+  }).join();
+
+  EXPECT_EQ(attachCount + 2, threadAttachCount());
+  EXPECT_EQ(detachCount + 2, threadDetachCount());
+}
+
+TEST(QiJNI, persistentThreadIsAttachedOnceAndDetachedAtExit)
+{
+  setPersistentThreadAttachment(true);
+  const auto attachCount = threadAttachCount();
+  const auto detachCount = threadDetachCount();
+
+  boost::thread([&]{
+    { JNIAttach attach; }
+    { JNIAttach attach; }
+    EXPECT_EQ(attachCount + 1, threadAttachCount());
+    EXPECT_EQ(detachCount, threadDetachCount());
+  }).join();
+
+  EXPECT_EQ(attachCount + 1, threadAttachCount());
+  EXPECT_EQ(detachCount + 1, threadDetachCount());
+  setPersistentThreadAttachment(false);
+}
+
 TEST(QiJNI, className)
 {
   const std::string className("java/lang/NullPointerException");
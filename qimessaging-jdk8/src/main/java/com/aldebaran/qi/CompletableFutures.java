@@ -0,0 +1,137 @@
+package com.aldebaran.qi;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bridges between qi {@link Future} and {@link CompletableFuture}.<br>
+ * No thread waits on the other side: completion is forwarded by the native
+ * future callback (See {@link Future#connect(Future.Callback, FutureCallbackType)})
+ * or by {@link CompletionStage#whenComplete}.<br>
+ * Cancellation is forwarded both ways: cancelling the {@link CompletableFuture}
+ * requests the cancellation of the qi {@link Future}, and a cancellation
+ * request on the qi {@link Future} cancels the {@link CompletionStage}.
+ */
+public final class CompletableFutures {
+    /**
+     * Completable future that requests the cancellation of its qi future when
+     * cancelled.
+     *
+     * @param <T> Value type
+     */
+    private static final class QiCompletableFuture<T> extends CompletableFuture<T> {
+        /**
+         * Source qi future
+         */
+        private final Future<T> future;
+
+        QiCompletableFuture(final Future<T> future) {
+            this.future = future;
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+            if (cancelled) {
+                this.future.requestCancellation();
+            }
+
+            return cancelled;
+        }
+
+        /**
+         * Copy the state of the finished qi future.
+         */
+        void completeFrom(final Future<T> finished) {
+            if (finished.isCancelled()) {
+                // Not this.cancel: the qi future is already finished
+                super.cancel(false);
+                return;
+            }
+
+            final ExecutionException error = finished.getError();
+
+            if (error != null) {
+                this.completeExceptionally(error.getCause() != null ? error.getCause() : error);
+            }
+            else {
+                this.complete(finished.getValue());
+            }
+        }
+    }
+
+    /**
+     * Give a qi future as a {@link CompletableFuture}.<br>
+     * Errors complete the {@link CompletableFuture} exceptionally with the
+     * real exception when known, else with a {@link QiException}.
+     *
+     * @param future Qi future.
+     * @param <T>    Value type.
+     * @return Completable future finished with the qi future.
+     */
+    public static <T> CompletableFuture<T> toCompletableFuture(final Future<T> future) {
+        final QiCompletableFuture<T> completableFuture = new QiCompletableFuture<>(future);
+        future.connect(completableFuture::completeFrom, FutureCallbackType.Sync);
+        return completableFuture;
+    }
+
+    /**
+     * Give a {@link CompletionStage} as a qi future.<br>
+     * Exceptions are transmitted by their message, like any qi error.
+     *
+     * @param stage Completion stage.
+     * @param <T>   Value type.
+     * @return Qi future finished with the stage.
+     */
+    public static <T> Future<T> fromCompletionStage(final CompletionStage<T> stage) {
+        final Promise<T> promise = new Promise<>();
+        final AtomicBoolean set = new AtomicBoolean(false);
+
+        promise.setOnCancel(cancelled -> {
+            try {
+                // The promise is cancelled by whenComplete below
+                stage.toCompletableFuture().cancel(false);
+            }
+            catch (final UnsupportedOperationException ignored) {
+                if (set.compareAndSet(false, true)) {
+                    promise.setCancelled();
+                }
+            }
+        });
+
+        stage.whenComplete((value, throwable) -> {
+            if (!set.compareAndSet(false, true)) {
+                return;
+            }
+
+            Throwable cause = throwable;
+
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+
+            if (cause == null) {
+                promise.setValue(value);
+            }
+            else if (cause instanceof CancellationException) {
+                promise.setCancelled();
+            }
+            else {
+                promise.setError(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+            }
+        });
+
+        return promise.getFuture();
+    }
+
+    /**
+     * Utility class.
+     */
+    private CompletableFutures() {
+    }
+}
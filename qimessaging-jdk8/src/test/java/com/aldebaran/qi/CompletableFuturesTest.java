@@ -0,0 +1,72 @@
+package com.aldebaran.qi;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link CompletableFutures} bridges
+ */
+public class CompletableFuturesTest {
+    @Test
+    public void testToCompletableFutureValue() throws Exception {
+        final Promise<Integer> promise = new Promise<>();
+        final CompletableFuture<Integer> completableFuture = CompletableFutures.toCompletableFuture(promise.getFuture());
+        Assert.assertFalse(completableFuture.isDone());
+
+        promise.setValue(42);
+        Assert.assertEquals(Integer.valueOf(42), completableFuture.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testToCompletableFutureError() throws Exception {
+        final Promise<Integer> promise = new Promise<>();
+        final CompletableFuture<Integer> completableFuture = CompletableFutures.toCompletableFuture(promise.getFuture());
+        promise.setError("failure");
+
+        try {
+            completableFuture.get(1, TimeUnit.SECONDS);
+            Assert.fail("Error expected");
+        }
+        catch (final ExecutionException exception) {
+            Assert.assertEquals("failure", exception.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testCancelCompletableFutureRequestsCancellation() throws Exception {
+        final Promise<Integer> promise = new Promise<>();
+        final CompletableFuture<Boolean> cancelRequested = new CompletableFuture<>();
+        promise.setOnCancel(cancelled -> {
+            cancelRequested.complete(true);
+            cancelled.setCancelled();
+        });
+
+        CompletableFutures.toCompletableFuture(promise.getFuture()).cancel(false);
+        Assert.assertTrue(cancelRequested.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFromCompletionStage() throws Exception {
+        final CompletableFuture<String> completableFuture = new CompletableFuture<>();
+        final Future<String> future = CompletableFutures.fromCompletionStage(completableFuture);
+        Assert.assertFalse(future.isDone());
+
+        completableFuture.complete("done");
+        Assert.assertEquals("done", future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFutureCancellationCancelsStage() throws Exception {
+        final CompletableFuture<String> completableFuture = new CompletableFuture<>();
+        final Future<String> future = CompletableFutures.fromCompletionStage(completableFuture);
+
+        future.requestCancellation();
+        future.sync(1, TimeUnit.SECONDS);
+        Assert.assertTrue(completableFuture.isCancelled());
+        Assert.assertTrue(future.isCancelled());
+    }
+}
@@ -2,48 +2,124 @@ package com.aldebaran.qi;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import com.aldebaran.qi.serialization.QiSerializer;
 import com.aldebaran.qi.serialization.SignatureUtilities;
 
 /**
  * Handle calls to advertised object. See
- * {@link DynamicObjectBuilder#advertiseMethods(Class, Object)}
+ * {@link DynamicObjectBuilder#advertiseMethods(Class, Object)}<br>
+ * Calls are not serialized: several threads can call the proxy at the same
+ * time. Methods returning a {@link Future} get the libqi future directly,
+ * without waiting for the result.
  *
  * @param <INTERFACE> Interface type mapped
  */
 class AdvertisedMethodCaller<INTERFACE> implements InvocationHandler {
     /**
-     * Object builder parent
+     * Types of a proxied method, resolved on first call
      */
-    private final DynamicObjectBuilder dynamicObjectBuilder;
+    private static final class MethodTypes {
+        /**
+         * Parameters types, primitives replaced by their Object type
+         */
+        final Type[] parametersTypes;
+        /**
+         * Indicates if the method returns a {@link Future}
+         */
+        final boolean returnsFuture;
+        /**
+         * Type of the value to get from libqi: the method return type, or the
+         * future value type if the method returns a {@link Future}
+         */
+        final Type valueType;
+
+        MethodTypes(final Method method) {
+            this.parametersTypes = SignatureUtilities.convertNativeTypeToObjectType(method.getGenericParameterTypes());
+            this.returnsFuture = Future.class.isAssignableFrom(method.getReturnType());
+
+            if (this.returnsFuture) {
+                final Type returnType = method.getGenericReturnType();
+                this.valueType = returnType instanceof ParameterizedType
+                        ? ((ParameterizedType) returnType).getActualTypeArguments()[0]
+                        : Object.class;
+            }
+            else {
+                this.valueType = SignatureUtilities.convertNativeTypeToObjectType(method.getGenericReturnType());
+            }
+        }
+    }
+
     /**
-     * Object managed by the builder
+     * Object builder parent
      */
-    private AnyObject anyObject;
+    private final DynamicObjectBuilder dynamicObjectBuilder;
     /**
-     * Monitor manager to get last exception
+     * Object managed by the builder, created on first call
      */
-    private final AdvertisedMethodMonitor<INTERFACE> advertisedMethodMonitor;
+    private volatile AnyObject anyObject;
     /**
      * Serializer to use
      */
     private final QiSerializer serializer;
+    /**
+     * Resolved types of called methods
+     */
+    private final ConcurrentHashMap<Method, MethodTypes> methodsTypes = new ConcurrentHashMap<Method, MethodTypes>();
 
     /**
      * Create the handler.
      *
-     * @param serializer Serializer to use
-     * @param dynamicObjectBuilder    Object builder parent
-     * @param advertisedMethodMonitor Monitor manager to get last exception
+     * @param serializer           Serializer to use
+     * @param dynamicObjectBuilder Object builder parent
      */
-    AdvertisedMethodCaller(final QiSerializer serializer, 
-                           final DynamicObjectBuilder dynamicObjectBuilder,
-                           final AdvertisedMethodMonitor<INTERFACE> advertisedMethodMonitor) {
+    AdvertisedMethodCaller(final QiSerializer serializer,
+                           final DynamicObjectBuilder dynamicObjectBuilder) {
         this.serializer = serializer;
         this.dynamicObjectBuilder = dynamicObjectBuilder;
-        this.advertisedMethodMonitor = advertisedMethodMonitor;
+    }
+
+    /**
+     * Obtain the object managed by the builder, creating it on first call.
+     *
+     * @return Managed object
+     */
+    private AnyObject anyObject() {
+        AnyObject anyObject = this.anyObject;
+
+        if (anyObject == null) {
+            synchronized (this) {
+                anyObject = this.anyObject;
+
+                if (anyObject == null) {
+                    anyObject = this.dynamicObjectBuilder.object();
+                    this.anyObject = anyObject;
+                }
+            }
+        }
+
+        return anyObject;
+    }
+
+    /**
+     * Obtain the resolved types of a method.
+     *
+     * @param method Called method
+     * @return Method types
+     */
+    private MethodTypes methodTypes(final Method method) {
+        MethodTypes methodTypes = this.methodsTypes.get(method);
+
+        if (methodTypes == null) {
+            methodTypes = new MethodTypes(method);
+            this.methodsTypes.put(method, methodTypes);
+        }
+
+        return methodTypes;
     }
 
     /**
@@ -56,13 +132,7 @@ class AdvertisedMethodCaller<INTERFACE> implements InvocationHandler {
      */
     @Override
     public Object invoke(final Object object, final Method method, final Object[] parameters) throws Throwable {
-        if (this.anyObject == null) {
-            this.anyObject = this.dynamicObjectBuilder.object();
-        }
-
-        String methodName = method.getName();
-        Type returnType = SignatureUtilities.convertNativeTypeToObjectType(method.getGenericReturnType());
-        Type[] parametersTypes = SignatureUtilities.convertNativeTypeToObjectType(method.getGenericParameterTypes());
+        final MethodTypes methodTypes = this.methodTypes(method);
         int length = 0;
 
         if(parameters!=null){
@@ -72,42 +142,40 @@ class AdvertisedMethodCaller<INTERFACE> implements InvocationHandler {
         Object[] values = new Object[length];
 
         for (int i = 0; i < length; i++) {
-            values[i] = SignatureUtilities.convertValueJavaToLibQI(parameters[i], parametersTypes[i]);
+            values[i] = SignatureUtilities.convertValueJavaToLibQI(parameters[i], methodTypes.parametersTypes[i]);
         }
 
-        synchronized (this.anyObject) {
-            try {
-                Object value = this.anyObject.call(this.serializer, returnType, methodName, values).get();
-
-                if(value!=null) {
-                   value =  this.serializer.serialize(value);
-                }
+        final Future<Object> future = this.anyObject().call(this.serializer, methodTypes.valueType, method.getName(),
+                values);
 
-                if (value != null && !method.getReturnType().equals(value.getClass())) {
-                    System.err.println("Different type between expected result type and value type. Libqi does not wrap the good class ... method.getReturnType()="
-                            + method.getReturnType().getName() + " | value.getClass()=" + value.getClass().getName());
-
-                    if (SignatureUtilities.isDouble(method.getReturnType()) && SignatureUtilities.isNumber(value.getClass())) {
-                        value = new Double(((Number) value).doubleValue());
-                    }
+        if (methodTypes.returnsFuture) {
+            // Failures are reported by the future itself
+            return future;
+        }
 
-                    if(Future.class.isAssignableFrom(method.getReturnType())) {
-                        value = Future.of(value);
-                    }
-                }
+        try {
+            Object value = future.get();
 
-                return value;
+            if(value!=null) {
+               value =  this.serializer.serialize(value);
             }
-            catch (Exception exception) {
-                // Get the last exception
-                Exception exception2 = this.advertisedMethodMonitor.getException();
 
-                if (exception2 != null) {
-                    exception = exception2;
-                }
+            // Libqi may give an other number type than the declared one
+            if (value != null && !method.getReturnType().equals(value.getClass())
+                    && SignatureUtilities.isDouble(method.getReturnType()) && SignatureUtilities.isNumber(value.getClass())) {
+                value = new Double(((Number) value).doubleValue());
+            }
 
-                throw exception;
+            return value;
+        }
+        catch (ExecutionException exception) {
+            // The future already resolved the exception thrown by this call
+            // on the concrete instance
+            if (exception.getCause() != null) {
+                throw exception.getCause();
             }
+
+            throw exception;
         }
     }
 }
@@ -0,0 +1,72 @@
+package com.aldebaran.qi;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import com.aldebaran.qi.serialization.MethodDescription;
+import com.aldebaran.qi.serialization.SignatureUtilities;
+
+/**
+ * Pre-bound invoker of one advertised method. See
+ * {@link DynamicObjectBuilder#advertiseMethods(com.aldebaran.qi.serialization.QiSerializer, Class, Object)}
+ * <br>
+ * One invoker is registered on native side for each method of the advertised
+ * interface. When libqi calls the method, {@link NativeTools#callJava} goes
+ * straight to the bound method: no method lookup, no proxy and a single
+ * reflective call on the concrete instance.
+ */
+final class AdvertisedMethodInvoker {
+    /**
+     * Monitor of the concrete instance
+     */
+    private final AdvertisedMethodMonitor<?> monitor;
+    /**
+     * Bound method
+     */
+    private final Method method;
+    /**
+     * Conversions to apply, resolved on first call
+     */
+    private volatile MethodDispatchCache.Dispatch dispatch;
+
+    /**
+     * Create the invoker.
+     *
+     * @param monitor Monitor of the concrete instance
+     * @param method  Interface method to bind
+     */
+    AdvertisedMethodInvoker(final AdvertisedMethodMonitor<?> monitor, final Method method) {
+        this.monitor = monitor;
+        this.method = method;
+        this.method.setAccessible(true);
+    }
+
+    /**
+     * Invoke the bound method.
+     *
+     * @param javaSignature Method JNI signature, as given by native side
+     * @param arguments     Method arguments
+     * @return Method result, converted to be sent to libqi
+     * @throws IllegalAccessException    If method is not accessible
+     * @throws InvocationTargetException If method throws an exception
+     */
+    Object invoke(final String javaSignature, final Object[] arguments)
+            throws IllegalAccessException, InvocationTargetException {
+        MethodDispatchCache.Dispatch dispatch = this.dispatch;
+
+        if (dispatch == null) {
+            dispatch = new MethodDispatchCache.Dispatch(this.method,
+                    MethodDescription.fromJNI(this.method.getName(), javaSignature).getReturnType());
+            this.dispatch = dispatch;
+        }
+
+        dispatch.convertArguments(arguments);
+        final Object result = this.monitor.invoke(this.method, arguments);
+
+        if (dispatch.returnsVoid) {
+            return null;
+        }
+
+        return SignatureUtilities.convertValueJavaToLibQI(result, dispatch.returnType);
+    }
+}
@@ -1,24 +1,21 @@
 package com.aldebaran.qi;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
  * Monitor the call of concrete instance's methods.<br>
- * It collects the exception that may happen while execute a method
+ * It invokes the methods of the concrete instance. The exception a call may
+ * throw is given back to the caller through the failed future of this call
+ * (See {@link NativeTools#callJava}), nothing is shared between calls.
  *
  * @param <INTERFACE> Mapped interface
  */
-class AdvertisedMethodMonitor<INTERFACE> implements InvocationHandler {
+class AdvertisedMethodMonitor<INTERFACE> {
     /**
      * Concrete instance
      */
     private final INTERFACE instance;
-    /**
-     * Last collected exception
-     */
-    private Exception exception;
 
     /***
      * Create the monitor
@@ -31,34 +28,16 @@ class AdvertisedMethodMonitor<INTERFACE> implements InvocationHandler {
     }
 
     /**
-     * Last collected exception
-     *
-     * @return Last collected exception
-     */
-    Exception getException() {
-        return this.exception;
-    }
-
-    /**
-     * Called when a method is invoked
+     * Invoke a method on the concrete instance.
      *
-     * @param proxy      Managed object
      * @param method     Method to invoke
      * @param parameters Method parameters
+     * @return Method result
+     * @throws IllegalAccessException    If method is not accessible
+     * @throws InvocationTargetException If method throws an exception
      */
-    @Override
-    public Object invoke(Object proxy, Method method, Object[] parameters) throws Throwable {
-        try {
-            return method.invoke(this.instance, parameters);
-        } catch (InvocationTargetException exception) {
-            // We are interested by the cause, because we want hide the
-            // reflection/proxy part and obtain the real exception
-            this.exception = (Exception) exception.getCause();
-            throw exception;
-        } catch (Exception exception) {
-            this.exception = exception;
-            throw exception;
-        }
+    Object invoke(final Method method, final Object[] parameters)
+            throws IllegalAccessException, InvocationTargetException {
+        return method.invoke(this.instance, parameters);
     }
-
 }
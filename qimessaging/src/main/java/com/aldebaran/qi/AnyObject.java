@@ -4,6 +4,7 @@
 
 package com.aldebaran.qi;
 
+import java.io.Closeable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
@@ -12,6 +13,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Stack;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import com.aldebaran.qi.serialization.QiSerializer;
 import com.aldebaran.qi.util.UtilReflexion;
@@ -31,7 +34,7 @@ import com.aldebaran.qi.util.UtilReflexion;
  *
  * @see DynamicObjectBuilder
  */
-public class AnyObject implements Comparable<AnyObject> {
+public class AnyObject implements Comparable<AnyObject>, Closeable {
 
     static {
         // Loading native C++ libraries.
@@ -79,15 +82,40 @@ public class AnyObject implements Comparable<AnyObject> {
 
     private final long _p;
 
+    /**
+     * Handle to release the native object
+     */
+    private final NativeHandles.Handle handle;
+
+    /**
+     * Executor of the continuations of the futures given by the calls of this
+     * object, {@code null} to run them on libqi threads
+     */
+    private volatile Executor defaultExecutor;
+
+    /**
+     * Native objects destruction
+     */
+    private static final NativeHandles.Type NATIVE_TYPE = new NativeHandles.Type(AnyObject.class) {
+        @Override
+        void destroy(final long pointer) {
+            AnyObject.destroy(pointer);
+        }
+    };
+
     private native long property(long pObj, String property) throws DynamicCallException;
 
     private native long setProperty(long pObj, String property, Object value) throws DynamicCallException;
 
     private native long asyncCall(long pObject, String method, Object[] args) throws DynamicCallException;
 
+    private native int resolveMethod(long pObject, String method, String parametersSignature);
+
+    private native long asyncCallById(long pObject, int methodId, Object[] args) throws DynamicCallException;
+
     private native String metaObjectToString(long pObject);
 
-    private native void destroy(long pObj);
+    private static native void destroy(long pObj);
 
     private native long disconnect(long pObject, long subscriberId) throws RuntimeException;
 
@@ -95,8 +123,99 @@ public class AnyObject implements Comparable<AnyObject> {
 
     private native long disconnectSignal(long pObject, long subscriberId);
 
+    /**
+     * Connect a batch listener to a signal
+     *
+     * @param pObject
+     *            Object pointer
+     * @param signalName
+     *            Signal name
+     * @param dispatcher
+     *            Receiver of the batches
+     * @param maxBatchSize
+     *            Number of pending emissions delivering a batch
+     * @param maxDelayMillis
+     *            Maximum time an emission waits before delivery
+     * @param capacity
+     *            Maximum number of pending emissions
+     * @return Pointer of the future of the native SignalLink
+     */
+    private native long connectBatchSignal(long pObject, String signalName, SignalBatchDispatcher dispatcher,
+                                           int maxBatchSize, long maxDelayMillis, int capacity);
+
+    /**
+     * Connect a listener receiving only the newest emission of a signal
+     *
+     * @param pObject
+     *            Object pointer
+     * @param signalName
+     *            Signal name
+     * @param dispatcher
+     *            Receiver of the emissions
+     * @param minIntervalMillis
+     *            Minimum time between two deliveries
+     * @return Pointer of the future of the native SignalLink
+     */
+    private native long connectLatestSignal(long pObject, String signalName, SignalLatestDispatcher dispatcher,
+                                            long minIntervalMillis);
+
     private native void post(long pObject, String name, Object[] args);
 
+    /**
+     * Find a signal ID
+     *
+     * @param pObject
+     *            Object pointer
+     * @param signalName
+     *            Signal name
+     * @return Signal ID, or -1 if the object has no such signal
+     */
+    private native int resolveSignal(long pObject, String signalName);
+
+    /**
+     * Check that arguments of the given signature can be emitted on a signal
+     *
+     * @param pObject
+     *            Object pointer
+     * @param signalId
+     *            Signal ID
+     * @param signature
+     *            Libqi signature of the arguments, like {@code "(im)"}
+     * @return {@code null} if the arguments fit the signal, else the reason
+     *         why they do not
+     */
+    private native String checkSignalArguments(long pObject, int signalId, String signature);
+
+    /**
+     * Emit a signal already resolved by {@link #resolveSignal(long, String)}
+     *
+     * @param pObject
+     *            Object pointer
+     * @param signalId
+     *            Signal ID
+     * @param args
+     *            Signal arguments
+     */
+    private native void postById(long pObject, int signalId, Object[] args);
+
+    /**
+     * Number of calls by method name that reused the method chosen by a
+     * previous call on the same object, with the same name and the same
+     * argument classes.
+     *
+     * @return Number of method resolution cache hits since start.
+     */
+    public static native long getMethodResolutionCacheHitCount();
+
+    /**
+     * Number of calls by method name that had to choose the method among the
+     * overloads (First call, changed meta object, or arguments whose
+     * conversion depends on their content like lists, maps and tuples).
+     *
+     * @return Number of method resolution cache misses since start.
+     */
+    public static native long getMethodResolutionCacheMissCount();
+
     public static native Object decodeJSON(String str);
 
     public static native String encodeJSON(Object obj);
@@ -108,13 +227,39 @@ public class AnyObject implements Comparable<AnyObject> {
      */
     AnyObject(long _p) {
         this._p = _p;
+        this.handle = NativeHandles.register(this, _p, AnyObject.NATIVE_TYPE);
+    }
+
+    /**
+     * Change the executor running the continuations of the futures given by
+     * the calls of this object, see {@link Session#setDefaultExecutor(Executor)}
+     *
+     * @param defaultExecutor
+     *            Executor to use, {@code null} to run the continuations on
+     *            libqi threads
+     */
+    void setDefaultExecutor(final Executor defaultExecutor) {
+        this.defaultExecutor = defaultExecutor;
+    }
+
+    /**
+     * Wrap a native future given by a call of this object.
+     *
+     * @param pFuture
+     *            Native future pointer
+     * @return Created future
+     */
+    private <T> Future<T> future(final long pFuture) {
+        final Future<T> future = new Future<T>(pFuture);
+        future.setDefaultExecutor(this.defaultExecutor);
+        return future;
     }
 
     public Future<Void> setProperty(QiSerializer serializer, String property, Object o) {
         try {
             // convert custom structs to tuples if necessary
             Object convertedProperty = serializer.serialize(o);
-            return new Future<Void>(setProperty(_p, property, convertedProperty));
+            return this.<Void>future(setProperty(_p, property, convertedProperty));
         }
         catch (QiConversionException e) {
             throw new QiRuntimeException(e);
@@ -126,7 +271,7 @@ public class AnyObject implements Comparable<AnyObject> {
     }
 
     public <T> Future<T> property(String property) {
-        return new Future<T>(property(_p, property));
+        return this.<T>future(property(_p, property));
     }
 
     /**
@@ -175,6 +320,69 @@ public class AnyObject implements Comparable<AnyObject> {
      * @throws DynamicCallException
      */
     public <T> Future<T> call(String method, Object... args) {
+        AnyObject.checkNoNull(args);
+
+        // Do the call
+        return this.<T>future(asyncCall(_p, method, args));
+    }
+
+    /**
+     * Resolve a method once, for later calls with {@link #call(QiSerializer, Type, int, Object...)}.
+     *
+     * @param method
+     *            Method name
+     * @param parametersSignature
+     *            Libqi signature of the parameters, like {@code "(is)"}
+     * @return Method ID
+     * @throws DynamicCallException
+     *             If the object has no method with this name and parameters
+     *             convertible from this signature
+     */
+    int methodId(final String method, final String parametersSignature) {
+        return resolveMethod(_p, method, parametersSignature);
+    }
+
+    /**
+     * Call a method already resolved by {@link #methodId(String, String)}.<br>
+     * Arguments are converted to the types of the resolved method, without
+     * name lookup nor overload resolution.
+     *
+     * @param serializer
+     *            Serializer to use
+     * @param targetType
+     *            The target result type
+     * @param methodId
+     *            Method ID
+     * @param args
+     *            The method arguments
+     * @return A future to the converted result
+     */
+    @SuppressWarnings("unchecked")
+    <T> Future<T> call(final QiSerializer serializer, final Type targetType, final int methodId, Object... args) {
+        try {
+            final Object[] convertedArgs = (Object[]) serializer.serialize(args);
+            AnyObject.checkNoNull(convertedArgs);
+            return this.<Object>future(asyncCallById(_p, methodId, convertedArgs)).andThenApply(new Function<Object, T>() {
+                @Override
+                public T execute(Object value) throws Throwable {
+                    return (T) serializer.deserialize(value, targetType);
+                }
+            });
+        }
+        catch (QiConversionException e) {
+            throw new QiRuntimeException(e);
+        }
+    }
+
+    /**
+     * Check that arguments do not contain {@code null}, at any depth.
+     *
+     * @param args
+     *            Arguments to check
+     * @throws NullPointerException
+     *             If a {@code null} is found
+     */
+    private static void checkNoNull(final Object[] args) {
         // Nulls checks
         // Recursive search, the "null" can hide at any deep
         final Stack stack = new Stack();
@@ -221,9 +429,6 @@ public class AnyObject implements Comparable<AnyObject> {
                 }
             }
         }
-
-        // Do the call
-        return new Future<T>(asyncCall(_p, method, args));
     }
 
     /**
@@ -275,6 +480,105 @@ public class AnyObject implements Comparable<AnyObject> {
         return new QiSignalConnection(this, new Future<Long>(futurePtr));
     }
 
+    /**
+     * Connect a listener receiving the emissions of a signal in batches.<br>
+     * Emissions are buffered in native code, and a batch is delivered when
+     * {@code maxBatchSize} emissions are pending, or {@code maxDelay} after
+     * the first pending emission. While the listener handles a batch, up to
+     * {@code Math.max(maxBatchSize, 1024)} emissions are kept, the oldest
+     * ones are dropped beyond.
+     *
+     * @param signalName
+     *            Signal name
+     * @param listener
+     *            Listener to call
+     * @param maxBatchSize
+     *            Number of pending emissions delivering a batch
+     * @param maxDelay
+     *            Maximum time an emission waits before delivery
+     * @param unit
+     *            Unit of maxDelay
+     * @return Connection, with delivery counters
+     */
+    public QiBatchSignalConnection connect(String signalName, QiBatchSignalListener listener, int maxBatchSize,
+                                           long maxDelay, TimeUnit unit) {
+        return this.connect(signalName, listener, maxBatchSize, maxDelay, unit, Math.max(maxBatchSize, 1024));
+    }
+
+    /**
+     * Connect a listener receiving the emissions of a signal in batches. See
+     * {@link #connect(String, QiBatchSignalListener, int, long, TimeUnit)}
+     *
+     * @param signalName
+     *            Signal name
+     * @param listener
+     *            Listener to call
+     * @param maxBatchSize
+     *            Number of pending emissions delivering a batch
+     * @param maxDelay
+     *            Maximum time an emission waits before delivery
+     * @param unit
+     *            Unit of maxDelay
+     * @param capacity
+     *            Maximum number of pending emissions while the listener is
+     *            busy, the oldest ones are dropped beyond
+     * @return Connection, with delivery counters
+     */
+    public QiBatchSignalConnection connect(String signalName, QiBatchSignalListener listener, int maxBatchSize,
+                                           long maxDelay, TimeUnit unit, int capacity) {
+        if (listener == null) {
+            throw new NullPointerException("listener must not be null!");
+        }
+
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive!");
+        }
+
+        if (capacity < maxBatchSize) {
+            throw new IllegalArgumentException("capacity must not be less than maxBatchSize!");
+        }
+
+        final SignalBatchDispatcher dispatcher = new SignalBatchDispatcher(listener);
+        final long futurePtr = connectBatchSignal(_p, signalName, dispatcher, maxBatchSize, unit.toMillis(maxDelay),
+                capacity);
+        return new QiBatchSignalConnection(this, new Future<Long>(futurePtr), dispatcher);
+    }
+
+    /**
+     * Connect a listener receiving only the newest emission of a signal.<br>
+     * Native code keeps the newest arguments and drops the older ones. The
+     * listener is called at most once per {@code minInterval}, and never
+     * while it still handles the previous emission. The newest emission is
+     * always delivered eventually.<br>
+     * Fits signals giving a state, like a sensor value, where only the
+     * current one matters.
+     *
+     * @param signalName
+     *            Signal name
+     * @param listener
+     *            Listener to call
+     * @param minInterval
+     *            Minimum time between two deliveries, 0 to deliver as soon as
+     *            the listener is ready
+     * @param unit
+     *            Unit of minInterval
+     * @return Connection, with delivery counters
+     */
+    public QiLatestSignalConnection connectLatest(String signalName, QiSignalListener listener, long minInterval,
+                                                  TimeUnit unit) {
+        if (listener == null) {
+            throw new NullPointerException("listener must not be null!");
+        }
+
+        if (minInterval < 0) {
+            throw new IllegalArgumentException("minInterval must not be negative!");
+        }
+
+        final SignalLatestDispatcher dispatcher = new SignalLatestDispatcher(listener);
+        final long futurePtr = connectLatestSignal(_p, signalName, dispatcher, unit.toMillis(minInterval));
+        return new QiLatestSignalConnection(this, new Future<Long>(futurePtr), dispatcher);
+    }
+
     public QiSignalConnection connect(final QiSerializer serializer, String signalName, final Object annotatedSlotContainer,
             String slotName) {
         final Method method = findSlot(annotatedSlotContainer, slotName);
@@ -428,19 +732,86 @@ public class AnyObject implements Comparable<AnyObject> {
         post(_p, eventName, transformed);
     }
 
+    /**
+     * Create an emitter of a signal advertised with advertiseSignal method,
+     * using the default serializer. See
+     * {@link #signalEmitter(QiSerializer, String, Type...)}
+     *
+     * @param signalName
+     *            Name of the signal to emit
+     * @param types
+     *            Types of the signal arguments
+     * @return Emitter of the signal
+     * @throws DynamicCallException
+     *             If the object has no such signal
+     */
+    public QiSignalEmitter signalEmitter(String signalName, Type... types) {
+        return this.signalEmitter(QiSerializer.getDefault(), signalName, types);
+    }
+
+    /**
+     * Create an emitter of a signal advertised with advertiseSignal method.
+     * <br>
+     * The signal is resolved once here, and the conversion of each argument
+     * is chosen from its type, so emitting costs less than
+     * {@link #post(QiSerializer, String, Object...)}.
+     *
+     * @param qiSerializer
+     *            Serializer for arguments not converted directly
+     * @param signalName
+     *            Name of the signal to emit
+     * @param types
+     *            Types of the signal arguments
+     * @return Emitter of the signal
+     * @throws DynamicCallException
+     *             If the object has no such signal, or if the types do not
+     *             fit the signal signature
+     * @see DynamicObjectBuilder#advertiseSignal(long, String)
+     */
+    public QiSignalEmitter signalEmitter(QiSerializer qiSerializer, String signalName, Type... types) {
+        final int signalId = resolveSignal(_p, signalName);
+
+        if (signalId < 0) {
+            throw new DynamicCallException("Signal " + signalName + " not found in " + this);
+        }
+
+        final QiSignalEmitter emitter = new QiSignalEmitter(this, qiSerializer, signalId, signalName, types);
+        final String mismatch = checkSignalArguments(_p, signalId, emitter.signature());
+
+        if (mismatch != null) {
+            throw new DynamicCallException(mismatch);
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Emit a signal resolved by
+     * {@link #signalEmitter(QiSerializer, String, Type...)}.
+     *
+     * @param signalId
+     *            Signal ID
+     * @param args
+     *            Arguments, already converted
+     */
+    void postById(final int signalId, final Object[] args) {
+        postById(_p, signalId, args);
+    }
+
     @Override
     public String toString() {
         return metaObjectToString(_p);
     }
 
     /**
-     * Called by garbage collector Finalize is overriden to manually delete C++
-     * data
+     * Release the native object now instead of waiting the garbage collector.
+     * <br>
+     * The remote object itself is not affected. This AnyObject MUST NOT be
+     * used after this call.
      */
     @Override
-    protected void finalize() throws Throwable {
-        destroy(_p);
-        super.finalize();
+    public void close() {
+        this.handle.release();
     }
 
     private static Method findSlot(Object annotatedSlotContainer, String slotName) {
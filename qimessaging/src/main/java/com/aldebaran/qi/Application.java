@@ -4,13 +4,15 @@
 */
 package com.aldebaran.qi;
 
+import java.io.Closeable;
+
 /**
  * Class responsible for initializing the qi framework.
  * <p>
  * When started, it creates a {@link Session} by default connected
  * to <i>tcp://127.0.0.1:9559</i> and listening to <i>tcp://0.0.0.0:0</i>
  */
-public class Application {
+public class Application implements Closeable {
 
     static {
         // Loading native C++ libraries.
@@ -31,15 +33,29 @@ public class Application {
 
     private native void qiApplicationStop(long pApp);
 
-    private native void qiApplicationDestroy(long pApplication);
+    private static native void qiApplicationDestroy(long pApplication);
 
     /**
-     * Crude interface to native log system
+     * Crude interface to native log system.<br>
+     * The filter also applies to the logs forwarded to
+     * {@link com.aldebaran.qi.log.LogReport}: filtered logs do not cross into
+     * Java.
      */
     public static native void setLogCategory(String category, long verbosity);
 
+    /**
+     * Native applications destruction
+     */
+    private static final NativeHandles.Type NATIVE_TYPE = new NativeHandles.Type(Application.class) {
+        @Override
+        void destroy(final long pointer) {
+            Application.qiApplicationDestroy(pointer);
+        }
+    };
+
     // Members
     private long _application;
+    private NativeHandles.Handle _handle;
     private Session _session;
 
     /**
@@ -70,6 +86,7 @@ public class Application {
 
     private void init(String[] args, String defaultUrl, boolean listen) {
         _application = qiApplicationCreate(args, defaultUrl, listen);
+        _handle = NativeHandles.register(this, _application, Application.NATIVE_TYPE);
         _session = new Session(qiApplicationGetSession(_application));
     }
 
@@ -106,14 +123,12 @@ public class Application {
     }
 
     /**
-     * Called by garbage collector when object destroy.<br>
-     * Override to free the reference in JNI.
-     *
-     * @throws Throwable On destruction issue.
+     * Destroy the native application now instead of waiting the garbage
+     * collector.<br>
+     * This application and its session MUST NOT be used after this call.
      */
     @Override
-    protected void finalize() throws Throwable {
-        this.qiApplicationDestroy(this._application);
-        super.finalize();
+    public void close() {
+        this._handle.release();
     }
 }
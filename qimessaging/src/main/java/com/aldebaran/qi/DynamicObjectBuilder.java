@@ -6,6 +6,7 @@ package com.aldebaran.qi;
 import com.aldebaran.qi.serialization.SignatureUtilities;
 import com.aldebaran.qi.serialization.QiSerializer;
 
+import java.io.Closeable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 
@@ -22,7 +23,7 @@ import com.aldebaran.qi.serialization.SignatureUtilities;
  * {@link Session}
  */
 
-public class DynamicObjectBuilder {
+public class DynamicObjectBuilder implements Closeable {
 
     static {
         // Loading native C++ libraries.
@@ -34,9 +35,24 @@ public class DynamicObjectBuilder {
 
     private final long _p;
 
+    /**
+     * Handle to release the native builder
+     */
+    private final NativeHandles.Handle handle;
+
+    /**
+     * Native builders destruction
+     */
+    private static final NativeHandles.Type NATIVE_TYPE = new NativeHandles.Type(DynamicObjectBuilder.class) {
+        @Override
+        void destroy(final long pointer) {
+            DynamicObjectBuilder.destroy(pointer);
+        }
+    };
+
     private native long create();
 
-    private native void destroy(long pObject);
+    private static native void destroy(long pObject);
 
     private native AnyObject object(long pObjectBuilder);
 
@@ -95,6 +111,7 @@ public class DynamicObjectBuilder {
      */
     public DynamicObjectBuilder() {
         _p = create();
+        this.handle = NativeHandles.register(this, _p, DynamicObjectBuilder.NATIVE_TYPE);
     }
 
     /**
@@ -261,13 +278,14 @@ public class DynamicObjectBuilder {
     }
 
     /**
-     * Called by garbage collector Finalize is overridden to manually delete C++
-     * data
+     * Release the native builder now instead of waiting the garbage collector.
+     * <br>
+     * Objects already created by {@link #object()} are not affected. This
+     * builder MUST NOT be used after this call.
      */
     @Override
-    protected void finalize() throws Throwable {
-        destroy(_p);
-        super.finalize();
+    public void close() {
+        this.handle.release();
     }
 
     /**
@@ -320,10 +338,8 @@ public class DynamicObjectBuilder {
             throw new NullPointerException("instance MUST NOT be null!");
         }
 
-        // Create the monitor of instance to collect exceptions
+        // Create the monitor of instance
         final AdvertisedMethodMonitor<INTERFACE> advertisedMethodMonitor = new AdvertisedMethodMonitor<INTERFACE>(instance);
-        final Object monitor = Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class<?>[]{interfaceClass},
-                advertisedMethodMonitor);
 
         String description;
         AdvertisedMethodDescription advertisedMethodDescription;
@@ -336,11 +352,12 @@ public class DynamicObjectBuilder {
                 description = advertisedMethodDescription.value();
             }
 
-            this.advertiseMethod(this._p, SignatureUtilities.computeSignatureForMethod(method), monitor,
-                    interfaceClass.getName(), description);
+            // Each method is bound once, so calls from native skip the method lookup
+            this.advertiseMethod(this._p, SignatureUtilities.computeSignatureForMethod(method),
+                    new AdvertisedMethodInvoker(advertisedMethodMonitor, method), interfaceClass.getName(), description);
         }
 
         return (INTERFACE) Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class<?>[] { interfaceClass },
-                new AdvertisedMethodCaller<INTERFACE>(serializer, this, advertisedMethodMonitor));
+                new AdvertisedMethodCaller<INTERFACE>(serializer, this));
     }
 }
@@ -20,6 +20,42 @@ public class EmbeddedTools {
 
     private static native void initTypeSystem();
 
+    /**
+     * Choose how libqi threads calling Java are attached to the JVM.<br>
+     * By default a libqi thread is attached when it calls Java and detached
+     * right after, creating a new Java thread object each time.<br>
+     * In persistent mode, a libqi thread stays attached once it has called
+     * Java, and is detached only when the thread exits.<br>
+     * Native libraries must be loaded before calling this method.
+     *
+     * @param persistent {@code true} to keep libqi threads attached.
+     */
+    public static native void setPersistentThreadAttachment(boolean persistent);
+
+    /**
+     * Indicates if libqi threads stay attached to the JVM.
+     *
+     * @return {@code true} if persistent mode is enabled.
+     * @see #setPersistentThreadAttachment(boolean)
+     */
+    public static native boolean isPersistentThreadAttachment();
+
+    /**
+     * Number of times a libqi thread was attached to the JVM since native
+     * libraries were loaded.
+     *
+     * @return Attach count.
+     */
+    public static native long getThreadAttachCount();
+
+    /**
+     * Number of times a libqi thread was detached from the JVM since native
+     * libraries were loaded.
+     *
+     * @return Detach count.
+     */
+    public static native long getThreadDetachCount();
+
     /**
      * Override directory where native libraries are extracted.
      */
@@ -3,11 +3,18 @@
  */
 package com.aldebaran.qi;
 
+import java.io.Closeable;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Future extends the standard Java {@link java.util.concurrent.Future} and
@@ -22,20 +29,33 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @param <T>
  *            The type of the result
  */
-public class Future<T> implements java.util.concurrent.Future<T> {
+public class Future<T> implements java.util.concurrent.Future<T>, Closeable {
     /**
-     * Consumer caller to report an error
+     * State of a future created already finished (See {@link #of(Object)},
+     * {@link #fromError(String)} and {@link #cancelled()}).<br>
+     * It stays on the Java heap: the C++ Future is only created when the
+     * future crosses into native code.
+     *
+     * @param <T1> Value type
      */
-    static class ReportBugConsumer<T1> implements Consumer<Future<T1>> {
+    private static final class Completed<T1> {
         /**
-         * Called when future is finished
+         * Future value
          */
-        @Override
-        public void consume(Future<T1> future) throws Throwable {
-            if (future.hasError() && !future.continuationSpecified.get()) {
-                System.err.println("Uncaught exception on Future: " + future.getErrorMessage());
-                future.getError().printStackTrace();
-            }
+        final T1 value;
+        /**
+         * Error message, {@code null} if not in error
+         */
+        final String errorMessage;
+        /**
+         * Indicates if the future is cancelled
+         */
+        final boolean cancelled;
+
+        Completed(final T1 value, final String errorMessage, final boolean cancelled) {
+            this.value = value;
+            this.errorMessage = errorMessage;
+            this.cancelled = cancelled;
         }
     }
 
@@ -53,8 +73,123 @@ public class Future<T> implements java.util.concurrent.Future<T> {
 
     private static final int TIMEOUT_INFINITE = -1;
 
-    // C++ Future
-    private final long _fut;
+    /**
+     * Indicates if blocking calls park the Java thread instead of waiting in
+     * native code
+     */
+    private static volatile boolean parkingWait = false;
+
+    /**
+     * Threads parked until a future finishes, woken up by a single synchronous
+     * callback of the future, connected by the first wait
+     *
+     * @param <T1> Value type
+     */
+    private static final class Waiters<T1> implements Callback<T1> {
+        /**
+         * Waiting threads
+         */
+        private final Queue<Thread> threads = new ConcurrentLinkedQueue<Thread>();
+        /**
+         * Indicates if the future finished
+         */
+        private volatile boolean finished = false;
+
+        @Override
+        public void onFinished(final Future<T1> future) {
+            this.finished = true;
+
+            for (final Thread thread : this.threads) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        /**
+         * Park the current thread until the future finishes. Like the native
+         * wait, interruptions do not stop the wait, but are kept.
+         *
+         * @param msecs Maximum time to wait in milliseconds, negative to wait
+         *              without limit
+         * @return {@code true} if the future finished
+         */
+        boolean await(final int msecs) {
+            final Thread thread = Thread.currentThread();
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(msecs);
+            boolean interrupted = false;
+            // Registered before checking the state, so that the callback sees
+            // this thread if it does not see the future finished
+            this.threads.add(thread);
+
+            try {
+                while (!this.finished) {
+                    if (msecs < 0) {
+                        LockSupport.park(this);
+                    }
+                    else {
+                        final long remaining = deadline - System.nanoTime();
+
+                        if (remaining <= 0) {
+                            break;
+                        }
+
+                        LockSupport.parkNanos(this, remaining);
+                    }
+
+                    if (Thread.interrupted()) {
+                        interrupted = true;
+                    }
+                }
+            }
+            finally {
+                this.threads.remove(thread);
+            }
+
+            if (interrupted) {
+                thread.interrupt();
+            }
+
+            return this.finished;
+        }
+    }
+
+    /**
+     * Native futures destruction. The error of a future released without
+     * continuation nor observation of its result is reported first
+     */
+    private static final NativeHandles.Type NATIVE_TYPE = new NativeHandles.Type(Future.class) {
+        @Override
+        void destroy(final long pointer) {
+            Future.qiFutureDestroy(pointer);
+        }
+
+        @Override
+        void destroy(final long pointer, final Object attachment) {
+            if (!((AtomicBoolean) attachment).get()) {
+                final String errorMessage = Future.qiFutureUncaughtError(pointer);
+
+                if (errorMessage != null) {
+                    System.err.println("Uncaught exception on Future: " + errorMessage);
+                }
+            }
+
+            Future.qiFutureDestroy(pointer);
+        }
+    };
+
+    // C++ Future, 0 until created for a completed future
+    private volatile long _fut;
+
+    /**
+     * Handle to release the C++ Future, {@code null} until the C++ Future is
+     * created for a completed future
+     */
+    private volatile NativeHandles.Handle handle;
+
+    /**
+     * Java side state of a future created already finished, {@code null} for
+     * a future backed by a C++ Future
+     */
+    private final Completed<T> completed;
 
     // Native C API object functions
     private native boolean qiFutureCallCancel(long pFuture);
@@ -69,10 +204,45 @@ public class Future<T> implements java.util.concurrent.Future<T> {
 
     private native void qiFutureCallWaitWithTimeout(long pFuture, int timeout);
 
-    private native void qiFutureDestroy(long pFuture);
+    private static native void qiFutureDestroy(long pFuture);
 
     private native void qiFutureCallConnectCallback(long pFuture, Callback<?> callback, int futureCallbackType);
 
+    /**
+     * Obtain the error of a C++ Future finished in error.
+     *
+     * @param pFuture
+     *            Future pointer
+     * @return Error message, {@code null} if the future is not finished in
+     *         error
+     */
+    private static native String qiFutureUncaughtError(long pFuture);
+
+    /**
+     * Create a C++ Future finished with a value
+     *
+     * @param value
+     *            Future value
+     * @return Pointer of created future
+     */
+    private static native long qiFutureOfValue(Object value);
+
+    /**
+     * Create a C++ Future finished in error
+     *
+     * @param errorMessage
+     *            Error message
+     * @return Pointer of created future
+     */
+    private static native long qiFutureOfError(String errorMessage);
+
+    /**
+     * Create a cancelled C++ Future
+     *
+     * @return Pointer of created future
+     */
+    private static native long qiFutureOfCancelled();
+
     /**
      * Call native future "andThen" for Function(P)->R
      *
@@ -147,18 +317,84 @@ public class Future<T> implements java.util.concurrent.Future<T> {
     private FutureCallbackType defaultFutureCallbackType = FutureCallbackType.Async;
 
     /**
-     * Indicates if at least one continuation is specified, that is to say that
+     * Threads parked on this future, {@code null} until the first parking
+     * wait
+     */
+    private volatile Waiters<T> waiters;
+
+    /**
+     * Default executor of continuations, {@code null} to run them on libqi
+     * threads
+     */
+    private volatile Executor defaultExecutor;
+
+    /**
+     * Indicates if an error of this future is handled: at least one
+     * continuation is specified, that is to say that
      * {@link #thenApply(Function)}, {@link #thenCompose(Function)},
      * {@link #thenConsume(Consumer)}, {@link #andThenApply(Function)},
      * {@link #andThenCompose(Function)} or {@link #andThenConsume(Consumer)}
-     * was called
+     * was called, or the result was obtained ({@link #get()},
+     * {@link #getError()}, ...).<br>
+     * Shared with the native handle: the error of a future not handled is
+     * reported when the future is released
      */
     final AtomicBoolean continuationSpecified;
 
     Future(final long pFuture) {
         this._fut = pFuture;
+        this.completed = null;
+        this.continuationSpecified = new AtomicBoolean(false);
+        this.handle = NativeHandles.register(this, pFuture, Future.NATIVE_TYPE, this.continuationSpecified);
+    }
+
+    /**
+     * Create a future already finished, without C++ Future
+     *
+     * @param completed
+     *            Future state
+     */
+    private Future(final Completed<T> completed) {
+        this._fut = 0;
+        this.handle = null;
+        this.completed = completed;
         this.continuationSpecified = new AtomicBoolean(false);
-        this.qiFutureThenVoid(this._fut, new ReportBugConsumer<T>());
+    }
+
+    /**
+     * Obtain the C++ Future pointer, creating the C++ Future of a completed
+     * future on first call.<br>
+     * Called by the native code each time a Java Future crosses into libqi.
+     *
+     * @return C++ Future pointer
+     */
+    long pointer() {
+        long pointer = this._fut;
+
+        if (pointer != 0) {
+            return pointer;
+        }
+
+        synchronized (this) {
+            pointer = this._fut;
+
+            if (pointer == 0) {
+                if (this.completed.cancelled) {
+                    pointer = Future.qiFutureOfCancelled();
+                }
+                else if (this.completed.errorMessage != null) {
+                    pointer = Future.qiFutureOfError(this.completed.errorMessage);
+                }
+                else {
+                    pointer = Future.qiFutureOfValue(this.completed.value);
+                }
+
+                this.handle = NativeHandles.register(this, pointer, Future.NATIVE_TYPE, this.continuationSpecified);
+                this._fut = pointer;
+            }
+        }
+
+        return pointer;
     }
 
     /**
@@ -171,26 +407,144 @@ public class Future<T> implements java.util.concurrent.Future<T> {
         this.defaultFutureCallbackType = defaultFutureCallbackType;
     }
 
+    /**
+     * Change the default executor of continuations. When set, continuations
+     * without explicit executor run on it instead of libqi threads, and
+     * futures they create inherit it.
+     *
+     * @param defaultExecutor
+     *            New default executor, {@code null} to run continuations on
+     *            libqi threads
+     */
+    void setDefaultExecutor(final Executor defaultExecutor) {
+        this.defaultExecutor = defaultExecutor;
+    }
+
+    /**
+     * Obtain the default executor of continuations.
+     *
+     * @return Default executor, {@code null} if continuations run on libqi
+     *         threads
+     */
+    Executor getDefaultExecutor() {
+        return this.defaultExecutor;
+    }
+
+    /**
+     * Create a future finished with a value.<br>
+     * The future lives on the Java heap until it crosses into native code.
+     *
+     * @param value
+     *            Future value
+     * @param <T>
+     *            Value type
+     * @return Finished future
+     */
     public static <T> Future<T> of(final T value) {
-        Promise<T> promise = new Promise<T>();
-        promise.setValue(value);
-        return promise.getFuture();
+        return new Future<T>(new Completed<T>(value, null, false));
     }
 
+    /**
+     * Create a cancelled future.<br>
+     * The future lives on the Java heap until it crosses into native code.
+     *
+     * @param <T>
+     *            Value type
+     * @return Cancelled future
+     */
     public static <T> Future<T> cancelled() {
-        Promise<T> promise = new Promise();
-        promise.setCancelled();
-        return promise.getFuture();
+        return new Future<T>(new Completed<T>(null, null, true));
     }
 
+    /**
+     * Create a future finished in error.<br>
+     * The future lives on the Java heap until it crosses into native code.
+     *
+     * @param errorMessage
+     *            Error message. Must not be null
+     * @param <T>
+     *            Value type
+     * @return Future in error
+     */
     public static <T> Future<T> fromError(String errorMessage) {
-        Promise<T> promise = new Promise<T>();
-        promise.setError(errorMessage);
-        return promise.getFuture();
+        if (errorMessage == null) {
+            throw new NullPointerException("errorMessage MUST NOT be null!");
+        }
+
+        return new Future<T>(new Completed<T>(null, errorMessage, false));
+    }
+
+    /**
+     * Choose how {@link #get()}, {@link #get(long, TimeUnit)} and
+     * {@link #sync()} wait for an unfinished future.<br>
+     * By default, they wait in native code, which pins the carrier of a
+     * virtual thread. When parking is enabled, the Java thread is parked and
+     * woken up by a completion callback of the future, so thousands of
+     * virtual threads can block at the same time. This costs a callback per
+     * wait, so it only pays off with virtual threads.
+     *
+     * @param parkingWait
+     *            {@code true} to park the Java thread, {@code false} to wait
+     *            in native code
+     */
+    public static void setParkingWait(final boolean parkingWait) {
+        Future.parkingWait = parkingWait;
+    }
+
+    /**
+     * Indicates if blocking calls park the Java thread. See
+     * {@link #setParkingWait(boolean)}
+     *
+     * @return {@code true} if blocking calls park the Java thread
+     */
+    public static boolean isParkingWait() {
+        return Future.parkingWait;
+    }
+
+    /**
+     * Park the current thread until this future finishes.
+     *
+     * @param msecs
+     *            Maximum time to wait in milliseconds, negative to wait
+     *            without limit
+     * @return {@code true} if the future finished
+     */
+    private boolean park(final int msecs) {
+        if (qiFutureCallIsDone(_fut)) {
+            return true;
+        }
+
+        Waiters<T> waiters = this.waiters;
+
+        if (waiters == null) {
+            synchronized (this) {
+                waiters = this.waiters;
+
+                if (waiters == null) {
+                    waiters = new Waiters<T>();
+                    qiFutureCallConnectCallback(_fut, waiters, FutureCallbackType.Sync.nativeValue);
+                    this.waiters = waiters;
+                }
+            }
+        }
+
+        return waiters.await(msecs);
     }
 
     public void sync(long timeout, TimeUnit unit) {
-        qiFutureCallWaitWithTimeout(_fut, (int) unit.toMillis(timeout));
+        if (this.completed != null) {
+            return;
+        }
+
+        final int msecs = (int) unit.toMillis(timeout);
+
+        if (Future.parkingWait) {
+            // 0 waits without limit, as in native code
+            this.park(msecs == 0 ? TIMEOUT_INFINITE : msecs);
+            return;
+        }
+
+        qiFutureCallWaitWithTimeout(_fut, msecs);
     }
 
     public void sync() {
@@ -201,7 +555,20 @@ public class Future<T> implements java.util.concurrent.Future<T> {
      * Prefer {@link #then(FutureFunction, FutureCallbackType)} instead (e.g.
      */
     public void connect(Callback<T> callback, FutureCallbackType futureCallbackType) {
-        qiFutureCallConnectCallback(_fut, callback, futureCallbackType.nativeValue);
+        if (this.completed != null && futureCallbackType == FutureCallbackType.Sync) {
+            try {
+                callback.onFinished(this);
+            }
+            catch (Throwable throwable) {
+                // the callback threw an exception, it must have no impact on the caller
+                System.err.println("Exception when calling Future.Callback.onFinished(...)");
+                throwable.printStackTrace();
+            }
+
+            return;
+        }
+
+        qiFutureCallConnectCallback(this.pointer(), callback, futureCallbackType.nativeValue);
     }
 
     public void connect(final Callback<T> callback) {
@@ -212,6 +579,11 @@ public class Future<T> implements java.util.concurrent.Future<T> {
     public boolean cancel(boolean mayInterruptIfRunning) {
         // ignore mayInterruptIfRunning, can't map it to native libqi
         // This must be a blocking call to be compliant with Java's Future
+        if (this.completed != null) {
+            // Already finished: nothing to cancel
+            return this.completed.cancelled;
+        }
+
         qiFutureCallCancel(_fut);
         sync();
         return isCancelled();
@@ -222,6 +594,10 @@ public class Future<T> implements java.util.concurrent.Future<T> {
      */
     public synchronized void requestCancellation() {
         // This call is compliant with native libqi's Future.cancel()
+        if (this.completed != null) {
+            return;
+        }
+
         qiFutureCallCancelRequest(_fut);
     }
 
@@ -231,15 +607,38 @@ public class Future<T> implements java.util.concurrent.Future<T> {
         // sense)
         // to avoid breaking projects that were already using it.
         // Future projects should prefer using requestCancellation().
+        if (this.completed != null) {
+            return true;
+        }
+
         return qiFutureCallCancel(_fut);
     }
 
     @SuppressWarnings("unchecked")
     private T get(int msecs) throws ExecutionException, TimeoutException {
+        if (this.completed != null) {
+            this.continuationSpecified.set(true);
+            return this.completedValue();
+        }
+
         try {
+            if (Future.parkingWait && msecs != 0) {
+                // Once finished, the native get does not wait
+                if (!this.park(msecs)) {
+                    throw new TimeoutException("future timeout");
+                }
+
+                return (T) qiFutureCallGet(_fut, 0);
+            }
+
             return (T) qiFutureCallGet(_fut, msecs);
         }
         catch (Exception exception) {
+            if (!(exception instanceof TimeoutException)) {
+                // The error is observed by the caller
+                this.continuationSpecified.set(true);
+            }
+
             Throwable throwable = exception;
 
             while (throwable != null) {
@@ -269,6 +668,31 @@ public class Future<T> implements java.util.concurrent.Future<T> {
         }
     }
 
+    /**
+     * Obtain the value of a completed future, with the same exceptions as
+     * {@link #qiFutureCallGet(long, int)}.
+     *
+     * @return Future value
+     * @throws ExecutionException If the future is in error
+     */
+    private T completedValue() throws ExecutionException {
+        if (this.completed.cancelled) {
+            throw new CancellationException("future cancelled");
+        }
+
+        if (this.completed.errorMessage != null) {
+            final Exception exception = NativeTools.obtainRealException(new QiException(this.completed.errorMessage));
+
+            if (exception instanceof QiException) {
+                throw (QiException) exception;
+            }
+
+            throw new ExecutionException(exception.getMessage(), exception);
+        }
+
+        return this.completed.value;
+    }
+
     @Override
     public T get() throws ExecutionException {
         try {
@@ -359,11 +783,19 @@ public class Future<T> implements java.util.concurrent.Future<T> {
         // i.e. it must return true after any successful call to cancel(…)
         // --> There is no way to verify that a cancel request resulted in the
         // cancellation of the associated task, until the Future is done
+        if (this.completed != null) {
+            return this.completed.cancelled;
+        }
+
         return qiFutureCallIsCancelled(_fut);
     }
 
     @Override
     public synchronized boolean isDone() {
+        if (this.completed != null) {
+            return true;
+        }
+
         return qiFutureCallIsDone(_fut);
     }
 
@@ -388,8 +820,12 @@ public class Future<T> implements java.util.concurrent.Future<T> {
             throw new NullPointerException("function must not be null!");
         }
 
+        if (this.defaultExecutor != null) {
+            return this.thenApply(function, this.defaultExecutor);
+        }
+
         this.continuationSpecified.set(true);
-        final long futurePointer = this.qiFutureThen(this._fut, function);
+        final long futurePointer = this.qiFutureThen(this.pointer(), function);
         return new Future<R>(futurePointer);
     }
 
@@ -408,8 +844,12 @@ public class Future<T> implements java.util.concurrent.Future<T> {
             throw new NullPointerException("consumer must not be null!");
         }
 
+        if (this.defaultExecutor != null) {
+            return this.thenConsume(consumer, this.defaultExecutor);
+        }
+
         this.continuationSpecified.set(true);
-        final long futurePointer = this.qiFutureThenVoid(this._fut, consumer);
+        final long futurePointer = this.qiFutureThenVoid(this.pointer(), consumer);
         return new Future<Void>(futurePointer);
     }
 
@@ -432,8 +872,12 @@ public class Future<T> implements java.util.concurrent.Future<T> {
             throw new NullPointerException("function must not be null!");
         }
 
+        if (this.defaultExecutor != null) {
+            return this.thenCompose(function, this.defaultExecutor);
+        }
+
         this.continuationSpecified.set(true);
-        final long pointer = this.qiFutureThenUnwrap(this._fut, function);
+        final long pointer = this.qiFutureThenUnwrap(this.pointer(), function);
         return new Future<R>(pointer);
     }
 
@@ -453,8 +897,12 @@ public class Future<T> implements java.util.concurrent.Future<T> {
             throw new NullPointerException("function must not be null!");
         }
 
+        if (this.defaultExecutor != null) {
+            return this.andThenApply(function, this.defaultExecutor);
+        }
+
         this.continuationSpecified.set(true);
-        final long futurePointer = this.qiFutureAndThen(this._fut, function);
+        final long futurePointer = this.qiFutureAndThen(this.pointer(), function);
         return new Future<R>(futurePointer);
     }
 
@@ -472,8 +920,12 @@ public class Future<T> implements java.util.concurrent.Future<T> {
             throw new NullPointerException("consumer must not be null!");
         }
 
+        if (this.defaultExecutor != null) {
+            return this.andThenConsume(consumer, this.defaultExecutor);
+        }
+
         this.continuationSpecified.set(true);
-        final long futurePointer = this.qiFutureAndThenVoid(this._fut, consumer);
+        final long futurePointer = this.qiFutureAndThenVoid(this.pointer(), consumer);
         return new Future<Void>(futurePointer);
     }
 
@@ -495,11 +947,275 @@ public class Future<T> implements java.util.concurrent.Future<T> {
             throw new NullPointerException("function must not be null!");
         }
 
+        if (this.defaultExecutor != null) {
+            return this.andThenCompose(function, this.defaultExecutor);
+        }
+
         this.continuationSpecified.set(true);
-        final long pointer = this.qiFutureAndThenUnwrap(this._fut, function);
+        final long pointer = this.qiFutureAndThenUnwrap(this.pointer(), function);
         return new Future<R>(pointer);
     }
 
+    /**
+     * Same as {@link #thenApply(Function)}, but the function runs on the
+     * given executor instead of a libqi thread.
+     *
+     * @param <R>
+     *            Function result type
+     * @param function
+     *            Function to call when this future finished
+     * @param executor
+     *            Executor running the function
+     * @return Future of the function result
+     */
+    public <R> Future<R> thenApply(final Function<Future<T>, R> function, final Executor executor) {
+        if (function == null) {
+            throw new NullPointerException("function must not be null!");
+        }
+
+        return this.continueOn(executor, false, new Function<Future<T>, Future<R>>() {
+            @Override
+            public Future<R> execute(final Future<T> future) throws Throwable {
+                return Future.of(function.execute(future));
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #thenConsume(Consumer)}, but the consumer runs on the
+     * given executor instead of a libqi thread.
+     *
+     * @param consumer
+     *            Consumer to call when this future finished
+     * @param executor
+     *            Executor running the consumer
+     * @return Future finished when the consumer is called
+     */
+    public Future<Void> thenConsume(final Consumer<Future<T>> consumer, final Executor executor) {
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null!");
+        }
+
+        return this.continueOn(executor, false, new Function<Future<T>, Future<Void>>() {
+            @Override
+            public Future<Void> execute(final Future<T> future) throws Throwable {
+                consumer.consume(future);
+                return Future.of(null);
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #thenCompose(Function)}, but the function runs on the
+     * given executor instead of a libqi thread.
+     *
+     * @param <R>
+     *            Function result type
+     * @param function
+     *            Function to call when this future finished
+     * @param executor
+     *            Executor running the function
+     * @return Future of the function result
+     */
+    public <R> Future<R> thenCompose(final Function<Future<T>, Future<R>> function, final Executor executor) {
+        if (function == null) {
+            throw new NullPointerException("function must not be null!");
+        }
+
+        return this.continueOn(executor, false, function);
+    }
+
+    /**
+     * Same as {@link #andThenApply(Function)}, but the function runs on the
+     * given executor instead of a libqi thread.
+     *
+     * @param <R>
+     *            Function result type
+     * @param function
+     *            Function to call when this future succeed
+     * @param executor
+     *            Executor running the function
+     * @return Future of the function result
+     */
+    public <R> Future<R> andThenApply(final Function<T, R> function, final Executor executor) {
+        if (function == null) {
+            throw new NullPointerException("function must not be null!");
+        }
+
+        return this.continueOn(executor, true, new Function<Future<T>, Future<R>>() {
+            @Override
+            public Future<R> execute(final Future<T> future) throws Throwable {
+                return Future.of(function.execute(future.getValue()));
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #andThenConsume(Consumer)}, but the consumer runs on the
+     * given executor instead of a libqi thread.
+     *
+     * @param consumer
+     *            Consumer to call when this future succeed
+     * @param executor
+     *            Executor running the consumer
+     * @return Future finished when the consumer is called
+     */
+    public Future<Void> andThenConsume(final Consumer<T> consumer, final Executor executor) {
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null!");
+        }
+
+        return this.continueOn(executor, true, new Function<Future<T>, Future<Void>>() {
+            @Override
+            public Future<Void> execute(final Future<T> future) throws Throwable {
+                consumer.consume(future.getValue());
+                return Future.of(null);
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #andThenCompose(Function)}, but the function runs on the
+     * given executor instead of a libqi thread.
+     *
+     * @param <R>
+     *            Function result type
+     * @param function
+     *            Function to call when this future succeed
+     * @param executor
+     *            Executor running the function
+     * @return Future of the function result
+     */
+    public <R> Future<R> andThenCompose(final Function<T, Future<R>> function, final Executor executor) {
+        if (function == null) {
+            throw new NullPointerException("function must not be null!");
+        }
+
+        return this.continueOn(executor, true, new Function<Future<T>, Future<R>>() {
+            @Override
+            public Future<R> execute(final Future<T> future) throws Throwable {
+                return function.execute(future.getValue());
+            }
+        });
+    }
+
+    /**
+     * Run a continuation on an executor when this future finished.<br>
+     * The completion is only observed by a synchronous callback, which hands
+     * the continuation to the executor: no libqi thread runs user code.
+     *
+     * @param <R>
+     *            Continuation result type
+     * @param executor
+     *            Executor running the continuation
+     * @param onSuccessOnly
+     *            Indicates if a failure of this future is transmitted without
+     *            running the continuation
+     * @param continuation
+     *            Continuation, receives this future finished
+     * @return Future of the continuation result
+     */
+    private <R> Future<R> continueOn(final Executor executor, final boolean onSuccessOnly,
+                                     final Function<Future<T>, Future<R>> continuation) {
+        if (executor == null) {
+            throw new NullPointerException("executor must not be null!");
+        }
+
+        this.continuationSpecified.set(true);
+        final Future<T> source = this;
+        final Promise<R> promise = new Promise<R>();
+        promise.setOnCancel(new Promise.CancelRequestCallback<R>() {
+            @Override
+            public void onCancelRequested(final Promise<R> promise) {
+                source.requestCancellation();
+            }
+        });
+
+        this.connect(new Callback<T>() {
+            @Override
+            public void onFinished(final Future<T> future) {
+                if (onSuccessOnly && future.isCancelled()) {
+                    promise.setCancelled();
+                    return;
+                }
+
+                if (onSuccessOnly && future.hasError()) {
+                    promise.setError(future.getErrorMessage());
+                    return;
+                }
+
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            final Future<R> result;
+
+                            try {
+                                result = continuation.execute(future);
+                            }
+                            catch (final Throwable throwable) {
+                                promise.setError(Future.errorMessage(throwable));
+                                return;
+                            }
+
+                            if (result == null) {
+                                promise.setValue(null);
+                                return;
+                            }
+
+                            Future.transmit(result, promise);
+                        }
+                    });
+                }
+                catch (final RejectedExecutionException exception) {
+                    promise.setError(Future.errorMessage(exception));
+                }
+            }
+        }, FutureCallbackType.Sync);
+
+        final Future<R> future = promise.getFuture();
+        future.setDefaultExecutor(this.defaultExecutor);
+        return future;
+    }
+
+    /**
+     * Transmit the state of a future to a promise, when the future finished.
+     *
+     * @param <R>
+     *            Value type
+     * @param future
+     *            Future to follow
+     * @param promise
+     *            Promise to set
+     */
+    private static <R> void transmit(final Future<R> future, final Promise<R> promise) {
+        future.connect(new Callback<R>() {
+            @Override
+            public void onFinished(final Future<R> future) {
+                if (future.isCancelled()) {
+                    promise.setCancelled();
+                }
+                else if (future.hasError()) {
+                    promise.setError(future.getErrorMessage());
+                }
+                else {
+                    promise.setValue(future.getValue());
+                }
+            }
+        }, FutureCallbackType.Sync);
+    }
+
+    /**
+     * Message of an error thrown by a continuation, as libqi reports it.
+     *
+     * @param throwable
+     *            Thrown error
+     * @return Error message
+     */
+    private static String errorMessage(final Throwable throwable) {
+        return throwable.getMessage() != null ? throwable.getMessage() : throwable.toString();
+    }
+
     /**
      * Wait for all {@code futures} to complete.
      * <p>
@@ -518,52 +1234,91 @@ public class Future<T> implements java.util.concurrent.Future<T> {
             throw new NullPointerException("futures must not be null!");
         }
 
-        if (futures.length == 0)
-            return Future.of(null);
+        return FutureCombinators.waitAll(futures);
+    }
+
+    /**
+     * Wait for all {@code futures} to complete and give their values.
+     * <p>
+     * The returning future finishes successfully if and only if all of the
+     * futures it waits for finish successfully. Its list has the values in
+     * the order of {@code futures}.
+     * <p>
+     * Otherwise, it takes the state of the first failing future (due to
+     * cancellation or error).
+     *
+     * @param futures
+     *            the futures to wait for
+     * @param <T>
+     *            Values type
+     * @return a future giving the values of the others
+     */
+    public static <T> Future<List<T>> allOf(final List<Future<T>> futures) {
+        if (futures == null) {
+            throw new NullPointerException("futures must not be null!");
+        }
+
+        return FutureCombinators.allOf(futures);
+    }
 
-        class WaitData {
-            int runningFutures = futures.length;
-            boolean stopped;
+    /**
+     * Give the value of the first of {@code futures} to finish successfully.
+     * <p>
+     * The other futures are not cancelled. If all of them fail, the returning
+     * future takes the state of the last one to fail.
+     *
+     * @param futures
+     *            the futures to wait for. Must not be empty
+     * @param <T>
+     *            Values type
+     * @return a future giving the first value
+     */
+    public static <T> Future<T> anyOf(final List<Future<T>> futures) {
+        if (futures == null) {
+            throw new NullPointerException("futures must not be null!");
         }
-        final WaitData waitData = new WaitData();
-        final Promise<Void> promise = new Promise<Void>();
-        promise.setOnCancel(new Promise.CancelRequestCallback<Void>() {
-            @Override
-            public void onCancelRequested(Promise<Void> promise) {
-                for (Future<?> future : futures) {
-                    future.requestCancellation();
-                }
-            }
-        });
 
-        for (Future<?> future : futures) {
-            ((Future<Object>) future).connect(new Future.Callback<Object>() {
-                @Override
-                public void onFinished(Future<Object> future) {
-                    synchronized (waitData) {
-                        if (!waitData.stopped) {
-                            if (future.isCancelled()) {
-                                promise.setCancelled();
-                                waitData.stopped = true;
-                            }
-                            else if (future.hasError()) {
-                                promise.setError(future.getErrorMessage());
-                                waitData.stopped = true;
-                            }
-                            else {
-                                waitData.runningFutures--;
+        return FutureCombinators.anyOf(futures);
+    }
 
-                                if (waitData.runningFutures == 0) {
-                                    promise.setValue(null);
-                                }
-                            }
-                        }
-                    }
-                }
-            });
+    /**
+     * Launch a future per argument, with at most {@code maxConcurrency} of
+     * them running at the same time, and give their values.
+     * <p>
+     * The returning future finishes successfully if and only if all of the
+     * launched futures finish successfully. Its list has the values in the
+     * order of {@code arguments}.
+     * <p>
+     * Otherwise, it takes the state of the first failing future (due to
+     * cancellation or error), and the remaining arguments are not launched.
+     *
+     * @param arguments
+     *            the arguments to give to the function
+     * @param maxConcurrency
+     *            maximum number of futures running at the same time
+     * @param function
+     *            function launching the future of an argument
+     * @param <A>
+     *            Arguments type
+     * @param <R>
+     *            Values type
+     * @return a future giving the values of the launched futures
+     */
+    public static <A, R> Future<List<R>> traverse(final List<A> arguments, final int maxConcurrency,
+                                                  final Function<A, Future<R>> function) {
+        if (arguments == null) {
+            throw new NullPointerException("arguments must not be null!");
+        }
+
+        if (function == null) {
+            throw new NullPointerException("function must not be null!");
+        }
+
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive!");
         }
 
-        return promise.getFuture();
+        return FutureCombinators.traverse(arguments, maxConcurrency, function);
     }
 
     /**
@@ -600,12 +1355,16 @@ public class Future<T> implements java.util.concurrent.Future<T> {
     }
 
     /**
-     * Called by garbage collector Finalize is overridden to manually delete C++
-     * data
+     * Release the C++ Future now instead of waiting the garbage collector.<br>
+     * The computation is not cancelled and continuations already registered
+     * are still called. This future MUST NOT be used after this call.
      */
     @Override
-    protected void finalize() throws Throwable {
-        this.qiFutureDestroy(this._fut);
-        super.finalize();
+    public void close() {
+        final NativeHandles.Handle handle = this.handle;
+
+        if (handle != null) {
+            handle.release();
+        }
     }
 }
@@ -0,0 +1,488 @@
+package com.aldebaran.qi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Combinations of futures, see {@link Future#waitAll(Future[])},
+ * {@link Future#allOf(List)}, {@link Future#anyOf(List)} and
+ * {@link Future#traverse(List, int, Function)}.<br>
+ * Completions are counted with atomics, without lock. Callbacks are connected
+ * with {@link FutureCallbackType#Sync}: they only count and set the result, so
+ * they run on the thread finishing the future instead of being scheduled.
+ */
+final class FutureCombinators {
+    /**
+     * Result of a combination, set once by the first completion deciding it
+     *
+     * @param <R> Result type
+     */
+    private static final class Result<R> {
+        /**
+         * Promise of the result
+         */
+        final Promise<R> promise = new Promise<R>();
+        /**
+         * Indicates if the result is set
+         */
+        private final AtomicBoolean set = new AtomicBoolean(false);
+
+        /**
+         * Create the result.
+         *
+         * @param futures Futures to cancel when the result cancellation is
+         *                requested
+         */
+        Result(final Collection<? extends Future<?>> futures) {
+            this.promise.setOnCancel(new Promise.CancelRequestCallback<R>() {
+                @Override
+                public void onCancelRequested(final Promise<R> promise) {
+                    for (final Future<?> future : futures) {
+                        future.requestCancellation();
+                    }
+                }
+            });
+        }
+
+        /**
+         * Create the result.
+         *
+         * @param onCancelRequested Called when the result cancellation is
+         *                          requested
+         */
+        Result(final Runnable onCancelRequested) {
+            this.promise.setOnCancel(new Promise.CancelRequestCallback<R>() {
+                @Override
+                public void onCancelRequested(final Promise<R> promise) {
+                    onCancelRequested.run();
+                }
+            });
+        }
+
+        /**
+         * Indicates if the result is already set.
+         *
+         * @return {@code true} if set
+         */
+        boolean isSet() {
+            return this.set.get();
+        }
+
+        /**
+         * Set the value, if the result is not set yet.
+         *
+         * @param value Value
+         */
+        void setValue(final R value) {
+            if (this.set.compareAndSet(false, true)) {
+                this.promise.setValue(value);
+            }
+        }
+
+        /**
+         * Set the error, if the result is not set yet.
+         *
+         * @param errorMessage Error message
+         */
+        void setError(final String errorMessage) {
+            if (this.set.compareAndSet(false, true)) {
+                this.promise.setError(errorMessage);
+            }
+        }
+
+        /**
+         * Set the cancelled state, if the result is not set yet.
+         */
+        void setCancelled() {
+            if (this.set.compareAndSet(false, true)) {
+                this.promise.setCancelled();
+            }
+        }
+
+        /**
+         * Copy the failure of a future, if the result is not set yet.
+         *
+         * @param future Finished future
+         * @return {@code true} if the future failed (cancelled or in error)
+         */
+        boolean failedWith(final Future<?> future) {
+            if (future.isCancelled()) {
+                this.setCancelled();
+                return true;
+            }
+
+            if (future.hasError()) {
+                this.setError(future.getErrorMessage());
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * See {@link Future#waitAll(Future[])}
+     */
+    static Future<Void> waitAll(final Future<?>... futures) {
+        if (futures.length == 0) {
+            return Future.of(null);
+        }
+
+        final Result<Void> result = new Result<Void>(Arrays.asList(futures));
+        final AtomicInteger running = new AtomicInteger(futures.length);
+        final Future.Callback<Object> callback = new Future.Callback<Object>() {
+            @Override
+            public void onFinished(final Future<Object> future) {
+                if (!result.failedWith(future) && running.decrementAndGet() == 0) {
+                    result.setValue(null);
+                }
+            }
+        };
+
+        for (final Future<?> future : futures) {
+            FutureCombinators.connect(future, callback);
+        }
+
+        return result.promise.getFuture();
+    }
+
+    /**
+     * See {@link Future#allOf(List)}
+     */
+    static <T> Future<List<T>> allOf(final List<Future<T>> futures) {
+        final int size = futures.size();
+
+        if (size == 0) {
+            return Future.<List<T>>of(new ArrayList<T>());
+        }
+
+        final Result<List<T>> result = new Result<List<T>>(futures);
+        final AtomicReferenceArray<T> values = new AtomicReferenceArray<T>(size);
+        final AtomicInteger running = new AtomicInteger(size);
+
+        for (int index = 0; index < size; index++) {
+            final int valueIndex = index;
+            futures.get(index).connect(new Future.Callback<T>() {
+                @Override
+                public void onFinished(final Future<T> future) {
+                    if (result.failedWith(future)) {
+                        return;
+                    }
+
+                    values.set(valueIndex, future.getValue());
+
+                    if (running.decrementAndGet() == 0) {
+                        result.setValue(FutureCombinators.toList(values));
+                    }
+                }
+            }, FutureCallbackType.Sync);
+        }
+
+        return result.promise.getFuture();
+    }
+
+    /**
+     * See {@link Future#anyOf(List)}
+     */
+    static <T> Future<T> anyOf(final List<Future<T>> futures) {
+        final int size = futures.size();
+
+        if (size == 0) {
+            throw new IllegalArgumentException("futures must not be empty!");
+        }
+
+        final Result<T> result = new Result<T>(futures);
+        final AtomicInteger failures = new AtomicInteger(0);
+        final Future.Callback<T> callback = new Future.Callback<T>() {
+            @Override
+            public void onFinished(final Future<T> future) {
+                if (result.isSet()) {
+                    return;
+                }
+
+                if (!future.isCancelled() && !future.hasError()) {
+                    result.setValue(future.getValue());
+                }
+                else if (failures.incrementAndGet() == size) {
+                    // Every future failed: take the state of the last one
+                    result.failedWith(future);
+                }
+            }
+        };
+
+        for (final Future<T> future : futures) {
+            future.connect(callback, FutureCallbackType.Sync);
+        }
+
+        return result.promise.getFuture();
+    }
+
+    /**
+     * See {@link Future#traverse(List, int, Function)}
+     */
+    static <A, R> Future<List<R>> traverse(final List<A> arguments, final int maxConcurrency,
+                                           final Function<A, Future<R>> function) {
+        final int size = arguments.size();
+
+        if (size == 0) {
+            return Future.<List<R>>of(new ArrayList<R>());
+        }
+
+        final Traversal<A, R> traversal = new Traversal<A, R>(arguments, function);
+        final int lanes = Math.min(maxConcurrency, size);
+
+        for (int lane = 0; lane < lanes; lane++) {
+            traversal.launch();
+        }
+
+        return traversal.result.promise.getFuture();
+    }
+
+    /**
+     * Traversal of a list with a bounded number of running futures.<br>
+     * Each finished future launches the next argument, so at most
+     * {@code maxConcurrency} futures run at the same time.
+     *
+     * @param <A> Arguments type
+     * @param <R> Results type
+     */
+    private static final class Traversal<A, R> {
+        /**
+         * Arguments to give to the function
+         */
+        private final List<A> arguments;
+        /**
+         * Function launching a future per argument
+         */
+        private final Function<A, Future<R>> function;
+        /**
+         * Launched futures, by argument index
+         */
+        private final AtomicReferenceArray<Future<R>> futures;
+        /**
+         * Results, by argument index
+         */
+        private final AtomicReferenceArray<R> values;
+        /**
+         * Index of the next argument to launch
+         */
+        private final AtomicInteger next = new AtomicInteger(0);
+        /**
+         * Number of futures not finished yet
+         */
+        private final AtomicInteger running;
+        /**
+         * Indicates if the cancellation was requested
+         */
+        private final AtomicBoolean cancelRequested = new AtomicBoolean(false);
+        /**
+         * Traversal result
+         */
+        final Result<List<R>> result;
+
+        Traversal(final List<A> arguments, final Function<A, Future<R>> function) {
+            final int size = arguments.size();
+            this.arguments = arguments;
+            this.function = function;
+            this.futures = new AtomicReferenceArray<Future<R>>(size);
+            this.values = new AtomicReferenceArray<R>(size);
+            this.running = new AtomicInteger(size);
+            this.result = new Result<List<R>>(new Runnable() {
+                @Override
+                public void run() {
+                    Traversal.this.cancel();
+                }
+            });
+        }
+
+        /**
+         * Launch the next arguments until one of them does not finish
+         * immediately. Its completion continues the lane. Looping instead of
+         * recursing keeps the stack flat when futures finish immediately.
+         */
+        void launch() {
+            while (true) {
+                if (this.result.isSet()) {
+                    return;
+                }
+
+                if (this.cancelRequested.get()) {
+                    this.result.setCancelled();
+                    return;
+                }
+
+                final int index = this.next.getAndIncrement();
+
+                if (index >= this.arguments.size()) {
+                    return;
+                }
+
+                final Future<R> future = this.apply(index);
+
+                if (future == null) {
+                    return;
+                }
+
+                this.futures.set(index, future);
+
+                if (!future.isDone()) {
+                    this.continueAfter(index, future);
+                    return;
+                }
+
+                if (!this.finished(index, future)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Continue the lane when a future finishes. The next arguments are
+         * launched on the default executor of the future if it has one,
+         * otherwise from an asynchronous callback: never inline on the libqi
+         * thread that finished the future.
+         *
+         * @param index  Argument index
+         * @param future Future not finished yet
+         */
+        private void continueAfter(final int index, final Future<R> future) {
+            final Executor executor = future.getDefaultExecutor();
+
+            if (executor == null) {
+                future.connect(new Future.Callback<R>() {
+                    @Override
+                    public void onFinished(final Future<R> future) {
+                        if (Traversal.this.finished(index, future)) {
+                            Traversal.this.launch();
+                        }
+                    }
+                }, FutureCallbackType.Async);
+                return;
+            }
+
+            future.connect(new Future.Callback<R>() {
+                @Override
+                public void onFinished(final Future<R> future) {
+                    if (!Traversal.this.finished(index, future)) {
+                        return;
+                    }
+
+                    try {
+                        executor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                Traversal.this.launch();
+                            }
+                        });
+                    }
+                    catch (final RejectedExecutionException exception) {
+                        Traversal.this.result.setError(exception.getMessage() != null ? exception.getMessage() : exception.toString());
+                    }
+                }
+            }, FutureCallbackType.Sync);
+        }
+
+        /**
+         * Call the function for an argument.
+         *
+         * @param index Argument index
+         * @return Launched future, {@code null} if the function failed (The
+         * result is then in error)
+         */
+        private Future<R> apply(final int index) {
+            try {
+                final Future<R> future = this.function.execute(this.arguments.get(index));
+
+                if (future == null) {
+                    this.result.setError("function returned a null future for argument " + index);
+                }
+
+                return future;
+            }
+            catch (final Throwable throwable) {
+                this.result.setError(throwable.getMessage() != null ? throwable.getMessage() : throwable.toString());
+                return null;
+            }
+        }
+
+        /**
+         * Record a finished future.
+         *
+         * @param index  Argument index
+         * @param future Finished future
+         * @return {@code true} if the traversal continues
+         */
+        private boolean finished(final int index, final Future<R> future) {
+            if (this.result.failedWith(future)) {
+                return false;
+            }
+
+            this.values.set(index, future.getValue());
+
+            if (this.running.decrementAndGet() == 0) {
+                this.result.setValue(FutureCombinators.toList(this.values));
+                return false;
+            }
+
+            return true;
+        }
+
+        /**
+         * Stop launching and request the cancellation of the running futures.
+         */
+        private void cancel() {
+            this.cancelRequested.set(true);
+            final int length = this.futures.length();
+
+            for (int index = 0; index < length; index++) {
+                final Future<R> future = this.futures.get(index);
+
+                if (future != null) {
+                    future.requestCancellation();
+                }
+            }
+        }
+    }
+
+    /**
+     * Connect a callback on a future of any type.
+     *
+     * @param future   Future to follow
+     * @param callback Callback to call when finished
+     */
+    @SuppressWarnings("unchecked")
+    private static void connect(final Future<?> future, final Future.Callback<Object> callback) {
+        ((Future<Object>) future).connect(callback, FutureCallbackType.Sync);
+    }
+
+    /**
+     * Copy values in a list.
+     *
+     * @param values Values
+     * @param <T>    Values type
+     * @return List of the values
+     */
+    private static <T> List<T> toList(final AtomicReferenceArray<T> values) {
+        final int length = values.length();
+        final List<T> list = new ArrayList<T>(length);
+
+        for (int index = 0; index < length; index++) {
+            list.add(values.get(index));
+        }
+
+        return list;
+    }
+
+    /**
+     * Utility class.
+     */
+    private FutureCombinators() {
+    }
+}
@@ -0,0 +1,240 @@
+package com.aldebaran.qi;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.aldebaran.qi.serialization.MethodDescription;
+import com.aldebaran.qi.serialization.SignatureUtilities;
+import com.aldebaran.qi.util.WeakKeyCache;
+
+/**
+ * Cache of resolved Java methods called from native code.<br>
+ * For each (class, method name, JNI signature) the target {@link Method} is
+ * resolved once, made accessible, and stored with the conversion to apply on
+ * each parameter.<br>
+ * Lookups take no lock. Classes are weak keys, but a dispatch table holds
+ * {@link Method}s of its class, so the table is softly referenced: a cached
+ * class (and its class loader) can only be unloaded once the garbage
+ * collector clears its table, under memory pressure.
+ */
+final class MethodDispatchCache {
+    /**
+     * Resolved method with its precomputed conversions
+     */
+    static final class Dispatch {
+        /**
+         * Method to invoke
+         */
+        final Method method;
+        /**
+         * Boxed version of each parameter type, used for the fast path
+         */
+        final Class<?>[] boxedParameters;
+        /**
+         * Each parameter type as declared by the method
+         */
+        final Class<?>[] parameters;
+        /**
+         * Return type as described by the JNI signature
+         */
+        final Class<?> returnType;
+        /**
+         * Indicates if the method returns nothing
+         */
+        final boolean returnsVoid;
+
+        /**
+         * Create a dispatch entry for a method.
+         *
+         * @param method     Method to invoke.
+         * @param returnType Return type described by the JNI signature.
+         */
+        Dispatch(final Method method, final Class<?> returnType) {
+            this.method = method;
+            this.parameters = method.getParameterTypes();
+            this.boxedParameters = new Class<?>[this.parameters.length];
+
+            for (int index = this.parameters.length - 1; index >= 0; index--) {
+                this.boxedParameters[index] = MethodDispatchCache.boxed(this.parameters[index]);
+            }
+
+            this.returnType = returnType;
+            final Class<?> methodReturnType = method.getReturnType();
+            this.returnsVoid = void.class.equals(methodReturnType) || Void.class.equals(methodReturnType);
+        }
+
+        /**
+         * Convert, in place, the arguments received from native to the method
+         * parameters types.<br>
+         * Arguments already of the expected type are kept as is, others go
+         * through {@link SignatureUtilities#convert(Object, Class)}.
+         *
+         * @param arguments Arguments to convert.
+         */
+        void convertArguments(final Object[] arguments) {
+            Object argument;
+
+            for (int index = arguments.length - 1; index >= 0; index--) {
+                argument = arguments[index];
+
+                if (argument != null && argument.getClass() != this.boxedParameters[index]) {
+                    arguments[index] = SignatureUtilities.convert(argument, this.parameters[index]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dispatch tables by class
+     */
+    private static final WeakKeyCache<Class<?>, SoftReference<Map<String, Dispatch>>> TABLES = new WeakKeyCache<Class<?>, SoftReference<Map<String, Dispatch>>>();
+
+    /**
+     * Obtain the dispatch entry for a method, resolving it on first use.
+     *
+     * @param claz          Class where the method is searched.
+     * @param methodName    Method name.
+     * @param javaSignature Method JNI signature.
+     * @return The dispatch entry or {@code null} if no compatible method exists.
+     */
+    static Dispatch obtain(final Class<?> claz, final String methodName, final String javaSignature) {
+        final Map<String, Dispatch> table = MethodDispatchCache.table(claz);
+        final String key = methodName + javaSignature;
+        Dispatch dispatch = table.get(key);
+
+        if (dispatch == null) {
+            dispatch = MethodDispatchCache.resolve(claz, methodName, javaSignature);
+
+            if (dispatch != null) {
+                table.put(key, dispatch);
+            }
+        }
+
+        return dispatch;
+    }
+
+    /**
+     * Number of classes currently having a dispatch table.
+     *
+     * @return Number of cached classes.
+     */
+    static int cachedClassCount() {
+        return MethodDispatchCache.TABLES.size();
+    }
+
+    /**
+     * Obtain (or create) the dispatch table of a class. Only the creation
+     * takes a lock.
+     *
+     * @param claz Class.
+     * @return Class dispatch table.
+     */
+    private static Map<String, Dispatch> table(final Class<?> claz) {
+        Map<String, Dispatch> table = MethodDispatchCache.cachedTable(claz);
+
+        if (table != null) {
+            return table;
+        }
+
+        synchronized (MethodDispatchCache.TABLES) {
+            table = MethodDispatchCache.cachedTable(claz);
+
+            if (table == null) {
+                table = new ConcurrentHashMap<String, Dispatch>();
+                MethodDispatchCache.TABLES.put(claz, new SoftReference<Map<String, Dispatch>>(table));
+            }
+
+            return table;
+        }
+    }
+
+    /**
+     * Obtain the dispatch table of a class, if cached and not collected.
+     *
+     * @param claz Class.
+     * @return Class dispatch table, or {@code null} if none.
+     */
+    private static Map<String, Dispatch> cachedTable(final Class<?> claz) {
+        final SoftReference<Map<String, Dispatch>> reference = MethodDispatchCache.TABLES.get(claz);
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Resolve the method nearest to the given JNI signature.
+     *
+     * @param claz          Class where the method is searched.
+     * @param methodName    Method name.
+     * @param javaSignature Method JNI signature.
+     * @return Resolved dispatch or {@code null} if no compatible method exists.
+     */
+    private static Dispatch resolve(final Class<?> claz, final String methodName, final String javaSignature) {
+        final MethodDescription methodDescription = MethodDescription.fromJNI(methodName, javaSignature);
+        Method method = null;
+        int distance = Integer.MAX_VALUE;
+        int dist;
+
+        for (Method meth : claz.getMethods()) {
+            dist = methodDescription.distance(meth);
+
+            if (dist < distance) {
+                distance = dist;
+                method = meth;
+            }
+        }
+
+        if (method == null) {
+            return null;
+        }
+
+        method.setAccessible(true);
+        return new Dispatch(method, methodDescription.getReturnType());
+    }
+
+    /**
+     * Boxed version of a type.
+     *
+     * @param clazz Type to box.
+     * @return Boxed type, or the type itself if not primitive.
+     */
+    private static Class<?> boxed(final Class<?> clazz) {
+        if (!clazz.isPrimitive()) {
+            return clazz;
+        }
+
+        if (boolean.class.equals(clazz)) {
+            return Boolean.class;
+        }
+
+        if (char.class.equals(clazz)) {
+            return Character.class;
+        }
+
+        if (byte.class.equals(clazz)) {
+            return Byte.class;
+        }
+
+        if (short.class.equals(clazz)) {
+            return Short.class;
+        }
+
+        if (int.class.equals(clazz)) {
+            return Integer.class;
+        }
+
+        if (long.class.equals(clazz)) {
+            return Long.class;
+        }
+
+        if (float.class.equals(clazz)) {
+            return Float.class;
+        }
+
+        if (double.class.equals(clazz)) {
+            return Double.class;
+        }
+
+        return Void.class;
+    }
+}
@@ -0,0 +1,232 @@
+package com.aldebaran.qi;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Release of the native memory held by Java objects, without finalizers.<br>
+ * Each Java object owning a native pointer registers a {@link Handle}. The
+ * native memory is released either explicitly by the owner (Its
+ * {@code close()} method) or, once the owner is garbage collected, by a
+ * daemon cleaner thread.<br>
+ * The number of live native handles per type can be watched to detect leaks.
+ */
+public final class NativeHandles {
+    /**
+     * Kind of native pointer: knows how to destroy it and counts the live
+     * ones.<br>
+     * Instances MUST be created in a static context, so that they do not
+     * reference an owner.
+     */
+    abstract static class Type {
+        /**
+         * Class owning the native pointers
+         */
+        final Class<?> owner;
+        /**
+         * Number of pointers not yet destroyed
+         */
+        final AtomicLong live = new AtomicLong();
+
+        /**
+         * Create and declare a type.
+         *
+         * @param owner Class owning the native pointers.
+         */
+        Type(final Class<?> owner) {
+            this.owner = owner;
+            NativeHandles.TYPES.put(owner, this);
+        }
+
+        /**
+         * Destroy a native pointer.<br>
+         * Called at most once per pointer, possibly from the cleaner thread.
+         *
+         * @param pointer Pointer to destroy.
+         */
+        abstract void destroy(long pointer);
+
+        /**
+         * Destroy a native pointer registered with an attachment. By default
+         * the attachment is ignored.<br>
+         * Called at most once per pointer, possibly from the cleaner thread.
+         *
+         * @param pointer    Pointer to destroy.
+         * @param attachment Attachment given at registration.
+         */
+        void destroy(final long pointer, final Object attachment) {
+            this.destroy(pointer);
+        }
+    }
+
+    /**
+     * Native pointer owned by a Java object.<br>
+     * Does not reference its owner, so that the owner can be garbage
+     * collected.
+     */
+    static final class Handle extends PhantomReference<Object> {
+        /**
+         * Pointer type
+         */
+        private final Type type;
+        /**
+         * Native pointer
+         */
+        private final long pointer;
+        /**
+         * State shared with the owner and given to the destruction, must not
+         * reference the owner
+         */
+        private final Object attachment;
+        /**
+         * Indicates if the pointer has been destroyed
+         */
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        /**
+         * Create the handle.
+         *
+         * @param owner      Object owning the pointer.
+         * @param pointer    Native pointer.
+         * @param type       Pointer type.
+         * @param attachment State given to the destruction.
+         */
+        private Handle(final Object owner, final long pointer, final Type type, final Object attachment) {
+            super(owner, NativeHandles.QUEUE);
+            this.type = type;
+            this.pointer = pointer;
+            this.attachment = attachment;
+        }
+
+        /**
+         * Destroy the native pointer, if not already done.
+         *
+         * @return {@code true} if the pointer was destroyed by this call.
+         */
+        boolean release() {
+            if (!this.released.compareAndSet(false, true)) {
+                return false;
+            }
+
+            NativeHandles.HANDLES.remove(this);
+            this.type.live.decrementAndGet();
+            this.type.destroy(this.pointer, this.attachment);
+            return true;
+        }
+
+        /**
+         * Indicates if the pointer has been destroyed.
+         *
+         * @return {@code true} if destroyed.
+         */
+        boolean isReleased() {
+            return this.released.get();
+        }
+    }
+
+    /**
+     * Queue of handles whose owner has been garbage collected
+     */
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<Object>();
+    /**
+     * Handles not released yet (Keep them reachable until enqueued)
+     */
+    private static final Set<Handle> HANDLES = Collections.newSetFromMap(new ConcurrentHashMap<Handle, Boolean>());
+    /**
+     * Declared types
+     */
+    private static final Map<Class<?>, Type> TYPES = new ConcurrentHashMap<Class<?>, Type>();
+
+    static {
+        final Thread cleaner = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        ((Handle) NativeHandles.QUEUE.remove()).release();
+                    }
+                    catch (final InterruptedException ignored) {
+                        // The cleaner lives as long as the JVM
+                    }
+                    catch (final Throwable throwable) {
+                        throwable.printStackTrace();
+                    }
+                }
+            }
+        }, "qi-native-cleaner");
+        cleaner.setDaemon(true);
+        cleaner.start();
+    }
+
+    /**
+     * Register a native pointer owned by an object.
+     *
+     * @param owner   Object owning the pointer.
+     * @param pointer Native pointer.
+     * @param type    Pointer type.
+     * @return Handle to give to {@link Handle#release()} for an explicit
+     * release.
+     */
+    static Handle register(final Object owner, final long pointer, final Type type) {
+        return NativeHandles.register(owner, pointer, type, null);
+    }
+
+    /**
+     * Register a native pointer owned by an object, with a state given to
+     * its destruction (See {@link Type#destroy(long, Object)}).
+     *
+     * @param owner      Object owning the pointer.
+     * @param pointer    Native pointer.
+     * @param type       Pointer type.
+     * @param attachment State given to the destruction. It must not
+     *                   reference the owner, else the owner is never
+     *                   collected.
+     * @return Handle to give to {@link Handle#release()} for an explicit
+     * release.
+     */
+    static Handle register(final Object owner, final long pointer, final Type type, final Object attachment) {
+        final Handle handle = new Handle(owner, pointer, type, attachment);
+        type.live.incrementAndGet();
+        NativeHandles.HANDLES.add(handle);
+        return handle;
+    }
+
+    /**
+     * Number of live native handles owned by instances of a class.
+     *
+     * @param owner Owner class (Like {@link Future} or {@link AnyObject}).
+     * @return Number of native pointers not destroyed yet.
+     */
+    public static long getLiveHandleCount(final Class<?> owner) {
+        final Type type = NativeHandles.TYPES.get(owner);
+        return type == null ? 0 : type.live.get();
+    }
+
+    /**
+     * Number of live native handles for each owner class.
+     *
+     * @return Snapshot of the counters.
+     */
+    public static Map<Class<?>, Long> getLiveHandleCounts() {
+        final Map<Class<?>, Long> counts = new HashMap<Class<?>, Long>();
+
+        for (final Type type : NativeHandles.TYPES.values()) {
+            counts.put(type.owner, type.live.get());
+        }
+
+        return counts;
+    }
+
+    /**
+     * Utility class.
+     */
+    private NativeHandles() {
+    }
+}
@@ -1,12 +1,17 @@
 package com.aldebaran.qi;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
-import com.aldebaran.qi.serialization.MethodDescription;
 import com.aldebaran.qi.serialization.SignatureUtilities;
 
 /**
@@ -26,14 +31,84 @@ public class NativeTools {
      */
     private static final AtomicLong NEXT_EXCEPTION_ID = new AtomicLong(0);
     /**
-     * Map of error messages stored to be get later
+     * Maximum number of exceptions kept, older ones are dropped first
      */
-    private static final Map<String, Exception> ERRORS_MAP = new HashMap<String, Exception>();
+    static final int MAXIMUM_STORED_EXCEPTIONS = 1024;
+    /**
+     * Time to live of an exception not read yet, in nanoseconds
+     */
+    static final long STORED_EXCEPTION_TIME_TO_LIVE = TimeUnit.SECONDS.toNanos(60);
+    /**
+     * Time to live of an exception already read, in nanoseconds. Lets the
+     * other readers of the same failure (hasError() then getError(), several
+     * continuations) get it too
+     */
+    static final long RESOLVED_EXCEPTION_TIME_TO_LIVE = TimeUnit.SECONDS.toNanos(5);
+    /**
+     * Exceptions stored to be get later, by key
+     */
+    private static final ConcurrentHashMap<String, StoredException> STORED_EXCEPTIONS = new ConcurrentHashMap<String, StoredException>();
+    /**
+     * Stored exceptions in storage order, to expire them
+     */
+    private static final Queue<StoredException> EXPIRATION_QUEUE = new ConcurrentLinkedQueue<StoredException>();
+    /**
+     * Number of exceptions currently stored
+     */
+    private static final AtomicInteger PENDING_COUNT = new AtomicInteger(0);
+    /**
+     * Number of exceptions stored since start
+     */
+    private static final AtomicLong STORED_COUNT = new AtomicLong(0);
+    /**
+     * Number of stored exceptions read at least once
+     */
+    private static final AtomicLong RESOLVED_COUNT = new AtomicLong(0);
+    /**
+     * Number of stored exceptions dropped without being read
+     */
+    private static final AtomicLong EXPIRED_COUNT = new AtomicLong(0);
+
+    /**
+     * Exception stored until read or expired
+     */
+    private static final class StoredException {
+        /**
+         * Key in {@link #STORED_EXCEPTIONS}
+         */
+        final String key;
+        /**
+         * Stored exception
+         */
+        final Exception exception;
+        /**
+         * Indicates if the exception has been read
+         */
+        final AtomicBoolean resolved = new AtomicBoolean(false);
+        /**
+         * Time (System.nanoTime) after which the exception can be dropped
+         */
+        volatile long deadline;
+
+        /**
+         * Create the entry.
+         *
+         * @param key       Exception key.
+         * @param exception Exception to store.
+         */
+        StoredException(final String key, final Exception exception) {
+            this.key = key;
+            this.exception = exception;
+            this.deadline = System.nanoTime() + NativeTools.STORED_EXCEPTION_TIME_TO_LIVE;
+        }
+    }
 
     /**
      * Get the real exception corresponding to given one.<br>
      * If the given exception have special message, we get our stored exception,
-     * else return the exception itself
+     * else return the exception itself.<br>
+     * A stored exception is consumed by its first read: it is only kept a short
+     * time after that, for other readers of the same failure.
      *
      * @param exception Exception to get its real version
      * @return Real exception
@@ -56,13 +131,18 @@ public class NativeTools {
         // /It is a managed exception, extract the key and get the associated
         // exception
         String key = message.substring(start, end + ERROR_MESSAGE_FOOTER.length());
-        Exception realException = ERRORS_MAP.get(key);
+        StoredException stored = STORED_EXCEPTIONS.get(key);
 
-        if (realException == null) {
+        if (stored == null) {
             return exception;
         }
 
-        return realException;
+        if (stored.resolved.compareAndSet(false, true)) {
+            RESOLVED_COUNT.incrementAndGet();
+            stored.deadline = Math.min(stored.deadline, System.nanoTime() + RESOLVED_EXCEPTION_TIME_TO_LIVE);
+        }
+
+        return stored.exception;
     }
 
     /**
@@ -73,12 +153,171 @@ public class NativeTools {
      */
     private static RuntimeException storeException(Exception exception) {
         String message = ERROR_MESSAGE_HEADER + NEXT_EXCEPTION_ID.getAndIncrement() + ERROR_MESSAGE_FOOTER;
-        ERRORS_MAP.put(message, exception);
+        StoredException stored = new StoredException(message, exception);
+        STORED_EXCEPTIONS.put(message, stored);
+        EXPIRATION_QUEUE.offer(stored);
+        PENDING_COUNT.incrementAndGet();
+        STORED_COUNT.incrementAndGet();
+        expireExceptions();
         return new RuntimeException(message+": "+exception.getMessage(), exception);
     }
 
     /**
-     * Call a Java method (Generally called from JNI)
+     * Drop stored exceptions that are too old, or the oldest ones if there
+     * are too many
+     */
+    private static void expireExceptions() {
+        final long now = System.nanoTime();
+        StoredException oldest;
+
+        while ((oldest = EXPIRATION_QUEUE.peek()) != null
+                && (PENDING_COUNT.get() > MAXIMUM_STORED_EXCEPTIONS || oldest.deadline - now < 0)) {
+            if (EXPIRATION_QUEUE.remove(oldest) && STORED_EXCEPTIONS.remove(oldest.key, oldest)) {
+                PENDING_COUNT.decrementAndGet();
+
+                if (!oldest.resolved.get()) {
+                    EXPIRED_COUNT.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of exceptions thrown by Java methods called from native, since
+     * start.
+     *
+     * @return Number of stored exceptions.
+     */
+    public static long getStoredExceptionCount() {
+        return STORED_COUNT.get();
+    }
+
+    /**
+     * Number of stored exceptions retrieved from a {@link Future}, since start.
+     *
+     * @return Number of resolved exceptions.
+     */
+    public static long getResolvedExceptionCount() {
+        return RESOLVED_COUNT.get();
+    }
+
+    /**
+     * Number of stored exceptions dropped, by age or because too many were
+     * stored, without having been retrieved, since start.
+     *
+     * @return Number of expired exceptions.
+     */
+    public static long getExpiredExceptionCount() {
+        return EXPIRED_COUNT.get();
+    }
+
+    /**
+     * Number of exceptions currently stored.
+     *
+     * @return Number of exceptions kept in memory.
+     */
+    public static int getPendingExceptionCount() {
+        return PENDING_COUNT.get();
+    }
+
+    /**
+     * Flatten a map in an array of its keys and values (Called from JNI).<br>
+     * The map is walked once with its entries iterator, so the native side
+     * gets all keys and values with a single call, instead of a
+     * {@code get(key)} call per key.<br>
+     * The map may change while it is walked (A concurrent map given by the
+     * user), so the array has the size of what the iterator gave, not of
+     * {@link Map#size()}.
+     *
+     * @param map Map to flatten.
+     * @return {@code [key0, value0, key1, value1, ...]}.
+     */
+    static Object[] mapToArray(final Map<?, ?> map) {
+        final List<Object> entries = new ArrayList<Object>(map.size() * 2);
+
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            entries.add(entry.getKey());
+            entries.add(entry.getValue());
+        }
+
+        return entries.toArray();
+    }
+
+    /**
+     * Create a list from a primitive array (Called from JNI).<br>
+     * The native side copies lists of numbers in a primitive array at once,
+     * the elements are boxed here, without a JNI call per element. Elements of
+     * a {@code byte[]} become {@link Integer}, like the other small integers
+     * received from libqi.
+     *
+     * @param array {@code int[]}, {@code long[]}, {@code float[]},
+     *              {@code double[]} or {@code byte[]}.
+     * @return Created list.
+     */
+    static ArrayList<Object> listFromArray(final Object array) {
+        if (array instanceof int[]) {
+            final int[] values = (int[]) array;
+            final ArrayList<Object> list = new ArrayList<Object>(values.length);
+
+            for (final int value : values) {
+                list.add(value);
+            }
+
+            return list;
+        }
+
+        if (array instanceof long[]) {
+            final long[] values = (long[]) array;
+            final ArrayList<Object> list = new ArrayList<Object>(values.length);
+
+            for (final long value : values) {
+                list.add(value);
+            }
+
+            return list;
+        }
+
+        if (array instanceof float[]) {
+            final float[] values = (float[]) array;
+            final ArrayList<Object> list = new ArrayList<Object>(values.length);
+
+            for (final float value : values) {
+                list.add(value);
+            }
+
+            return list;
+        }
+
+        if (array instanceof double[]) {
+            final double[] values = (double[]) array;
+            final ArrayList<Object> list = new ArrayList<Object>(values.length);
+
+            for (final double value : values) {
+                list.add(value);
+            }
+
+            return list;
+        }
+
+        if (array instanceof byte[]) {
+            final byte[] values = (byte[]) array;
+            final ArrayList<Object> list = new ArrayList<Object>(values.length);
+
+            for (final byte value : values) {
+                list.add((int) value);
+            }
+
+            return list;
+        }
+
+        throw new IllegalArgumentException("Not a supported primitive array: " + array);
+    }
+
+    /**
+     * Call a Java method (Generally called from JNI)<br>
+     * The target method is resolved once per class, name and signature, then
+     * reused from {@link MethodDispatchCache}. Methods advertised through
+     * {@link AdvertisedMethodInvoker} are called directly.
      *
      * @param instance      Instance on which the method is called.
      * @param methodName    Method name to call.
@@ -90,36 +329,21 @@ public class NativeTools {
                                   final Object[] arguments) {
         if (instance != null) {
             try {
-                MethodDescription methodDescription = MethodDescription.fromJNI(methodName, javaSignature);
-                Class<?> claz = instance.getClass();
-                Method method = null;
-                int distance = Integer.MAX_VALUE;
-                int dist;
-
-                for (Method meth : claz.getMethods()) {
-                    dist = methodDescription.distance(meth);
-
-                    if (dist < distance) {
-                        distance = dist;
-                        method = meth;
-                    }
+                if (instance instanceof AdvertisedMethodInvoker) {
+                    return ((AdvertisedMethodInvoker) instance).invoke(javaSignature, arguments);
                 }
 
-                if (method != null) {
-                    Class<?>[] parametersTarget = method.getParameterTypes();
-
-                    for (int index = arguments.length - 1; index >= 0; index--) {
-                        arguments[index] = SignatureUtilities.convert(arguments[index], parametersTarget[index]);
-                    }
+                final MethodDispatchCache.Dispatch dispatch = MethodDispatchCache.obtain(instance.getClass(), methodName,
+                        javaSignature);
 
-                    method.setAccessible(true);
-                    Object result = method.invoke(instance, arguments);
-                    Class<?> returnType = method.getReturnType();
+                if (dispatch != null) {
+                    dispatch.convertArguments(arguments);
+                    Object result = dispatch.method.invoke(instance, arguments);
 
-                    if (void.class.equals(returnType) || Void.class.equals(returnType))
+                    if (dispatch.returnsVoid)
                         return null;
 
-                    return SignatureUtilities.convertValueJavaToLibQI(result, methodDescription.getReturnType());
+                    return SignatureUtilities.convertValueJavaToLibQI(result, dispatch.returnType);
                 }
             } catch (InvocationTargetException invocationTargetException) {
                 // We are interested by the cause, because we want hide the
@@ -1,5 +1,7 @@
 package com.aldebaran.qi;
 
+import java.io.Closeable;
+
 /**
  * Promise is a writable, single assignment container which sets the value of
  * the {@link Future}.
@@ -22,7 +24,7 @@ package com.aldebaran.qi;
  *            The type of the result
  */
 
-public class Promise<T> {
+public class Promise<T> implements Closeable {
 
     // Loading QiMessaging JNI layer
     static {
@@ -43,8 +45,23 @@ public class Promise<T> {
         void onCancelRequested(Promise<T> promise);
     }
 
+    /**
+     * Native promises destruction
+     */
+    private static final NativeHandles.Type NATIVE_TYPE = new NativeHandles.Type(Promise.class) {
+        @Override
+        void destroy(final long pointer) {
+            Promise._destroyPromise(pointer);
+        }
+    };
+
     private long promisePtr;
 
+    /**
+     * Handle to release the native promise
+     */
+    private final NativeHandles.Handle handle;
+
     private Future<T> future;
 
     /**
@@ -55,6 +72,7 @@ public class Promise<T> {
      */
     public Promise(FutureCallbackType type) {
         this.promisePtr = this._newPromise(type.nativeValue);
+        this.handle = NativeHandles.register(this, this.promisePtr, Promise.NATIVE_TYPE);
         this.future = new Future<T>(this._getFuture(this.promisePtr));
         this.future.setDefaultFutureCallbackType(type);
     }
@@ -140,16 +158,14 @@ public class Promise<T> {
     }
 
     /**
-     * Called by garbage collector when object destroy.<br>
-     * Override to free the reference in JNI.
-     *
-     * @throws Throwable
-     *             On destruction issue.
+     * Release the native promise now instead of waiting the garbage
+     * collector.<br>
+     * If the promise is not set yet, its future will finish in error. This
+     * promise MUST NOT be used after this call, its future still can.
      */
     @Override
-    protected void finalize() throws Throwable {
-        this._destroyPromise(this.promisePtr);
-        super.finalize();
+    public void close() {
+        this.handle.release();
     }
 
     private native long _newPromise(int futureCallbackType);
@@ -170,5 +186,5 @@ public class Promise<T> {
      * @param promisePointer
      *            Pointer to destroy.
      */
-    private native void _destroyPromise(long promisePointer);
+    private static native void _destroyPromise(long promisePointer);
 }
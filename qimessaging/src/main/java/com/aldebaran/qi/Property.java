@@ -2,6 +2,8 @@ package com.aldebaran.qi;
 
 import com.aldebaran.qi.serialization.QiSerializer;
 
+import java.io.Closeable;
+
 /**
  * Represents a property from distant object or can be advertised
  *
@@ -10,7 +12,7 @@ import com.aldebaran.qi.serialization.QiSerializer;
  *    * One of default : Byte, Short, Int, Long, Float, Double, String, List, Map, Tuple, QiStruct.
  *    * Or managed by a {@link QiSerializer}.
  */
-public final class Property<T> {
+public final class Property<T> implements Closeable {
 
     static {
         // Loading native C++ libraries.
@@ -61,11 +63,22 @@ public final class Property<T> {
      * @param pointer
      *            Pointer on property to clean
      */
-    private native void destroy(long pointer);
+    private static native void destroy(long pointer);
+
+    /** Native properties destruction */
+    private static final NativeHandles.Type NATIVE_TYPE = new NativeHandles.Type(Property.class) {
+        @Override
+        void destroy(final long pointer) {
+            Property.destroy(pointer);
+        }
+    };
 
     /** Property pointer reference */
     final long pointer;
 
+    /** Handle to release the native property */
+    private final NativeHandles.Handle handle;
+
     /** Property value type */
     private final Class<T> valueClass;
 
@@ -82,6 +95,7 @@ public final class Property<T> {
     public Property(Class<T> valueClass) {
         this.valueClass = valueClass;
         this.pointer = createProperty(valueClass);
+        this.handle = NativeHandles.register(this, this.pointer, Property.NATIVE_TYPE);
     }
 
     /**
@@ -97,6 +111,7 @@ public final class Property<T> {
         //noinspection unchecked
         this.valueClass = (Class<T>) value.getClass();
         this.pointer = createPropertyWithValue(valueClass, value);
+        this.handle = NativeHandles.register(this, this.pointer, Property.NATIVE_TYPE);
     }
 
     /**
@@ -108,6 +123,7 @@ public final class Property<T> {
     public Property(Class<T> valueClass, T value) {
         this.valueClass = valueClass;
         this.pointer = createPropertyWithValue(valueClass, value);
+        this.handle = NativeHandles.register(this, this.pointer, Property.NATIVE_TYPE);
     }
 
     /**
@@ -183,14 +199,12 @@ public final class Property<T> {
     }
 
     /**
-     * Called by JVM when object is garbage collected
-     *
-     * @throws Throwable
-     *             On finalization issue
+     * Release the native property now instead of waiting the garbage
+     * collector.<br>
+     * This property MUST NOT be used after this call.
      */
     @Override
-    protected void finalize() throws Throwable {
-        this.destroy(this.pointer);
-        super.finalize();
+    public void close() {
+        this.handle.release();
     }
 }
@@ -0,0 +1,53 @@
+package com.aldebaran.qi;
+
+/**
+ * Connection of a {@link QiBatchSignalListener} to a signal. It is retrieved
+ * when calling
+ * {@link AnyObject#connect(String, QiBatchSignalListener, int, long, java.util.concurrent.TimeUnit)}.
+ * <br>
+ * Its counters tell how the listener keeps up with the signal: emissions are
+ * dropped, oldest first, when they accumulate beyond the capacity while the
+ * listener handles a batch.
+ *
+ * @see AnyObject
+ */
+public class QiBatchSignalConnection extends QiSignalConnection {
+    /**
+     * Receiver of the batches
+     */
+    private final SignalBatchDispatcher dispatcher;
+
+    QiBatchSignalConnection(AnyObject object, Future<Long> future, SignalBatchDispatcher dispatcher) {
+        super(object, future);
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Number of emissions delivered to the listener.
+     *
+     * @return Delivered emissions
+     */
+    public long getDeliveredCount() {
+        return this.dispatcher.deliveredCount.get();
+    }
+
+    /**
+     * Number of batches delivered to the listener.
+     *
+     * @return Delivered batches
+     */
+    public long getBatchCount() {
+        return this.dispatcher.batchCount.get();
+    }
+
+    /**
+     * Number of emissions dropped because they exceeded the capacity while
+     * the listener was busy.<br>
+     * Updated when the next batch is delivered.
+     *
+     * @return Dropped emissions
+     */
+    public long getDroppedCount() {
+        return this.dispatcher.droppedCount.get();
+    }
+}
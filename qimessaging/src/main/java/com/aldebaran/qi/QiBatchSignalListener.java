@@ -0,0 +1,24 @@
+package com.aldebaran.qi;
+
+import java.util.List;
+
+/**
+ * An implementation of this interface receives the emissions of a signal in
+ * batches, see
+ * {@link AnyObject#connect(String, QiBatchSignalListener, int, long, java.util.concurrent.TimeUnit)}.
+ * <br>
+ * Batches are delivered one at a time, in emission order. Receiving a batch
+ * costs a single call from native code, whatever its size, which suits high
+ * rate signals.
+ *
+ * @see QiBatchSignalConnection
+ * @see AnyObject
+ */
+public interface QiBatchSignalListener {
+    /**
+     * Called with the emissions received since the previous batch.
+     *
+     * @param emissions Arguments of each emission, in emission order
+     */
+    void onSignalsReceived(List<Object[]> emissions);
+}
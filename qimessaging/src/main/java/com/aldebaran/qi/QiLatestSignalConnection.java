@@ -0,0 +1,42 @@
+package com.aldebaran.qi;
+
+/**
+ * Connection of a {@link QiSignalListener} receiving only the newest emission
+ * of a signal. It is retrieved when calling
+ * {@link AnyObject#connectLatest(String, QiSignalListener, long, java.util.concurrent.TimeUnit)}.
+ * <br>
+ * Its counters tell how many emissions the listener skipped: an emission is
+ * coalesced when a newer one replaces it before delivery.
+ *
+ * @see AnyObject
+ */
+public class QiLatestSignalConnection extends QiSignalConnection {
+    /**
+     * Receiver of the emissions
+     */
+    private final SignalLatestDispatcher dispatcher;
+
+    QiLatestSignalConnection(AnyObject object, Future<Long> future, SignalLatestDispatcher dispatcher) {
+        super(object, future);
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Number of emissions delivered to the listener.
+     *
+     * @return Delivered emissions
+     */
+    public long getDeliveredCount() {
+        return this.dispatcher.deliveredCount.get();
+    }
+
+    /**
+     * Number of emissions replaced by a newer one before delivery.<br>
+     * Updated when the next emission is delivered.
+     *
+     * @return Coalesced emissions
+     */
+    public long getCoalescedCount() {
+        return this.dispatcher.coalescedCount.get();
+    }
+}
@@ -0,0 +1,187 @@
+package com.aldebaran.qi;
+
+import java.lang.reflect.Type;
+
+import com.aldebaran.qi.serialization.QiSerializer;
+import com.aldebaran.qi.serialization.SignatureUtilities;
+
+/**
+ * Emitter of a signal bound once to its libqi signal ID and argument types.
+ * It is retrieved when calling
+ * {@link AnyObject#signalEmitter(String, Type...)}.<br>
+ * Compared to {@link AnyObject#post(String, Object...)}, each emission skips
+ * the signal name lookup, and arguments of a type converted directly by
+ * native code (boolean, int, long, float, double and String) skip the
+ * serializer. The argument array is only copied if an argument has to be
+ * converted.<br>
+ * The types are checked against the signal signature when the emitter is
+ * created. Native code still converts each argument from its Java value on
+ * each emission: only the signal lookup and the serializer choice are bound
+ * once.<br>
+ * Fits signals emitted at high frequency, like sensor values.
+ *
+ * @see AnyObject
+ */
+public final class QiSignalEmitter {
+    /**
+     * Object emitting the signal
+     */
+    private final AnyObject object;
+    /**
+     * Serializer for arguments not converted directly
+     */
+    private final QiSerializer serializer;
+    /**
+     * Signal ID
+     */
+    private final int signalId;
+    /**
+     * Signal name, for error messages
+     */
+    private final String signalName;
+    /**
+     * Arguments types, primitives replaced by their Object type
+     */
+    private final Type[] types;
+    /**
+     * Indicates, by argument, if native code converts the argument directly
+     */
+    private final boolean[] direct;
+
+    QiSignalEmitter(final AnyObject object, final QiSerializer serializer, final int signalId,
+                    final String signalName, final Type... types) {
+        this.object = object;
+        this.serializer = serializer;
+        this.signalId = signalId;
+        this.signalName = signalName;
+        this.types = SignatureUtilities.convertNativeTypeToObjectType(types);
+        this.direct = new boolean[this.types.length];
+
+        for (int index = 0; index < this.types.length; index++) {
+            this.direct[index] = QiSignalEmitter.isDirect(this.types[index]);
+        }
+    }
+
+    /**
+     * Indicates if native code converts values of a type without serializer.
+     *
+     * @param type Type to check
+     * @return {@code true} if converted directly
+     */
+    private static boolean isDirect(final Type type) {
+        return Boolean.class.equals(type) || Integer.class.equals(type) || Long.class.equals(type)
+                || Float.class.equals(type) || Double.class.equals(type) || String.class.equals(type);
+    }
+
+    /**
+     * Libqi signature of the arguments, as far as they are known without
+     * serializer: arguments converted by the serializer are dynamic.
+     *
+     * @return Signature, like {@code "(im)"}
+     */
+    String signature() {
+        final StringBuilder signature = new StringBuilder("(");
+
+        for (int index = 0; index < this.types.length; index++) {
+            signature.append(this.direct[index] ? QiSignalEmitter.directSignature(this.types[index]) : "m");
+        }
+
+        return signature.append(')').toString();
+    }
+
+    /**
+     * Libqi signature of a type converted directly by native code.
+     *
+     * @param type Type converted directly
+     * @return Signature
+     */
+    private static String directSignature(final Type type) {
+        if (Boolean.class.equals(type)) {
+            return SignatureUtilities.BOOLEAN;
+        }
+
+        if (Integer.class.equals(type)) {
+            return SignatureUtilities.INTEGER;
+        }
+
+        if (Long.class.equals(type)) {
+            return SignatureUtilities.LONG;
+        }
+
+        if (Float.class.equals(type)) {
+            return SignatureUtilities.FLOAT;
+        }
+
+        if (Double.class.equals(type)) {
+            return SignatureUtilities.DOUBLE;
+        }
+
+        return SignatureUtilities.STRING;
+    }
+
+    /**
+     * Signal name.
+     *
+     * @return Signal name
+     */
+    public String getSignalName() {
+        return this.signalName;
+    }
+
+    /**
+     * Emit the signal.
+     *
+     * @param args Arguments, one per type given at creation
+     * @throws IllegalArgumentException If the number of arguments does not match
+     */
+    public void post(final Object... args) {
+        final int length = args == null ? 0 : args.length;
+
+        if (length != this.types.length) {
+            throw new IllegalArgumentException("Signal " + this.signalName + " expects " + this.types.length
+                    + " arguments, not " + length);
+        }
+
+        Object[] converted = args;
+
+        for (int index = 0; index < length; index++) {
+            final Object value = this.convert(index, args[index]);
+
+            if (value != args[index]) {
+                if (converted == args) {
+                    // Do not modify the caller array
+                    converted = args.clone();
+                }
+
+                converted[index] = value;
+            }
+        }
+
+        this.object.postById(this.signalId, converted == null ? new Object[0] : converted);
+    }
+
+    /**
+     * Convert an argument for native code.
+     *
+     * @param index Argument index
+     * @param value Argument value
+     * @return Converted value, the same instance if no conversion was needed
+     */
+    private Object convert(final int index, final Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        if (this.direct[index]) {
+            return SignatureUtilities.convertValueJavaToLibQI(value, this.types[index]);
+        }
+
+        try {
+            return this.serializer.serialize(value);
+        }
+        catch (final Exception exception) {
+            // Same fallback as AnyObject.post
+            return value;
+        }
+    }
+}
@@ -4,13 +4,15 @@
 */
 package com.aldebaran.qi;
 
+import java.io.Closeable;
+
 /**
  * Class responsible for initializing the qi framework, but without creating a
  * {@link Session}.
  *
  * @see Application
  */
-public class RawApplication {
+public class RawApplication implements Closeable {
 
     static {
         // Loading native C++ libraries.
@@ -27,10 +29,21 @@ public class RawApplication {
 
     private native void qiApplicationStop(long pApp);
 
-    private native void qiApplicationDestroy(long pApplication);
+    private static native void qiApplicationDestroy(long pApplication);
+
+    /**
+     * Native applications destruction
+     */
+    private static final NativeHandles.Type NATIVE_TYPE = new NativeHandles.Type(RawApplication.class) {
+        @Override
+        void destroy(final long pointer) {
+            RawApplication.qiApplicationDestroy(pointer);
+        }
+    };
 
     // Members
     private long _application;
+    private NativeHandles.Handle _handle;
 
     /**
      * RawApplication constructor.
@@ -41,6 +54,7 @@ public class RawApplication {
         if (args == null)
             throw new NullPointerException("Creating application with null args");
         _application = qiApplicationCreate(args);
+        _handle = NativeHandles.register(this, _application, RawApplication.NATIVE_TYPE);
     }
 
     /**
@@ -61,14 +75,12 @@ public class RawApplication {
     }
 
     /**
-     * Called by garbage collector when object destroy.<br>
-     * Override to free the reference in JNI.
-     *
-     * @throws Throwable On destruction issue.
+     * Destroy the native application now instead of waiting the garbage
+     * collector.<br>
+     * This application MUST NOT be used after this call.
      */
     @Override
-    protected void finalize() throws Throwable {
-        this.qiApplicationDestroy(this._application);
-        super.finalize();
+    public void close() {
+        this._handle.release();
     }
 }
@@ -0,0 +1,134 @@
+package com.aldebaran.qi;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Management of raw buffers (libqi signature "r") exchanged with libqi as
+ * {@link ByteBuffer}.<br>
+ * By default, each raw buffer received from libqi is copied in a new heap
+ * {@link ByteBuffer}.<br>
+ * In zero-copy mode, it is given as a read-only direct {@link ByteBuffer}
+ * viewing the native memory. The native buffer stays alive until the
+ * {@link ByteBuffer} is given to {@link #release(ByteBuffer)} or garbage
+ * collected. Releasing early is recommended for big buffers (like camera
+ * frames), since the garbage collector does not know the native memory
+ * size.<br>
+ * Sending such a {@link ByteBuffer} back to libqi does not copy it. Other
+ * direct buffers are copied once from their native memory.
+ */
+public final class RawBuffer {
+    // Loading QiMessaging JNI layer
+    static {
+        if (!EmbeddedTools.LOADED_EMBEDDED_LIBRARY) {
+            EmbeddedTools loader = new EmbeddedTools();
+            loader.loadEmbeddedLibraries();
+        }
+    }
+
+    /**
+     * Reference on a direct buffer, to release the native buffer when the
+     * direct buffer is garbage collected.
+     */
+    private static final class Handle extends PhantomReference<ByteBuffer> {
+        /**
+         * Native buffer ID
+         */
+        final long id;
+
+        /**
+         * Create the handle.
+         *
+         * @param buffer Direct buffer
+         * @param id     Native buffer ID
+         */
+        Handle(final ByteBuffer buffer, final long id) {
+            super(buffer, RawBuffer.QUEUE);
+            this.id = id;
+        }
+    }
+
+    /**
+     * Queue of handles whose direct buffer has been garbage collected
+     */
+    private static final ReferenceQueue<ByteBuffer> QUEUE = new ReferenceQueue<ByteBuffer>();
+    /**
+     * Handles on direct buffers alive (Keep them reachable until enqueued)
+     */
+    private static final Set<Handle> HANDLES = Collections.synchronizedSet(new HashSet<Handle>());
+
+    private static native void destroy(long id);
+
+    private static native void releaseDirectBuffer(ByteBuffer buffer);
+
+    /**
+     * Enable or disable the zero-copy mode for raw buffers received from
+     * libqi.
+     *
+     * @param zeroCopy {@code true} to receive direct buffers on native memory.
+     */
+    public static native void setZeroCopy(boolean zeroCopy);
+
+    /**
+     * Indicates if zero-copy mode is enabled.
+     *
+     * @return {@code true} if zero-copy mode is enabled.
+     */
+    public static native boolean isZeroCopy();
+
+    /**
+     * Number of native buffers currently viewed by Java direct buffers.
+     *
+     * @return Number of native buffers alive.
+     */
+    public static native int getLiveBufferCount();
+
+    /**
+     * Release the native buffer viewed by a direct buffer received in
+     * zero-copy mode.<br>
+     * The given buffer MUST NOT be used after this call. Does nothing for
+     * other buffers.
+     *
+     * @param buffer Buffer to release.
+     */
+    public static void release(final ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect()) {
+            RawBuffer.releaseDirectBuffer(buffer);
+        }
+
+        RawBuffer.releaseCollected();
+    }
+
+    /**
+     * Called from native when a direct buffer is created.
+     *
+     * @param buffer Created direct buffer.
+     * @param id     Native buffer ID.
+     */
+    static void track(final ByteBuffer buffer, final long id) {
+        RawBuffer.releaseCollected();
+        RawBuffer.HANDLES.add(new Handle(buffer, id));
+    }
+
+    /**
+     * Release native buffers whose direct buffer has been garbage collected.
+     */
+    private static void releaseCollected() {
+        Handle handle;
+
+        while ((handle = (Handle) RawBuffer.QUEUE.poll()) != null) {
+            RawBuffer.HANDLES.remove(handle);
+            RawBuffer.destroy(handle.id);
+        }
+    }
+
+    /**
+     * Utility class.
+     */
+    private RawBuffer() {
+    }
+}
@@ -4,6 +4,8 @@
 */
 package com.aldebaran.qi;
 
+import java.io.Closeable;
+
 /**
  * Class responsible for the administration of the available services in a
  * {@link Session}.
@@ -14,7 +16,7 @@ package com.aldebaran.qi;
  *
  * @see Session
  */
-public class ServiceDirectory {
+public class ServiceDirectory implements Closeable {
 
     static {
         // Loading native C++ libraries.
@@ -27,29 +29,45 @@ public class ServiceDirectory {
     // Native function
     private native long qiTestSDCreate();
 
-    private native void qiTestSDDestroy(long pServiceDirectory);
+    private static native void qiTestSDDestroy(long pServiceDirectory);
 
     private native String qiListenUrl(long pServiceDirectory);
 
     private native void qiTestSDClose(long pServiceDirectory);
 
+    /**
+     * Native service directories destruction
+     */
+    private static final NativeHandles.Type NATIVE_TYPE = new NativeHandles.Type(ServiceDirectory.class) {
+        @Override
+        void destroy(final long pointer) {
+            ServiceDirectory.qiTestSDDestroy(pointer);
+        }
+    };
+
     // Members
     private long _sd;
+    private NativeHandles.Handle _handle;
 
     public ServiceDirectory() {
         _sd = qiTestSDCreate();
+        _handle = NativeHandles.register(this, _sd, ServiceDirectory.NATIVE_TYPE);
     }
 
     public String listenUrl() {
         return qiListenUrl(_sd);
     }
 
+    /**
+     * Close the service directory and destroy it now instead of waiting the
+     * garbage collector.<br>
+     * This service directory MUST NOT be used after this call.
+     */
     @Override
-    protected void finalize() {
-        qiTestSDDestroy(_sd);
-    }
-
     public void close() {
-        qiTestSDClose(_sd);
+        if (!_handle.isReleased()) {
+            qiTestSDClose(_sd);
+            _handle.release();
+        }
     }
 }
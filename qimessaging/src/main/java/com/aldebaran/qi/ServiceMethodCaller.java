@@ -0,0 +1,184 @@
+package com.aldebaran.qi;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import com.aldebaran.qi.serialization.QiSerializer;
+import com.aldebaran.qi.serialization.SignatureUtilities;
+
+/**
+ * Handle calls to a remote service through a Java interface. See
+ * {@link Session#service(String, Class)}<br>
+ * Each interface method is bound to a libqi method ID when the proxy is
+ * created. Calls then go straight to this method, without name lookup nor
+ * overload resolution.<br>
+ * Methods returning a {@link Future} get the libqi future directly, the
+ * others wait for the result.
+ *
+ * @param <INTERFACE> Interface type mapped
+ */
+class ServiceMethodCaller<INTERFACE> implements InvocationHandler {
+    /**
+     * Interface method bound to a service method
+     */
+    private static final class BoundMethod {
+        /**
+         * Service method ID
+         */
+        final int methodId;
+        /**
+         * Parameters types, primitives replaced by their Object type
+         */
+        final Type[] parametersTypes;
+        /**
+         * Indicates if the method returns a {@link Future}
+         */
+        final boolean returnsFuture;
+        /**
+         * Type of the value to get from libqi: the method return type, or the
+         * future value type if the method returns a {@link Future}
+         */
+        final Type valueType;
+
+        BoundMethod(final int methodId, final Method method) {
+            this.methodId = methodId;
+            this.parametersTypes = SignatureUtilities.convertNativeTypeToObjectType(method.getGenericParameterTypes());
+            this.returnsFuture = Future.class.isAssignableFrom(method.getReturnType());
+
+            if (this.returnsFuture) {
+                final Type returnType = method.getGenericReturnType();
+                this.valueType = returnType instanceof ParameterizedType
+                        ? ((ParameterizedType) returnType).getActualTypeArguments()[0]
+                        : Object.class;
+            }
+            else {
+                this.valueType = SignatureUtilities.convertNativeTypeToObjectType(method.getGenericReturnType());
+            }
+        }
+    }
+
+    /**
+     * Remote service
+     */
+    private final AnyObject service;
+    /**
+     * Serializer to use
+     */
+    private final QiSerializer serializer;
+    /**
+     * Bound methods (Only read after construction)
+     */
+    private final Map<Method, BoundMethod> boundMethods = new HashMap<Method, BoundMethod>();
+
+    /**
+     * Create the handler and bind each interface method.
+     *
+     * @param serializer     Serializer to use
+     * @param service        Remote service
+     * @param interfaceClass Interface to bind
+     * @throws DynamicCallException If a method of the interface is not found in the service
+     */
+    private ServiceMethodCaller(final QiSerializer serializer, final AnyObject service,
+                                final Class<INTERFACE> interfaceClass) {
+        this.serializer = serializer;
+        this.service = service;
+
+        for (final Method method : interfaceClass.getMethods()) {
+            final String parametersSignature = SignatureUtilities.computeParametersSignature(method);
+            final int methodId;
+
+            try {
+                methodId = service.methodId(method.getName(), parametersSignature);
+            }
+            catch (final DynamicCallException exception) {
+                throw new DynamicCallException("Method " + method.getName() + "::" + parametersSignature
+                        + " of " + interfaceClass.getName() + " not found in the service: "
+                        + exception.getMessage());
+            }
+
+            this.boundMethods.put(method, new BoundMethod(methodId, method));
+        }
+    }
+
+    /**
+     * Create a proxy implementing an interface by calling a remote service.
+     *
+     * @param serializer     Serializer to use
+     * @param service        Remote service
+     * @param interfaceClass Interface to implement
+     * @param <INTERFACE>    Interface type
+     * @return Created proxy
+     * @throws DynamicCallException If a method of the interface is not found in the service
+     */
+    @SuppressWarnings("unchecked")
+    static <INTERFACE> INTERFACE createProxy(final QiSerializer serializer, final AnyObject service,
+                                             final Class<INTERFACE> interfaceClass) {
+        if (!interfaceClass.isInterface()) {
+            throw new IllegalArgumentException(interfaceClass.getName() + " is not an interface!");
+        }
+
+        return (INTERFACE) Proxy.newProxyInstance(interfaceClass.getClassLoader(), new Class<?>[] { interfaceClass },
+                new ServiceMethodCaller<INTERFACE>(serializer, service, interfaceClass));
+    }
+
+    /**
+     * Called when a method is called.
+     *
+     * @param proxy      Proxy instance
+     * @param method     Method called
+     * @param parameters Method parameters
+     * @return Method result
+     */
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] parameters) throws Throwable {
+        final BoundMethod boundMethod = this.boundMethods.get(method);
+
+        if (boundMethod == null) {
+            // Methods of Object
+            if ("equals".equals(method.getName())) {
+                return proxy == parameters[0];
+            }
+
+            if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+
+            if ("toString".equals(method.getName())) {
+                return "Proxy on " + this.service;
+            }
+
+            throw new UnsupportedOperationException(method.toString());
+        }
+
+        final int length = parameters == null ? 0 : parameters.length;
+        final Object[] values = new Object[length];
+
+        for (int i = 0; i < length; i++) {
+            values[i] = SignatureUtilities.convertValueJavaToLibQI(parameters[i], boundMethod.parametersTypes[i]);
+        }
+
+        final Future<Object> future = this.service.call(this.serializer, boundMethod.valueType, boundMethod.methodId,
+                values);
+
+        if (boundMethod.returnsFuture) {
+            return future;
+        }
+
+        try {
+            return future.get();
+        }
+        catch (ExecutionException exception) {
+            if (exception.getCause() != null) {
+                throw exception.getCause();
+            }
+
+            throw exception;
+        }
+    }
+}
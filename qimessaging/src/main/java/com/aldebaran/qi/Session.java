@@ -6,6 +6,11 @@ package com.aldebaran.qi;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.aldebaran.qi.serialization.QiSerializer;
 
 /**
  * Class that allows using the messaging layer: it is responsible for connecting
@@ -76,7 +81,22 @@ public class Session {
     private final long _session;
     private final boolean _destroy;
 
-    private List<ConnectionListener> listeners;
+    /**
+     * Connection listeners, copied on write so that events are dispatched
+     * without lock
+     */
+    private final List<ConnectionListener> listeners = new CopyOnWriteArrayList<ConnectionListener>();
+    /**
+     * Indicates if the dispatcher of the listeners is registered to the
+     * native session
+     */
+    private final AtomicBoolean listenersRegistered = new AtomicBoolean(false);
+
+    /**
+     * Executor of the continuations of the futures given by this session,
+     * {@code null} to run them on libqi threads
+     */
+    private volatile Executor defaultExecutor;
 
     /**
      * Create a qimessaging session.
@@ -109,7 +129,7 @@ public class Session {
      */
     public Future<Void> connect(String serviceDirectoryAddress) {
         long pFuture = qiSessionConnect(_session, serviceDirectoryAddress);
-        return new Future<Void>(pFuture);
+        return this.<Void>future(pFuture);
     }
 
     /**
@@ -120,7 +140,59 @@ public class Session {
      */
     public Future<AnyObject> service(String name) {
         long pFuture = service(_session, name);
-        return new Future<AnyObject>(pFuture);
+        final Future<AnyObject> future = this.<AnyObject>future(pFuture);
+        final Executor executor = this.defaultExecutor;
+
+        if (executor == null) {
+            return future;
+        }
+
+        // The futures of the service calls also run their continuations on
+        // the default executor
+        return future.andThenApply(new Function<AnyObject, AnyObject>() {
+            @Override
+            public AnyObject execute(final AnyObject service) {
+                service.setDefaultExecutor(executor);
+                return service;
+            }
+        });
+    }
+
+    /**
+     * Ask for remote service to Service Directory, and give it as an
+     * implementation of a Java interface.<br>
+     * Each interface method is bound once to the service method with the same
+     * name and parameters signature, so calls do not look for the method
+     * again. Methods returning a {@link Future} do not block.
+     *
+     * @param name           Name of service.
+     * @param interfaceClass Interface implemented by the service.
+     * @param <INTERFACE>    Interface type.
+     * @return the future of the proxy. It fails with {@link DynamicCallException}
+     * if a method of the interface is not found in the service.
+     */
+    public <INTERFACE> Future<INTERFACE> service(String name, Class<INTERFACE> interfaceClass) {
+        return service(QiSerializer.getDefault(), name, interfaceClass);
+    }
+
+    /**
+     * Ask for remote service to Service Directory, and give it as an
+     * implementation of a Java interface. See {@link #service(String, Class)}
+     *
+     * @param serializer     Serializer to convert arguments and results.
+     * @param name           Name of service.
+     * @param interfaceClass Interface implemented by the service.
+     * @param <INTERFACE>    Interface type.
+     * @return the future of the proxy.
+     */
+    public <INTERFACE> Future<INTERFACE> service(final QiSerializer serializer, String name,
+                                                 final Class<INTERFACE> interfaceClass) {
+        return service(name).andThenApply(new Function<AnyObject, INTERFACE>() {
+            @Override
+            public INTERFACE execute(AnyObject service) throws Throwable {
+                return ServiceMethodCaller.createProxy(serializer, service, interfaceClass);
+            }
+        });
     }
 
     /**
@@ -130,7 +202,7 @@ public class Session {
      */
     public Future<Void> close() {
         final long pFuture = qiSessionClose(this._session);
-        return new Future<Void>(pFuture);
+        return this.<Void>future(pFuture);
     }
 
     /**
@@ -164,7 +236,7 @@ public class Session {
      */
     public Future<Void> unregisterService(int idx) {
         final long pFuture = unregisterService(this._session, idx);
-        return new Future<Void>(pFuture);
+        return this.<Void>future(pFuture);
     }
 
     @Deprecated
@@ -172,16 +244,16 @@ public class Session {
         onDisconnected(_session, callback, object);
     }
 
-    public synchronized void addConnectionListener(ConnectionListener listener) {
-        initializeListeners();
+    public void addConnectionListener(ConnectionListener listener) {
         listeners.add(listener);
+        initializeListeners();
     }
 
-    public synchronized void removeConnectionListener(ConnectionListener listener) {
+    public void removeConnectionListener(ConnectionListener listener) {
         listeners.remove(listener);
     }
 
-    private synchronized void fireConnected() {
+    private void fireConnected() {
         for (ConnectionListener listener : listeners) {
             try {
                 listener.onConnected();
@@ -192,7 +264,7 @@ public class Session {
         }
     }
 
-    private synchronized void fireDisconnected(String reason) {
+    private void fireDisconnected(String reason) {
         for (ConnectionListener listener : listeners) {
             try {
                 listener.onDisconnected(reason);
@@ -204,10 +276,9 @@ public class Session {
     }
 
     private void initializeListeners() {
-        if (listeners != null)
+        if (!listenersRegistered.compareAndSet(false, true))
             return;
 
-        listeners = new ArrayList<ConnectionListener>();
         // register only 1 listener to the native part, and dispatch to local
         // listeners
         addConnectionListener(_session, new ConnectionListener() {
@@ -260,6 +331,47 @@ public class Session {
      */
     public Future<Void> waitForService(String serviceName) {
         final long pFuture = this.waitForService(this._session, serviceName);
-        return new Future<Void>(pFuture);
+        return this.<Void>future(pFuture);
+    }
+
+    /**
+     * Change the executor running the continuations of the futures given by
+     * this session ({@link Future#andThenApply(Function)},
+     * {@link Future#thenApply(Function)}, ...) and of the futures they
+     * create.<br>
+     * This keeps slow user callbacks away from libqi threads, which also
+     * handle the network.<br>
+     * The services obtained afterwards with {@link #service(String)} give
+     * their call and property futures the same executor.
+     *
+     * @param defaultExecutor Executor to use, {@code null} to run the
+     *                        continuations on libqi threads (The default)
+     */
+    public void setDefaultExecutor(final Executor defaultExecutor) {
+        this.defaultExecutor = defaultExecutor;
+    }
+
+    /**
+     * Executor running the continuations of the futures given by this
+     * session.
+     *
+     * @return Default executor, {@code null} if continuations run on libqi
+     * threads
+     */
+    public Executor getDefaultExecutor() {
+        return this.defaultExecutor;
+    }
+
+    /**
+     * Wrap a native future given by this session.
+     *
+     * @param pFuture Native future pointer
+     * @param <T>     Value type
+     * @return Created future
+     */
+    private <T> Future<T> future(final long pFuture) {
+        final Future<T> future = new Future<T>(pFuture);
+        future.setDefaultExecutor(this.defaultExecutor);
+        return future;
     }
 }
@@ -0,0 +1,51 @@
+package com.aldebaran.qi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receives the batches of a signal from native code, counts them and gives
+ * them to the {@link QiBatchSignalListener}.
+ */
+final class SignalBatchDispatcher {
+    /**
+     * Listener to call
+     */
+    private final QiBatchSignalListener listener;
+    /**
+     * Number of emissions delivered
+     */
+    final AtomicLong deliveredCount = new AtomicLong(0);
+    /**
+     * Number of batches delivered
+     */
+    final AtomicLong batchCount = new AtomicLong(0);
+    /**
+     * Number of emissions dropped because the listener was too slow
+     */
+    final AtomicLong droppedCount = new AtomicLong(0);
+
+    SignalBatchDispatcher(final QiBatchSignalListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Called by native code with a batch of emissions.
+     *
+     * @param emissions Arguments of each emission, each one an {@code Object[]}
+     * @param dropped   Number of emissions dropped since the previous batch
+     */
+    void deliver(final Object[] emissions, final long dropped) {
+        this.droppedCount.addAndGet(dropped);
+        this.deliveredCount.addAndGet(emissions.length);
+        this.batchCount.incrementAndGet();
+        final List<Object[]> list = new ArrayList<Object[]>(emissions.length);
+
+        for (final Object emission : emissions) {
+            list.add((Object[]) emission);
+        }
+
+        this.listener.onSignalsReceived(list);
+    }
+}
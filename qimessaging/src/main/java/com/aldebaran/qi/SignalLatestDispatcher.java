@@ -0,0 +1,38 @@
+package com.aldebaran.qi;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Receives the newest emission of a signal from native code, counts it and
+ * gives it to the {@link QiSignalListener}.
+ */
+final class SignalLatestDispatcher {
+    /**
+     * Listener to call
+     */
+    private final QiSignalListener listener;
+    /**
+     * Number of emissions delivered
+     */
+    final AtomicLong deliveredCount = new AtomicLong(0);
+    /**
+     * Number of emissions replaced by a newer one before delivery
+     */
+    final AtomicLong coalescedCount = new AtomicLong(0);
+
+    SignalLatestDispatcher(final QiSignalListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Called by native code with the newest emission.
+     *
+     * @param args      Arguments of the emission
+     * @param coalesced Number of emissions replaced since the previous delivery
+     */
+    void deliver(final Object[] args, final long coalesced) {
+        this.coalescedCount.addAndGet(coalesced);
+        this.deliveredCount.incrementAndGet();
+        this.listener.onSignalReceived(args);
+    }
+}
@@ -0,0 +1,209 @@
+package com.aldebaran.qi.log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatch logs to the {@link LogCatcher}s from a dedicated thread, see
+ * {@link LogReport#startAsynchronousDispatch(int)}.<br>
+ * Logs are stored in a fixed size ring buffer. Logging threads claim a slot
+ * with a compare and set, and never wait: when the buffer is full, the log is
+ * dropped and counted. The dispatch thread is the only reader.
+ */
+final class AsyncLogDispatcher implements Runnable {
+    /**
+     * Log waiting for dispatch
+     */
+    private static final class Entry {
+        final LogLevel logLevel;
+        final String message;
+
+        Entry(final LogLevel logLevel, final String message) {
+            this.logLevel = logLevel;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Marks a slot taken back by its producer, see {@link #offer(LogLevel, String)}
+     */
+    private static final Entry SKIPPED = new Entry(null, null);
+
+    /**
+     * Maximum capacity: the largest power of 2 an int holds
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Maximum time the dispatch thread sleeps before checking again the
+     * buffer, in case a wake up is missed
+     */
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Ring buffer, its length is a power of 2
+     */
+    private final AtomicReferenceArray<Entry> slots;
+    /**
+     * Mask to get a slot index from a sequence
+     */
+    private final int mask;
+    /**
+     * Sequence of the next slot to write
+     */
+    private final AtomicLong claimed = new AtomicLong(0);
+    /**
+     * Sequence of the next slot to read, only written by the dispatch thread
+     */
+    private volatile long consumed = 0;
+    /**
+     * Number of logs dropped because the buffer was full
+     */
+    final AtomicLong droppedCount = new AtomicLong(0);
+    /**
+     * Indicates if the dispatch thread waits for logs
+     */
+    private volatile boolean waiting = false;
+    /**
+     * Indicates if the dispatcher accepts logs
+     */
+    private volatile boolean running = true;
+    /**
+     * Dispatch thread
+     */
+    private final Thread thread;
+
+    /**
+     * Create and start the dispatcher.
+     *
+     * @param capacity Minimum number of logs the buffer can hold, at most
+     *                 {@link #MAX_CAPACITY}
+     */
+    AsyncLogDispatcher(final int capacity) {
+        int length = 1;
+
+        while (length < capacity) {
+            length <<= 1;
+        }
+
+        this.slots = new AtomicReferenceArray<Entry>(length);
+        this.mask = length - 1;
+        this.thread = new Thread(this, "qi-log-dispatcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Store a log for dispatch, or drop it if the buffer is full. Never
+     * blocks.
+     *
+     * @param logLevel Log level
+     * @param message  Log message
+     * @return {@code false} if the dispatcher is stopped (Even while this
+     * call stores the log), the caller has then to dispatch the log itself
+     */
+    boolean offer(final LogLevel logLevel, final String message) {
+        if (!this.running) {
+            return false;
+        }
+
+        final Entry entry = new Entry(logLevel, message);
+
+        while (true) {
+            final long sequence = this.claimed.get();
+
+            if (sequence - this.consumed >= this.slots.length()) {
+                this.droppedCount.incrementAndGet();
+                return true;
+            }
+
+            if (this.claimed.compareAndSet(sequence, sequence + 1)) {
+                final int index = (int) sequence & this.mask;
+                this.slots.set(index, entry);
+
+                if (!this.running && this.slots.compareAndSet(index, entry, AsyncLogDispatcher.SKIPPED)) {
+                    // Stopped meanwhile: the dispatch thread may be gone
+                    // already. The log is taken back for the caller
+                    return false;
+                }
+
+                if (this.waiting) {
+                    LockSupport.unpark(this.thread);
+                }
+
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Stop accepting logs, and wait the dispatch of the stored ones.
+     */
+    void stop() {
+        this.running = false;
+        LockSupport.unpark(this.thread);
+
+        if (Thread.currentThread() == this.thread) {
+            // Stopped by a log catcher
+            return;
+        }
+
+        boolean interrupted = false;
+
+        while (this.thread.isAlive()) {
+            try {
+                this.thread.join();
+            }
+            catch (final InterruptedException exception) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Dispatch loop
+     */
+    @Override
+    public void run() {
+        while (true) {
+            final int index = (int) this.consumed & this.mask;
+            Entry entry = this.slots.get(index);
+
+            if (entry == null) {
+                if (!this.running && this.consumed == this.claimed.get()) {
+                    return;
+                }
+
+                this.waiting = true;
+                entry = this.slots.get(index);
+
+                if (entry == null) {
+                    // A claimed slot may not be written yet: check again soon
+                    LockSupport.parkNanos(this, AsyncLogDispatcher.PARK_NANOS);
+                    this.waiting = false;
+                    continue;
+                }
+
+                this.waiting = false;
+            }
+
+            if (!this.slots.compareAndSet(index, entry, null)) {
+                // Taken back by its producer
+                continue;
+            }
+
+            // Only this thread writes consumed
+            this.consumed = this.consumed + 1;
+
+            if (entry != AsyncLogDispatcher.SKIPPED) {
+                LogReport.dispatch(entry.logLevel, entry.message);
+            }
+        }
+    }
+}
@@ -10,7 +10,8 @@ public interface LogCatcher {
      * for.</br>
      * Don't do long operation inside this method. It may called from JNI C
      * side, and it is not a good idea to block it for long time. The system may
-     * crash.
+     * crash. For slow catchers, see
+     * {@link LogReport#startAsynchronousDispatch(int)}.
      *
      * @param logLevel
      *            Log level
@@ -6,13 +6,92 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Capture log and permits to report them to a {@link LogCatcher}
+ * Capture log and permits to report them to a {@link LogCatcher}.<br>
+ * Logs are dispatched without lock: registrations publish a copy of the
+ * catchers by level. By default catchers are called on the logging thread,
+ * see {@link #startAsynchronousDispatch(int)} to call them from a dedicated
+ * thread.<br>
+ * Native logs only cross into Java for the levels having catchers.
  */
 public class LogReport {
     /** Registered log catchers */
     private static final Map<LogLevel, List<LogCatcher>> CATCHERS = new HashMap<LogLevel, List<LogCatcher>>();
-    /** Synchronization lock */
+    /** Synchronization lock, for registrations */
     private static final Object LOCK = new Object();
+    /** Registered log catchers, by log level ordinal. Replaced on each registration change */
+    private static volatile LogCatcher[][] catchersByLevel = new LogCatcher[LogLevel.values().length][0];
+    /** Asynchronous dispatcher, {@code null} if logs are dispatched on the logging thread */
+    private static volatile AsyncLogDispatcher asyncDispatcher;
+    /** Number of logs dropped by stopped asynchronous dispatchers */
+    private static long droppedBefore = 0;
+    /**
+     * Indicates if the native log handler is initialized and must be told
+     * the levels having catchers. Guarded by LogReport.LOCK
+     */
+    private static boolean nativeHandlerReady = false;
+
+    /**
+     * Tell the native log handler which levels have catchers, one bit per
+     * {@link LogLevel#level()}. Logs of other levels are not forwarded to
+     * Java.
+     *
+     * @param mask
+     *            Levels having catchers
+     */
+    private static native void setNativeLevelMask(int mask);
+
+    /**
+     * Compute the levels having catchers, one bit per
+     * {@link LogLevel#level()}.
+     *
+     * @return Levels having catchers
+     */
+    static int levelMask() {
+        synchronized (LogReport.LOCK) {
+            int mask = 0;
+
+            for (final LogLevel logLevel : LogReport.CATCHERS.keySet()) {
+                mask |= 1 << logLevel.level();
+            }
+
+            return mask;
+        }
+    }
+
+    /**
+     * Publish the registered catchers for dispatch.</br>
+     * Must be called inside a "synchronized (LogReport.LOCK)" block
+     */
+    private static void publishCatchers() {
+        final LogLevel[] logLevels = LogLevel.values();
+        final LogCatcher[][] catchers = new LogCatcher[logLevels.length][];
+
+        for (final LogLevel logLevel : logLevels) {
+            final List<LogCatcher> logCatchersList = LogReport.CATCHERS.get(logLevel);
+            catchers[logLevel.ordinal()] = logCatchersList == null
+                    ? new LogCatcher[0]
+                    : logCatchersList.toArray(new LogCatcher[logCatchersList.size()]);
+        }
+
+        LogReport.catchersByLevel = catchers;
+
+        if (LogReport.nativeHandlerReady) {
+            LogReport.setNativeLevelMask(LogReport.levelMask());
+        }
+    }
+
+    /**
+     * Called by JNI C side when its log handler is initialized. Push the
+     * levels having catchers, and from now on the registration changes.<br>
+     * The levels are pushed under the lock, so that a concurrent registration
+     * cannot be overwritten by an older mask.
+     */
+    static void jniReady() {
+        synchronized (LogReport.LOCK) {
+            LogReport.nativeHandlerReady = true;
+            LogReport.setNativeLevelMask(LogReport.levelMask());
+        }
+    }
 
     /**
      * Internal register a {@link LogCatcher} for a log level.</br>
@@ -66,7 +145,8 @@ public class LogReport {
     }
 
     /**
-     * Fire log to all concerned {@link LogCatcher}
+     * Fire log to all concerned {@link LogCatcher}, directly or through the
+     * asynchronous dispatcher
      *
      * @param logLevel
      *            Log level
@@ -77,23 +157,112 @@ public class LogReport {
         assert logLevel != null : "logLevel must not be null!";
         assert message != null : "message must not be null!";
 
+        if (LogReport.catchersByLevel[logLevel.ordinal()].length == 0) {
+            return;
+        }
+
+        final AsyncLogDispatcher dispatcher = LogReport.asyncDispatcher;
+
+        if (dispatcher == null || !dispatcher.offer(logLevel, message)) {
+            LogReport.dispatch(logLevel, message);
+        }
+    }
+
+    /**
+     * Call the {@link LogCatcher}s registered for a log level
+     *
+     * @param logLevel
+     *            Log level
+     * @param message
+     *            Log message
+     */
+    static void dispatch(final LogLevel logLevel, final String message) {
+        for (final LogCatcher logCatcher : LogReport.catchersByLevel[logLevel.ordinal()]) {
+            // Since it may be called from JNI C context we can't allow
+            // exception happen here, so we capture it
+            try {
+                logCatcher.log(logLevel, message);
+            }
+            catch (final Throwable throwable) {
+                System.err.println("/!\\ Issue while report log inside : " + logCatcher.getClass().getName());
+                throwable.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Call the {@link LogCatcher}s from a dedicated thread instead of the
+     * logging thread.</br>
+     * Logs are stored in a ring buffer of the given capacity. When
+     * {@link LogCatcher}s are too slow and the buffer is full, new logs are
+     * dropped instead of blocking the logging threads, see
+     * {@link #getDroppedLogCount()}.</br>
+     * If asynchronous dispatch is already started, it is restarted with the
+     * new capacity.
+     *
+     * @param capacity
+     *            Number of logs the buffer can hold, at most 2<sup>30</sup>
+     * @throws IllegalArgumentException
+     *             If <b>capacity</b> is not positive or exceeds
+     *             2<sup>30</sup>
+     */
+    public static void startAsynchronousDispatch(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive!");
+        }
+
+        if (capacity > AsyncLogDispatcher.MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must not exceed " + AsyncLogDispatcher.MAX_CAPACITY + "!");
+        }
+
+        final AsyncLogDispatcher previous;
+
         synchronized (LogReport.LOCK) {
-            final List<LogCatcher> logCatchersList = LogReport.CATCHERS.get(logLevel);
+            previous = LogReport.asyncDispatcher;
+            LogReport.asyncDispatcher = new AsyncLogDispatcher(capacity);
 
-            if (logCatchersList != null) {
-                for (LogCatcher logCatcher : logCatchersList) {
-                    // Since it may be called from JNI C context we can't allow
-                    // exception happen here, so we capture it
-                    try {
-                        logCatcher.log(logLevel, message);
-                    }
-                    catch (final Throwable throwable) {
-                        System.err.println("/!\\ Issue while report log inside : " + logCatcher.getClass().getName());
-                        throwable.printStackTrace();
-                    }
-                }
+            if (previous != null) {
+                LogReport.droppedBefore += previous.droppedCount.get();
             }
         }
+
+        if (previous != null) {
+            previous.stop();
+        }
+    }
+
+    /**
+     * Go back to calling the {@link LogCatcher}s on the logging thread.</br>
+     * Logs stored by the asynchronous dispatch are dispatched before return.
+     */
+    public static void stopAsynchronousDispatch() {
+        final AsyncLogDispatcher previous;
+
+        synchronized (LogReport.LOCK) {
+            previous = LogReport.asyncDispatcher;
+            LogReport.asyncDispatcher = null;
+
+            if (previous != null) {
+                LogReport.droppedBefore += previous.droppedCount.get();
+            }
+        }
+
+        if (previous != null) {
+            previous.stop();
+        }
+    }
+
+    /**
+     * Number of logs dropped by the asynchronous dispatch because the buffer
+     * was full.
+     *
+     * @return Dropped logs
+     */
+    public static long getDroppedLogCount() {
+        synchronized (LogReport.LOCK) {
+            final AsyncLogDispatcher dispatcher = LogReport.asyncDispatcher;
+            return LogReport.droppedBefore + (dispatcher == null ? 0 : dispatcher.droppedCount.get());
+        }
     }
 
     /**
@@ -128,6 +297,8 @@ public class LogReport {
 
                 LogReport.registerOneLevel(logCatcher, logLevel);
             }
+
+            LogReport.publishCatchers();
         }
     }
 
@@ -166,6 +337,8 @@ public class LogReport {
                 LogReport.registerOneLevel(logCatcher, logLevel);
                 logLevel = logLevel.moreImportant();
             }
+
+            LogReport.publishCatchers();
         }
     }
 
@@ -198,6 +371,8 @@ public class LogReport {
 
                 LogReport.unregisterOneLevel(logCatcher, logLevel);
             }
+
+            LogReport.publishCatchers();
         }
     }
 
@@ -241,6 +416,8 @@ public class LogReport {
                 logLevel = logLevel.lessImportant();
             }
             while (logLevel != LogLevel.SILENT);
+
+            LogReport.publishCatchers();
         }
     }
 
@@ -264,6 +441,8 @@ public class LogReport {
                     LogReport.unregisterOneLevel(logCatcher, logLevel);
                 }
             }
+
+            LogReport.publishCatchers();
         }
     }
 
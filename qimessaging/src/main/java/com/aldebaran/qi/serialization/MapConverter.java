@@ -9,6 +9,9 @@ import java.util.Map;
 
 /**
  * Converter for Map serialization.
+ * <p>
+ * A map whose keys and values need no conversion is returned as it is,
+ * without being copied.
  */
 public class MapConverter implements QiSerializer.Converter {
 
@@ -20,6 +23,8 @@ public class MapConverter implements QiSerializer.Converter {
     @Override
     public Map<?, ?> serialize(QiSerializer serializer, Object object) throws QiConversionException {
         Map<?, ?> map = (Map<?, ?>) object;
+        if (!needsSerialization(serializer, map))
+            return map;
         Map<Object, Object> convertedMap = new HashMap<Object, Object>();
         for (Map.Entry<?, ?> entry : map.entrySet()) {
             Object convertedKey = serializer.serialize(entry.getKey());
@@ -47,6 +52,8 @@ public class MapConverter implements QiSerializer.Converter {
         Type[] types = parameterizedType.getActualTypeArguments();
         Type keyType = types[0];
         Type valueType = types[1];
+        if (!needsDeserialization(serializer, map, keyType, valueType))
+            return map;
         Map<Object, Object> convertedMap = new HashMap<Object, Object>();
         for (Map.Entry<?, ?> entry : map.entrySet()) {
             Object convertedKey = serializer.deserialize(entry.getKey(), keyType);
@@ -55,4 +62,35 @@ public class MapConverter implements QiSerializer.Converter {
         }
         return convertedMap;
     }
+
+    /**
+     * Indicates if at least one key or value of a map is converted by
+     * {@link QiSerializer#serialize(Object)}.
+     */
+    private static boolean needsSerialization(QiSerializer serializer, Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            Object value = entry.getValue();
+            if ((key != null && serializer.findSerializer(key) != null)
+                    || (value != null && serializer.findSerializer(value) != null))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Indicates if at least one key or value of a map is converted by
+     * {@link QiSerializer#deserialize(Object, Type)}.
+     */
+    private static boolean needsDeserialization(QiSerializer serializer, Map<?, ?> map, Type keyType,
+            Type valueType) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            Object value = entry.getValue();
+            if ((key != null && serializer.findDeserializer(key, keyType) != null)
+                    || (value != null && serializer.findDeserializer(value, valueType) != null))
+                return true;
+        }
+        return false;
+    }
 }
@@ -418,6 +418,11 @@ public class MethodDescription {
             return MethodDescription.DISTANCE_ANY_OBJECT;
         }
 
+        if ((List.class.isAssignableFrom(class1) && SignatureUtilities.isPrimitiveNumberArray(class2))
+                || (SignatureUtilities.isPrimitiveNumberArray(class1) && List.class.isAssignableFrom(class2))) {
+            return MethodDescription.DISTANCE_COMPATIBLE;
+        }
+
         if(class1.isAssignableFrom(class2) || class2.isAssignableFrom(class1)) {
             return MethodDescription.DISTANCE_COMPATIBLE;
         }
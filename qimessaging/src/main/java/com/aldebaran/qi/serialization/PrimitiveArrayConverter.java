@@ -0,0 +1,49 @@
+package com.aldebaran.qi.serialization;
+
+import com.aldebaran.qi.QiConversionException;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Converter for primitive number arrays (int[], long[], float[], double[] and
+ * byte[]) deserialization.
+ * <p>
+ * Primitive number arrays are sent to libqi as they are, in one bulk copy.
+ * Lists of numbers received from libqi are copied in the target primitive
+ * array.
+ */
+public class PrimitiveArrayConverter implements QiSerializer.Converter {
+
+    @Override
+    public boolean canSerialize(Object object) {
+        return false;
+    }
+
+    @Override
+    public Object serialize(QiSerializer serializer, Object object) throws QiConversionException {
+        return object;
+    }
+
+    @Override
+    public boolean canDeserialize(Object object, Type targetType) {
+        if (!(targetType instanceof Class))
+            return false;
+
+        return SignatureUtilities.isPrimitiveNumberArray((Class<?>) targetType);
+    }
+
+    @Override
+    public Object deserialize(QiSerializer serializer, Object object, Type targetType) throws QiConversionException {
+        Class<?> cls = (Class<?>) targetType;
+        if (cls.isInstance(object))
+            return object;
+        if (!(object instanceof List))
+            throw new QiConversionException("Cannot convert instance of " + object.getClass() + " to " + targetType);
+        try {
+            return SignatureUtilities.toPrimitiveArray((List<?>) object, cls);
+        } catch (ClassCastException e) {
+            throw new QiConversionException(e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.aldebaran.qi.serialization;
 
 import com.aldebaran.qi.QiConversionException;
+import com.aldebaran.qi.util.WeakKeyCache;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -10,14 +11,25 @@ import java.util.List;
  * Class that provides methods to serialize and deserialize custom objects to and from supported
  * types.
  * <p>
- * By default, there are {@link ArrayConverter}, {@link ListConverter}, {@link MapConverter} and
- * {@link StructConverter}.
+ * By default, there are {@link PrimitiveArrayConverter}, {@link ArrayConverter}, {@link ListConverter},
+ * {@link MapConverter} and {@link StructConverter}.
+ * <p>
+ * The converter chosen for a runtime class (and a target type when
+ * deserializing) is cached, so converters must decide only from the object
+ * class, not from its content (See {@link Converter}). The cache does not
+ * prevent the cached classes and types from being unloaded.
  */
 public class QiSerializer {
     /**
      * Converter interface which defines the characteristics of a converter.
      * <p>
      * Implement this interface if a custom converter is needed.
+     * <p>
+     * The answers of {@link #canSerialize(Object)} and
+     * {@link #canDeserialize(Object, Type)} are cached by runtime class of the
+     * object (and target type), so they must depend only on the class of the
+     * object and on the target type, never on the object content: the first
+     * answer given for a class is reused for all its instances.
      */
     public interface Converter {
         boolean canSerialize(Object object);
@@ -31,12 +43,59 @@ public class QiSerializer {
 
     private static final QiSerializer DEFAULT_INSTANCE = new QiSerializer();
 
+    /**
+     * Marks, in the lookup caches, the classes whose instances are not converted
+     */
+    private static final Object NO_CONVERSION = new Object();
+
+    /**
+     * Maximum number of target types cached for deserialization. Protects from
+     * {@link Type} implementations without equals()
+     */
+    private static final int MAXIMUM_CACHED_TYPES = 1024;
+
+    /**
+     * Converters chosen for a converters list state
+     */
+    private static final class ConverterCache {
+        /**
+         * Converters list state the cache is valid for
+         */
+        final long generation;
+        /**
+         * Serialization converter (or {@link #NO_CONVERSION}) by runtime class.
+         * Classes are weak keys, so converted classes stay unloadable
+         */
+        final WeakKeyCache<Class<?>, Object> serializers = new WeakKeyCache<Class<?>, Object>();
+        /**
+         * Deserialization converter (or {@link #NO_CONVERSION}) by target type,
+         * then runtime class. Types and classes are weak keys
+         */
+        final WeakKeyCache<Type, WeakKeyCache<Class<?>, Object>> deserializers =
+                new WeakKeyCache<Type, WeakKeyCache<Class<?>, Object>>();
+
+        ConverterCache(long generation) {
+            this.generation = generation;
+        }
+    }
+
     public static QiSerializer getDefault() {
         return DEFAULT_INSTANCE;
     }
 
     private List<Converter> converters;
 
+    /**
+     * Incremented each time a converter is added, so that converters bound to
+     * a type are resolved again
+     */
+    private volatile int generation;
+
+    /**
+     * Converters already chosen, replaced when the converters list changes
+     */
+    private volatile ConverterCache cache;
+
     public QiSerializer(List<Converter> converters) {
         this.converters = converters;
     }
@@ -47,6 +106,7 @@ public class QiSerializer {
 
     public void addConverter(Converter converter) {
         converters.add(converter);
+        generation++;
     }
 
     public List<Converter> getConverters() {
@@ -57,9 +117,9 @@ public class QiSerializer {
         if (object == null)
             return null;
 
-        for (Converter converter : converters)
-            if (converter.canDeserialize(object, targetType))
-                return converter.deserialize(this, object, targetType);
+        Converter converter = findDeserializer(object, targetType);
+        if (converter != null)
+            return converter.deserialize(this, object, targetType);
 
         // do not convert
         return object;
@@ -79,17 +139,106 @@ public class QiSerializer {
         if (object == null)
             return null;
 
-        for (Converter converter : converters)
-            if (converter.canSerialize(object))
-                return converter.serialize(this, object);
+        Converter converter = findSerializer(object);
+        if (converter != null)
+            return converter.serialize(this, object);
 
         // do not convert
         return object;
     }
 
+    /**
+     * Find the converter that {@link #serialize(Object)} would use.<br>
+     * The choice is cached by runtime class.
+     *
+     * @param object Object to serialize (Not null).
+     * @return The converter, or {@code null} if the object is not converted.
+     */
+    Converter findSerializer(Object object) {
+        WeakKeyCache<Class<?>, Object> serializers = converterCache().serializers;
+        Class<?> cls = object.getClass();
+        Object cached = serializers.get(cls);
+        if (cached == null) {
+            cached = NO_CONVERSION;
+            for (Converter converter : converters)
+                if (converter.canSerialize(object)) {
+                    cached = converter;
+                    break;
+                }
+            serializers.put(cls, cached);
+        }
+
+        return cached == NO_CONVERSION ? null : (Converter) cached;
+    }
+
+    /**
+     * Find the converter that {@link #deserialize(Object, Type)} would use.<br>
+     * The choice is cached by target type and runtime class.
+     *
+     * @param object     Object to deserialize (Not null).
+     * @param targetType Type to deserialize to.
+     * @return The converter, or {@code null} if the object is not converted.
+     */
+    Converter findDeserializer(Object object, Type targetType) {
+        ConverterCache converterCache = converterCache();
+        WeakKeyCache<Class<?>, Object> deserializers = targetType == null ? null
+                : converterCache.deserializers.get(targetType);
+        if (deserializers == null && targetType != null
+                && converterCache.deserializers.size() < MAXIMUM_CACHED_TYPES) {
+            synchronized (converterCache.deserializers) {
+                deserializers = converterCache.deserializers.get(targetType);
+                if (deserializers == null) {
+                    deserializers = new WeakKeyCache<Class<?>, Object>();
+                    converterCache.deserializers.put(targetType, deserializers);
+                }
+            }
+        }
+
+        Class<?> cls = object.getClass();
+        Object cached = deserializers == null ? null : deserializers.get(cls);
+        if (cached == null) {
+            cached = NO_CONVERSION;
+            for (Converter converter : converters)
+                if (converter.canDeserialize(object, targetType)) {
+                    cached = converter;
+                    break;
+                }
+            if (deserializers != null)
+                deserializers.put(cls, cached);
+        }
+
+        return cached == NO_CONVERSION ? null : (Converter) cached;
+    }
+
+    /**
+     * Obtain the converters cache, emptied if the converters list changed.
+     *
+     * @return Converters cache.
+     */
+    private ConverterCache converterCache() {
+        long currentGeneration = converterGeneration();
+        ConverterCache converterCache = cache;
+        if (converterCache == null || converterCache.generation != currentGeneration) {
+            converterCache = new ConverterCache(currentGeneration);
+            cache = converterCache;
+        }
+        return converterCache;
+    }
+
+    /**
+     * Current state of the converters list. Changes each time a converter is
+     * added, even directly in {@link #getConverters()}.
+     *
+     * @return Converters list state.
+     */
+    long converterGeneration() {
+        return ((long) generation << 32) | converters.size();
+    }
+
     public static List<Converter> createDefaultConverters() {
         List<Converter> result = new ArrayList<Converter>();
         result.add(new ListConverter());
+        result.add(new PrimitiveArrayConverter());
         result.add(new ArrayConverter());
         result.add(new MapConverter());
         result.add(new StructConverter());
@@ -6,6 +6,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -58,6 +59,10 @@ public class SignatureUtilities {
      * Libqi Object signature
      */
     public static final String OBJECT = "o";
+    /**
+     * Libqi raw buffer signature
+     */
+    public static final String RAW = "r";
 
     /**
      * Compute libqi signature for given method
@@ -77,6 +82,33 @@ public class SignatureUtilities {
         SignatureUtilities.computeSignatureForReturnType(method.getReturnType(), method.getGenericReturnType(), stringBuilder);
 
         // Parameters signature
+        SignatureUtilities.computeParametersSignature(method, stringBuilder);
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Compute the libqi signature of the parameters of a method, like
+     * {@code "(is)"}
+     *
+     * @param method
+     *            Method to get parameters signature
+     * @return Parameters signature
+     */
+    public static String computeParametersSignature(final Method method) {
+        final StringBuilder stringBuilder = new StringBuilder();
+        SignatureUtilities.computeParametersSignature(method, stringBuilder);
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Compute and append the signature of the parameters of a method
+     *
+     * @param method
+     *            Method to get parameters signature
+     * @param stringBuilder
+     *            String builder where append signature
+     */
+    private static void computeParametersSignature(final Method method, final StringBuilder stringBuilder) {
         stringBuilder.append("(");
         final Class<?>[] parametersClasses = method.getParameterTypes();
         final Type[] parametersTypes = method.getGenericParameterTypes();
@@ -90,7 +122,6 @@ public class SignatureUtilities {
         }
 
         stringBuilder.append(")");
-        return stringBuilder.toString();
     }
 
     /**
@@ -295,6 +326,23 @@ public class SignatureUtilities {
         else if (String.class.equals(clazz)) {
             stringBuilder.append(SignatureUtilities.STRING);
         }
+        else if (ByteBuffer.class.isAssignableFrom(clazz)) {
+            stringBuilder.append(SignatureUtilities.RAW);
+        }
+        else if (SignatureUtilities.isPrimitiveNumberArray(clazz)) {
+            stringBuilder.append("[");
+            final Class<?> component = clazz.getComponentType();
+
+            if (byte.class.equals(component)) {
+                // libqi int8
+                stringBuilder.append(SignatureUtilities.CHARACTER);
+            }
+            else {
+                SignatureUtilities.computeSignature(component, component, stringBuilder);
+            }
+
+            stringBuilder.append("]");
+        }
         else if (List.class.isAssignableFrom(clazz)) {
             stringBuilder.append("[");
             SignatureUtilities.computeSignature(0, (ParameterizedType) type, stringBuilder);
@@ -420,6 +468,59 @@ public class SignatureUtilities {
         return results;
     }
 
+    /**
+     * Indicates if given class is an array of primitive numbers exchanged
+     * in bulk with libqi (int[], long[], float[], double[] or byte[])
+     *
+     * @param clazz
+     *            Class to test
+     * @return {@code true} if given class is a primitive number array
+     */
+    public static boolean isPrimitiveNumberArray(final Class<?> clazz) {
+        return int[].class.equals(clazz) || long[].class.equals(clazz) || float[].class.equals(clazz)
+                || double[].class.equals(clazz) || byte[].class.equals(clazz);
+    }
+
+    /**
+     * Copy a list of numbers in a primitive array
+     *
+     * @param list
+     *            List of numbers
+     * @param arrayClass
+     *            Primitive array class (int[], long[], float[], double[] or
+     *            byte[])
+     * @return Created array
+     * @throws ClassCastException
+     *             If an element is not a number
+     */
+    public static Object toPrimitiveArray(final List<?> list, final Class<?> arrayClass) {
+        final int size = list.size();
+        final Class<?> component = arrayClass.getComponentType();
+        final Object array = Array.newInstance(component, size);
+
+        for (int index = 0; index < size; index++) {
+            final Number number = (Number) list.get(index);
+
+            if (int.class.equals(component)) {
+                Array.setInt(array, index, number.intValue());
+            }
+            else if (long.class.equals(component)) {
+                Array.setLong(array, index, number.longValue());
+            }
+            else if (float.class.equals(component)) {
+                Array.setFloat(array, index, number.floatValue());
+            }
+            else if (double.class.equals(component)) {
+                Array.setDouble(array, index, number.doubleValue());
+            }
+            else {
+                Array.setByte(array, index, number.byteValue());
+            }
+        }
+
+        return array;
+    }
+
     /**
      * Try to convert a value to a desired type
      *
@@ -548,6 +649,11 @@ public class SignatureUtilities {
             }
         }
 
+        // Convert List of numbers to primitive array
+        if ((value instanceof List) && SignatureUtilities.isPrimitiveNumberArray(to)) {
+            return SignatureUtilities.toPrimitiveArray((List<?>) value, to);
+        }
+
         // Convert Tuple to QiStruct
         if ((value instanceof Tuple) && to.isAnnotationPresent(QiStruct.class)) {
             final Tuple tuple = (Tuple) value;
@@ -4,42 +4,227 @@ import com.aldebaran.qi.QiConversionException;
 import com.aldebaran.qi.QiField;
 import com.aldebaran.qi.QiStruct;
 import com.aldebaran.qi.Tuple;
+import com.aldebaran.qi.util.WeakKeyCache;
 
+import java.lang.ref.SoftReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Converter for Struct and Tuple serialization.
+ * <p>
+ * The fields, tuple indexes and constructor of each struct class are resolved
+ * once, in a {@link StructCodec}. Each field then remembers the converter used
+ * for its last value, so that nested values do not go through the whole
+ * converter chain again.
  */
 public class StructConverter implements QiSerializer.Converter {
+    /**
+     * Converter bound to a field for a serializer, a converters list state and
+     * a value class
+     */
+    private static final class Binding {
+        /**
+         * Serializer that resolved the converter
+         */
+        final QiSerializer serializer;
+        /**
+         * Converters list state when resolved
+         */
+        final long generation;
+        /**
+         * Class of the value to convert
+         */
+        final Class<?> valueClass;
+        /**
+         * Converter to use, {@code null} if the value is not converted
+         */
+        final QiSerializer.Converter converter;
 
-    @Override
-    public boolean canSerialize(Object object) {
-        return isQiStruct(object.getClass());
+        Binding(QiSerializer serializer, Class<?> valueClass, QiSerializer.Converter converter) {
+            this.serializer = serializer;
+            this.generation = serializer.converterGeneration();
+            this.valueClass = valueClass;
+            this.converter = converter;
+        }
+
+        boolean matches(QiSerializer serializer, Class<?> valueClass) {
+            return this.serializer == serializer && this.valueClass == valueClass
+                    && this.generation == serializer.converterGeneration();
+        }
     }
 
-    @Override
-    public Tuple serialize(QiSerializer serializer, Object object) throws QiConversionException {
-        Class<?> cls = object.getClass();
-        try {
-            Field[] fields = cls.getDeclaredFields();
-            int valuesLength = computeMaxTupleIndex(fields) + 1;
-            Object[] values = new Object[valuesLength];
-            for (Field field : fields) {
+    /**
+     * Field of a struct, with its tuple index and its bound converters
+     */
+    private static final class FieldCodec {
+        /**
+         * Accessible field
+         */
+        final Field field;
+        /**
+         * Field generic type
+         */
+        final Type type;
+        /**
+         * Index in the tuple
+         */
+        final int tupleIndex;
+        /**
+         * Last converter used to serialize the field value
+         */
+        volatile Binding serializeBinding;
+        /**
+         * Last converter used to deserialize the field value
+         */
+        volatile Binding deserializeBinding;
+
+        FieldCodec(Field field, int tupleIndex) {
+            field.setAccessible(true);
+            this.field = field;
+            this.type = field.getGenericType();
+            this.tupleIndex = tupleIndex;
+        }
+
+        Object serialize(QiSerializer serializer, Object struct) throws IllegalAccessException, QiConversionException {
+            Object value = field.get(struct);
+            if (value == null)
+                return null;
+
+            Class<?> valueClass = value.getClass();
+            Binding binding = serializeBinding;
+            if (binding == null || !binding.matches(serializer, valueClass)) {
+                binding = new Binding(serializer, valueClass, serializer.findSerializer(value));
+                serializeBinding = binding;
+            }
+
+            if (binding.converter == null)
+                return value;
+            return binding.converter.serialize(serializer, value);
+        }
+
+        void deserialize(QiSerializer serializer, Object struct, Object value)
+                throws IllegalAccessException, QiConversionException {
+            if (value == null) {
+                field.set(struct, null);
+                return;
+            }
+
+            Class<?> valueClass = value.getClass();
+            Binding binding = deserializeBinding;
+            if (binding == null || !binding.matches(serializer, valueClass)) {
+                binding = new Binding(serializer, valueClass, serializer.findDeserializer(value, type));
+                deserializeBinding = binding;
+            }
+
+            if (binding.converter == null)
+                field.set(struct, value);
+            else
+                field.set(struct, binding.converter.deserialize(serializer, value, type));
+        }
+    }
+
+    /**
+     * Fields, tuple indexes and constructor of a struct class, resolved once
+     */
+    private static final class StructCodec {
+        /**
+         * Struct class
+         */
+        final Class<?> structClass;
+        /**
+         * Fields annotated with {@link QiField}
+         */
+        final FieldCodec[] fields;
+        /**
+         * Tuple size
+         */
+        final int tupleSize;
+        /**
+         * Accessible no-argument constructor, {@code null} if none
+         */
+        final Constructor<?> constructor;
+
+        StructCodec(Class<?> structClass) {
+            this.structClass = structClass;
+            List<FieldCodec> fieldCodecs = new ArrayList<FieldCodec>();
+            int maxTupleIndex = -1;
+            for (Field field : structClass.getDeclaredFields()) {
                 int tupleIndex = getTupleIndex(field);
                 if (tupleIndex < 0)
                     continue;
-                field.setAccessible(true);
-                Object value = field.get(object);
-                Object convertedValue = serializer.serialize(value);
-                values[tupleIndex] = convertedValue;
+                fieldCodecs.add(new FieldCodec(field, tupleIndex));
+                maxTupleIndex = Math.max(maxTupleIndex, tupleIndex);
+            }
+            this.fields = fieldCodecs.toArray(new FieldCodec[fieldCodecs.size()]);
+            this.tupleSize = maxTupleIndex + 1;
+
+            Constructor<?> noArgumentConstructor;
+            try {
+                noArgumentConstructor = structClass.getDeclaredConstructor();
+                noArgumentConstructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                noArgumentConstructor = null;
+            }
+            this.constructor = noArgumentConstructor;
+        }
+
+        Tuple serialize(QiSerializer serializer, Object struct) throws QiConversionException {
+            Object[] values = new Object[tupleSize];
+            try {
+                for (FieldCodec field : fields)
+                    values[field.tupleIndex] = field.serialize(serializer, struct);
+            } catch (IllegalAccessException e) {
+                throw new QiConversionException(e);
             }
             return Tuple.of(values);
-        } catch (IllegalAccessException e) {
-            throw new QiConversionException(e);
         }
+
+        Object deserialize(QiSerializer serializer, Tuple tuple) throws QiConversionException {
+            try {
+                if (constructor == null)
+                    throw new NoSuchMethodException(structClass.getName() + ".<init>()");
+                Object struct = constructor.newInstance();
+                int size = tuple.size();
+                for (FieldCodec field : fields) {
+                    if (field.tupleIndex >= size)
+                        continue;
+                    field.deserialize(serializer, struct, tuple.get(field.tupleIndex));
+                }
+                return struct;
+            } catch (InstantiationException e) {
+                throw new QiConversionException(e);
+            } catch (IllegalAccessException e) {
+                throw new QiConversionException(e);
+            } catch (InvocationTargetException e) {
+                throw new QiConversionException(e);
+            } catch (NoSuchMethodException e) {
+                throw new QiConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * Codecs already resolved, by struct class.<br>
+     * Looked up without lock on each struct conversion. A codec keeps the
+     * fields and constructor of its class, so it is only softly held: the
+     * class of a struct no longer used can be unloaded once its codec is
+     * collected.
+     */
+    private final WeakKeyCache<Class<?>, SoftReference<StructCodec>> codecs = new WeakKeyCache<Class<?>, SoftReference<StructCodec>>();
+
+    @Override
+    public boolean canSerialize(Object object) {
+        return isQiStruct(object.getClass());
+    }
+
+    @Override
+    public Tuple serialize(QiSerializer serializer, Object object) throws QiConversionException {
+        return codecFor(object.getClass()).serialize(serializer, object);
     }
 
     @Override
@@ -55,33 +240,24 @@ public class StructConverter implements QiSerializer.Converter {
     public Object deserialize(QiSerializer serializer, Object object, Type targetType) throws QiConversionException {
         if (!(object instanceof Tuple))
             throw new QiConversionException("Cannot convert instance of " + object.getClass() + " to " + targetType);
-        Tuple tuple = (Tuple) object;
-        Class<?> targetClass = (Class<?>) targetType;
-        try {
-            Constructor<?> constructor = targetClass.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            Object struct = constructor.newInstance();
-            Field[] fields = targetClass.getDeclaredFields();
-            for (Field field : fields) {
-                int tupleIndex = getTupleIndex(field);
-                if (tupleIndex < 0 || tupleIndex >= tuple.size())
-                    continue;
-                Type fieldType = field.getGenericType();
-                Object value = tuple.get(tupleIndex);
-                Object convertedValue = serializer.deserialize(value, fieldType);
-                field.setAccessible(true);
-                field.set(struct, convertedValue);
-            }
-            return struct;
-        } catch (InstantiationException e) {
-            throw new QiConversionException(e);
-        } catch (IllegalAccessException e) {
-            throw new QiConversionException(e);
-        } catch (InvocationTargetException e) {
-            throw new QiConversionException(e);
-        } catch (NoSuchMethodException e) {
-            throw new QiConversionException(e);
+        return codecFor((Class<?>) targetType).deserialize(serializer, (Tuple) object);
+    }
+
+    /**
+     * Obtain the codec of a struct class, resolving it on first use.
+     *
+     * @param cls Struct class.
+     * @return The codec.
+     */
+    private StructCodec codecFor(Class<?> cls) {
+        SoftReference<StructCodec> reference = codecs.get(cls);
+        StructCodec codec = reference == null ? null : reference.get();
+        if (codec == null) {
+            // Concurrent resolutions of a class give equivalent codecs
+            codec = new StructCodec(cls);
+            codecs.put(cls, new SoftReference<StructCodec>(codec));
         }
+        return codec;
     }
 
     private static boolean isQiStruct(Class<?> cls) {
@@ -94,11 +270,4 @@ public class StructConverter implements QiSerializer.Converter {
             return -1;
         return qiField.value();
     }
-
-    private static int computeMaxTupleIndex(Field[] fields) {
-        int max = -1;
-        for (Field field : fields)
-            max = Math.max(max, getTupleIndex(field));
-        return max;
-    }
 }
@@ -0,0 +1,140 @@
+package com.aldebaran.qi.util;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Cache with weakly referenced keys, for keys like classes or types that must
+ * stay unloadable.<br>
+ * Lookups take no lock: they read an immutable snapshot of the entries. Each
+ * insertion copies the snapshot under a lock, dropping the entries whose key
+ * was collected, so insertions are meant to be rare compared to lookups.<br>
+ * Values are held strongly: a value referencing its key pins it, unless the
+ * value is itself held through a {@link java.lang.ref.Reference}.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public final class WeakKeyCache<K, V> {
+    /**
+     * Cached value, chained with the other entries of its bucket
+     */
+    private static final class Entry<K, V> extends WeakReference<K> {
+        final int hash;
+        final V value;
+        final Entry<K, V> next;
+
+        Entry(final K key, final int hash, final V value, final Entry<K, V> next) {
+            super(key);
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Minimum number of buckets
+     */
+    private static final int MINIMUM_LENGTH = 16;
+
+    /**
+     * Current snapshot, never modified once published. Its length is a power
+     * of 2
+     */
+    private volatile Entry<K, V>[] table = WeakKeyCache.newTable(WeakKeyCache.MINIMUM_LENGTH);
+    /**
+     * Number of entries in the current snapshot, some keys may have been
+     * collected since
+     */
+    private volatile int size = 0;
+
+    /**
+     * Obtain the value of a key.
+     *
+     * @param key Key (Not null).
+     * @return The value, or {@code null} if the key is not cached.
+     */
+    public V get(final K key) {
+        final Entry<K, V>[] table = this.table;
+        final int hash = WeakKeyCache.hash(key);
+
+        for (Entry<K, V> entry = table[hash & (table.length - 1)]; entry != null; entry = entry.next) {
+            if (entry.hash == hash) {
+                final K entryKey = entry.get();
+
+                if (entryKey == key || (entryKey != null && entryKey.equals(key))) {
+                    return entry.value;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Associate a value to a key, replacing its previous value.
+     *
+     * @param key   Key (Not null).
+     * @param value Value.
+     */
+    public void put(final K key, final V value) {
+        final int hash = WeakKeyCache.hash(key);
+
+        synchronized (this) {
+            final Entry<K, V>[] previous = this.table;
+            int count = 1;
+            int length = WeakKeyCache.MINIMUM_LENGTH;
+
+            for (final Entry<K, V> bucket : previous) {
+                for (Entry<K, V> entry = bucket; entry != null; entry = entry.next) {
+                    count++;
+                }
+            }
+
+            while (length < count * 2) {
+                length <<= 1;
+            }
+
+            final Entry<K, V>[] table = WeakKeyCache.newTable(length);
+            table[hash & (length - 1)] = new Entry<K, V>(key, hash, value, null);
+            count = 1;
+
+            for (final Entry<K, V> bucket : previous) {
+                for (Entry<K, V> entry = bucket; entry != null; entry = entry.next) {
+                    final K entryKey = entry.get();
+
+                    if (entryKey == null || (entry.hash == hash && entryKey.equals(key))) {
+                        // Collected or replaced
+                        continue;
+                    }
+
+                    final int index = entry.hash & (length - 1);
+                    table[index] = new Entry<K, V>(entryKey, entry.hash, entry.value, table[index]);
+                    count++;
+                }
+            }
+
+            this.size = count;
+            this.table = table;
+        }
+    }
+
+    /**
+     * Number of cached entries. Entries whose key was collected are counted
+     * until the next insertion.
+     *
+     * @return Number of entries.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    private static int hash(final Object key) {
+        final int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Entry<K, V>[] newTable(final int length) {
+        return (Entry<K, V>[]) new Entry<?, ?>[length];
+    }
+}
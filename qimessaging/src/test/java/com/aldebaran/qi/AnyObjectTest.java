@@ -53,4 +53,15 @@ public class AnyObjectTest {
         assertFalse("Expected <" + anyObject + "> to be unequal to <" + anyOtherObject +">",
                 anyObject.equals(anyOtherObject));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMethodResolutionCached() throws Exception {
+        factory.<AnyObject>call("createObject").get();
+        final long hits = AnyObject.getMethodResolutionCacheHitCount();
+        final long misses = AnyObject.getMethodResolutionCacheMissCount();
+
+        factory.<AnyObject>call("createObject").get();
+        assertEquals(hits + 1, AnyObject.getMethodResolutionCacheHitCount());
+        assertEquals(misses, AnyObject.getMethodResolutionCacheMissCount());
+    }
+}
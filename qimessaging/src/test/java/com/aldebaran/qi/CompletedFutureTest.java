@@ -0,0 +1,73 @@
+package com.aldebaran.qi;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of futures created already finished, answered on the Java heap
+ * without C++ Future
+ */
+public class CompletedFutureTest {
+    @Test
+    public void testValue() throws ExecutionException {
+        final long before = NativeHandles.getLiveHandleCount(Future.class);
+        final Future<String> future = Future.of("value");
+
+        Assert.assertTrue(future.isDone());
+        Assert.assertFalse(future.isCancelled());
+        Assert.assertTrue(future.isSuccess());
+        Assert.assertFalse(future.hasError());
+        Assert.assertEquals("value", future.get());
+        Assert.assertEquals("value", future.getValue());
+        Assert.assertEquals(before, NativeHandles.getLiveHandleCount(Future.class));
+    }
+
+    @Test
+    public void testError() {
+        final Future<String> future = Future.fromError("failure");
+
+        Assert.assertTrue(future.isDone());
+        Assert.assertFalse(future.isCancelled());
+        Assert.assertTrue(future.hasError());
+        Assert.assertEquals("failure", future.getErrorMessage());
+
+        try {
+            future.get();
+            Assert.fail("Error expected");
+        }
+        catch (final ExecutionException exception) {
+            Assert.assertTrue(exception instanceof QiException);
+            Assert.assertEquals("failure", exception.getMessage());
+        }
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testCancelled() throws ExecutionException {
+        final Future<String> future = Future.cancelled();
+
+        Assert.assertTrue(future.isDone());
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertFalse(future.hasError());
+        Assert.assertTrue(future.cancel(true));
+        future.get();
+    }
+
+    @Test
+    public void testSyncCallback() {
+        final Future<Integer> future = Future.of(42);
+        final AtomicReference<Future<Integer>> finished = new AtomicReference<Future<Integer>>();
+
+        future.connect(new Future.Callback<Integer>() {
+            @Override
+            public void onFinished(final Future<Integer> future) {
+                finished.set(future);
+            }
+        }, FutureCallbackType.Sync);
+
+        Assert.assertSame(future, finished.get());
+    }
+}
@@ -4,12 +4,29 @@
  */
 package com.aldebaran.qi;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.aldebaran.qi.serialization.QiSerializer;
+
 public class DynamicObjectBuilderTest {
+    /**
+     * Interface advertised for the concurrent calls test
+     */
+    public interface ConcurrentCalculator {
+        int add(int a, int b);
+
+        Future<Integer> multiply(int a, int b);
+    }
 
     private DynamicObjectBuilder builder;
 
@@ -37,6 +54,52 @@ public class DynamicObjectBuilderTest {
     }
 
 
+    @Test
+    public void advertisedMethodsConcurrentCalls() throws Exception {
+        final ConcurrentCalculator calculator = builder.advertiseMethods(QiSerializer.getDefault(),
+                ConcurrentCalculator.class, new ConcurrentCalculator() {
+                    @Override
+                    public int add(int a, int b) {
+                        return a + b;
+                    }
+
+                    @Override
+                    public Future<Integer> multiply(int a, int b) {
+                        return Future.of(a * b);
+                    }
+                });
+        final int threads = 8;
+        final int calls = 200;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            final List<java.util.concurrent.Future<Void>> results = new ArrayList<java.util.concurrent.Future<Void>>();
+
+            for (int thread = 0; thread < threads; thread++) {
+                final int base = thread * calls;
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int index = base; index < base + calls; index++) {
+                            Assert.assertEquals(index + 1, calculator.add(index, 1));
+                            Assert.assertEquals(Integer.valueOf(index * 2),
+                                    calculator.multiply(index, 2).get(5, TimeUnit.SECONDS));
+                        }
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (final java.util.concurrent.Future<Void> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void advertisePropertyUsesValueTypeSignature_String() {
         runAdvertisePropertyUsesValueTypeSignature(new Property<String>(String.class), "String");
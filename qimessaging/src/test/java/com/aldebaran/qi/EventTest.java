@@ -122,6 +122,153 @@ public class EventTest {
         assertEquals(99, value.get());
     }
 
+    @Test
+    public void testBatchSignal() throws InterruptedException {
+        final List<Integer> values = new ArrayList<Integer>();
+        QiBatchSignalConnection connection = proxy.connect("fire", new QiBatchSignalListener() {
+            @Override
+            public void onSignalsReceived(List<Object[]> emissions) {
+                synchronized (values) {
+                    for (Object[] args : emissions) {
+                        values.add((Integer) args[0]);
+                    }
+                }
+            }
+        }, 10, 50, TimeUnit.MILLISECONDS);
+        connection.waitForDone();
+
+        for (int i = 0; i < 25; i++) {
+            obj.post("fire", i);
+        }
+
+        Thread.sleep(300);
+
+        synchronized (values) {
+            assertEquals(25, values.size());
+
+            for (int i = 0; i < 25; i++) {
+                assertEquals(i, (int) values.get(i));
+            }
+        }
+
+        assertEquals(25, connection.getDeliveredCount());
+        assertTrue(connection.getBatchCount() < 25);
+        assertEquals(0, connection.getDroppedCount());
+        connection.disconnect().sync();
+    }
+
+    @Test
+    public void testLatestSignal() throws InterruptedException {
+        final List<Integer> values = new ArrayList<Integer>();
+        QiLatestSignalConnection connection = proxy.connectLatest("fire", new QiSignalListener() {
+            @Override
+            public void onSignalReceived(Object... args) {
+                synchronized (values) {
+                    values.add((Integer) args[0]);
+                }
+            }
+        }, 100, TimeUnit.MILLISECONDS);
+        connection.waitForDone();
+
+        for (int i = 0; i < 50; i++) {
+            obj.post("fire", i);
+        }
+
+        Thread.sleep(400);
+
+        synchronized (values) {
+            assertTrue(values.size() < 50);
+            assertEquals(49, (int) values.get(values.size() - 1));
+        }
+
+        assertEquals(50, connection.getDeliveredCount() + connection.getCoalescedCount());
+        connection.disconnect().sync();
+    }
+
+    @Test
+    public void testSignalEmitter() throws InterruptedException {
+        final List<Integer> values = new ArrayList<Integer>();
+        QiSignalConnection connection = proxy.connect("fire", new QiSignalListener() {
+            @Override
+            public void onSignalReceived(Object... args) {
+                synchronized (values) {
+                    values.add((Integer) args[0]);
+                }
+            }
+        });
+        connection.waitForDone();
+
+        QiSignalEmitter emitter = obj.signalEmitter("fire", int.class);
+        for (int i = 0; i < 10; i++) {
+            emitter.post(i);
+        }
+
+        Thread.sleep(200);
+
+        synchronized (values) {
+            assertEquals(10, values.size());
+            assertTrue(values.contains(0));
+            assertTrue(values.contains(9));
+        }
+
+        connection.disconnect().sync();
+    }
+
+    @Test(expected = DynamicCallException.class)
+    public void testSignalEmitterUnknownSignal() {
+        obj.signalEmitter("unknown", int.class);
+    }
+
+    @Test(expected = DynamicCallException.class)
+    public void testSignalEmitterWrongTypes() {
+        obj.signalEmitter("fire", String.class);
+    }
+
+    @Test(expected = DynamicCallException.class)
+    public void testSignalEmitterTooManyTypes() {
+        obj.signalEmitter("fire", int.class, int.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSignalEmitterWrongArity() {
+        obj.signalEmitter("fire", int.class).post(1, 2);
+    }
+
+    @Test
+    public void testPersistentAttachmentManyCallbacks() throws InterruptedException {
+        // Far more callbacks than the 512 local references of an Android thread
+        final int count = 5000;
+        final AtomicInteger received = new AtomicInteger(0);
+        EmbeddedTools.setPersistentThreadAttachment(true);
+
+        try {
+            QiSignalConnection connection = proxy.connect("fire", new QiSignalListener() {
+                @Override
+                public void onSignalReceived(Object... args) {
+                    received.incrementAndGet();
+                }
+            });
+            connection.waitForDone();
+            final long attachBefore = EmbeddedTools.getThreadAttachCount();
+
+            for (int i = 0; i < count; i++) {
+                obj.post("fire", i);
+            }
+
+            for (int wait = 0; wait < 100 && received.get() < count; wait++) {
+                Thread.sleep(100);
+            }
+
+            assertEquals(count, received.get());
+            // Callbacks reuse the attached threads
+            assertTrue(EmbeddedTools.getThreadAttachCount() - attachBefore < count);
+            connection.disconnect().sync();
+        }
+        finally {
+            EmbeddedTools.setPersistentThreadAttachment(false);
+        }
+    }
+
     @Test
     public void testSignalSlot() throws InterruptedException {
         final AtomicBoolean correct = new AtomicBoolean();
@@ -10,13 +10,21 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import junit.framework.Assert;
 
@@ -761,6 +769,275 @@ public class FutureTest {
         Future.waitAll().get(1, TimeUnit.SECONDS);
     }
 
+    @Test
+    public void testAllOf() throws ExecutionException, TimeoutException {
+        Promise<Long> p1 = new Promise<Long>();
+        Promise<Long> p2 = new Promise<Long>();
+        new Thread(new AsyncWait(p1, 200, AsyncWait.Type.VALUE)).start();
+        new Thread(new AsyncWait(p2, 100, AsyncWait.Type.VALUE)).start();
+        List<Long> values = Future.allOf(Arrays.asList(p1.getFuture(), p2.getFuture(), Future.of(42L))).get();
+        assertEquals(Arrays.asList(200L, 100L, 42L), values);
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testAllOfWithError() throws ExecutionException, TimeoutException {
+        Promise<Long> p1 = new Promise<Long>();
+        new Thread(new AsyncWait(p1, 100, AsyncWait.Type.VALUE)).start();
+        Future.allOf(Arrays.asList(p1.getFuture(), Future.<Long>fromError("failure"))).get();
+    }
+
+    @Test
+    public void testAnyOf() throws ExecutionException, TimeoutException {
+        Promise<Long> p1 = new Promise<Long>();
+        Promise<Long> p2 = new Promise<Long>();
+        new Thread(new AsyncWait(p1, 100, AsyncWait.Type.ERROR)).start();
+        new Thread(new AsyncWait(p2, 200, AsyncWait.Type.VALUE)).start();
+        assertEquals(200, (long) Future.anyOf(Arrays.asList(p1.getFuture(), p2.getFuture())).get());
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testAnyOfAllFailed() throws ExecutionException, TimeoutException {
+        Future.anyOf(Arrays.asList(Future.<Long>fromError("first"), Future.<Long>fromError("second"))).get();
+    }
+
+    @Test
+    public void testTraverseBoundsConcurrency() throws ExecutionException, TimeoutException {
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maxRunning = new AtomicInteger(0);
+        List<Integer> arguments = new ArrayList<Integer>();
+
+        for (int i = 0; i < 20; i++) {
+            arguments.add(i);
+        }
+
+        List<Integer> values = Future.traverse(arguments, 3, new Function<Integer, Future<Integer>>() {
+            @Override
+            public Future<Integer> execute(final Integer value) throws Throwable {
+                int now = running.incrementAndGet();
+
+                if (now > maxRunning.get()) {
+                    maxRunning.set(now);
+                }
+
+                final Promise<Integer> promise = new Promise<Integer>();
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Thread.sleep(10);
+                        }
+                        catch (InterruptedException ignored) {
+                        }
+
+                        running.decrementAndGet();
+                        promise.setValue(value * 2);
+                    }
+                }).start();
+                return promise.getFuture();
+            }
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(20, values.size());
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i * 2, (int) values.get(i));
+        }
+
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void testTraverseImmediateFutures() throws ExecutionException, TimeoutException {
+        List<Integer> arguments = new ArrayList<Integer>();
+
+        for (int i = 0; i < 10000; i++) {
+            arguments.add(i);
+        }
+
+        List<Integer> values = Future.traverse(arguments, 1, new Function<Integer, Future<Integer>>() {
+            @Override
+            public Future<Integer> execute(final Integer value) throws Throwable {
+                return Future.of(value);
+            }
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(arguments, values);
+    }
+
+    /**
+     * Executor with a single named thread
+     */
+    private static ExecutorService namedExecutor(final String name) {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, name);
+            }
+        });
+    }
+
+    @Test
+    public void testAndThenApplyOnExecutor() throws ExecutionException, TimeoutException {
+        ExecutorService executor = namedExecutor("continuation");
+        final AtomicReference<String> threadName = new AtomicReference<String>();
+
+        try {
+            Promise<Long> promise = new Promise<Long>();
+            new Thread(new AsyncWait(promise, 50, AsyncWait.Type.VALUE)).start();
+            Future<Long> future = promise.getFuture().andThenApply(new Function<Long, Long>() {
+                @Override
+                public Long execute(Long value) throws Throwable {
+                    threadName.set(Thread.currentThread().getName());
+                    return value + 1;
+                }
+            }, executor);
+
+            assertEquals(51L, (long) future.get(1, TimeUnit.SECONDS));
+            assertEquals("continuation", threadName.get());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testAndThenApplyOnExecutorSkippedOnError() throws TimeoutException {
+        ExecutorService executor = namedExecutor("continuation");
+        final AtomicBoolean called = new AtomicBoolean(false);
+
+        try {
+            Future<Long> future = Future.<Long>fromError("failure").andThenApply(new Function<Long, Long>() {
+                @Override
+                public Long execute(Long value) throws Throwable {
+                    called.set(true);
+                    return value;
+                }
+            }, executor);
+
+            future.get(1, TimeUnit.SECONDS);
+            fail("Error expected");
+        }
+        catch (ExecutionException exception) {
+            assertEquals("failure", exception.getMessage());
+            assertFalse(called.get());
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSessionDefaultExecutor() throws ExecutionException, TimeoutException {
+        ExecutorService executor = namedExecutor("session");
+        final AtomicReference<String> threadName = new AtomicReference<String>();
+
+        try {
+            client.setDefaultExecutor(executor);
+            client.waitForService("serviceTest").thenConsume(new Consumer<Future<Void>>() {
+                @Override
+                public void consume(Future<Void> future) throws Throwable {
+                    threadName.set(Thread.currentThread().getName());
+                }
+            }).get(1, TimeUnit.SECONDS);
+
+            assertEquals("session", threadName.get());
+        }
+        finally {
+            client.setDefaultExecutor(null);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testServiceCallDefaultExecutor() throws ExecutionException, TimeoutException {
+        ExecutorService executor = namedExecutor("session");
+        final AtomicReference<String> threadName = new AtomicReference<String>();
+
+        try {
+            client.setDefaultExecutor(executor);
+            AnyObject service = client.service("serviceTest").get(1, TimeUnit.SECONDS);
+            service.<String>call("reply", "plaf").andThenConsume(new Consumer<String>() {
+                @Override
+                public void consume(String value) throws Throwable {
+                    threadName.set(Thread.currentThread().getName());
+                }
+            }).get(1, TimeUnit.SECONDS);
+
+            assertEquals("session", threadName.get());
+        }
+        finally {
+            client.setDefaultExecutor(null);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParkingGet() throws ExecutionException, TimeoutException {
+        Future.setParkingWait(true);
+
+        try {
+            Promise<Long> promise = new Promise<Long>();
+            new Thread(new AsyncWait(promise, 50, AsyncWait.Type.VALUE)).start();
+            assertEquals(50L, (long) promise.getFuture().get());
+        }
+        finally {
+            Future.setParkingWait(false);
+        }
+    }
+
+    @Test
+    public void testParkingGetAfterTimeouts() throws ExecutionException, TimeoutException {
+        Future.setParkingWait(true);
+
+        try {
+            Promise<Long> promise = new Promise<Long>();
+            Future<Long> future = promise.getFuture();
+
+            for (int i = 0; i < 10; i++) {
+                try {
+                    future.get(1, TimeUnit.MILLISECONDS);
+                    fail("Timeout expected");
+                }
+                catch (TimeoutException exception) {
+                    // Expected: the next wait reuses the same waiters
+                }
+            }
+
+            new Thread(new AsyncWait(promise, 50, AsyncWait.Type.VALUE)).start();
+            assertEquals(50L, (long) future.get());
+        }
+        finally {
+            Future.setParkingWait(false);
+        }
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testParkingGetTimeout() throws ExecutionException, TimeoutException {
+        Future.setParkingWait(true);
+
+        try {
+            new Promise<Long>().getFuture().get(50, TimeUnit.MILLISECONDS);
+        }
+        finally {
+            Future.setParkingWait(false);
+        }
+    }
+
+    @Test
+    public void testParkingSync() {
+        Future.setParkingWait(true);
+
+        try {
+            Promise<Long> promise = new Promise<Long>();
+            new Thread(new AsyncWait(promise, 50, AsyncWait.Type.VALUE)).start();
+            promise.getFuture().sync();
+            assertTrue(promise.getFuture().isDone());
+        }
+        finally {
+            Future.setParkingWait(false);
+        }
+    }
+
     @Test
     public void testFutureWaitFor() throws ExecutionException, TimeoutException {
         Promise<Long> p = new Promise<Long>();
@@ -0,0 +1,104 @@
+package com.aldebaran.qi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link NativeHandles} release, explicit or after garbage collection
+ */
+public class NativeHandlesTest {
+    /**
+     * Fake owner of native pointers
+     */
+    static class Owner {
+    }
+
+    /**
+     * Fake owner of native pointers registered with an attachment
+     */
+    static class AttachedOwner {
+    }
+
+    /**
+     * Pointers destroyed by {@link #TYPE}
+     */
+    private static final List<Long> DESTROYED = Collections.synchronizedList(new ArrayList<Long>());
+
+    /**
+     * Fake native type, only records destroyed pointers
+     */
+    private static final NativeHandles.Type TYPE = new NativeHandles.Type(Owner.class) {
+        @Override
+        void destroy(final long pointer) {
+            NativeHandlesTest.DESTROYED.add(pointer);
+        }
+    };
+
+    /**
+     * Attachments given to the destruction by {@link #ATTACHED_TYPE}, by
+     * pointer
+     */
+    private static final Map<Long, Object> ATTACHMENTS = new ConcurrentHashMap<Long, Object>();
+
+    /**
+     * Fake native type, records the attachments given to the destruction
+     */
+    private static final NativeHandles.Type ATTACHED_TYPE = new NativeHandles.Type(AttachedOwner.class) {
+        @Override
+        void destroy(final long pointer) {
+            NativeHandlesTest.DESTROYED.add(pointer);
+        }
+
+        @Override
+        void destroy(final long pointer, final Object attachment) {
+            NativeHandlesTest.ATTACHMENTS.put(pointer, attachment);
+        }
+    };
+
+    @Test
+    public void testExplicitReleaseOnlyOnce() {
+        final Owner owner = new Owner();
+        final long before = NativeHandles.getLiveHandleCount(Owner.class);
+        final NativeHandles.Handle handle = NativeHandles.register(owner, 42L, NativeHandlesTest.TYPE);
+        Assert.assertEquals(before + 1, NativeHandles.getLiveHandleCount(Owner.class));
+        Assert.assertEquals(Long.valueOf(before + 1), NativeHandles.getLiveHandleCounts().get(Owner.class));
+
+        Assert.assertTrue(handle.release());
+        Assert.assertTrue(handle.isReleased());
+        Assert.assertFalse(handle.release());
+        Assert.assertEquals(before, NativeHandles.getLiveHandleCount(Owner.class));
+        Assert.assertEquals(1, Collections.frequency(NativeHandlesTest.DESTROYED, 42L));
+    }
+
+    @Test
+    public void testReleaseAfterGarbageCollection() throws InterruptedException {
+        NativeHandles.register(new Owner(), 73L, NativeHandlesTest.TYPE);
+
+        for (int attempt = 0; attempt < 100 && !NativeHandlesTest.DESTROYED.contains(73L); attempt++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+
+        Assert.assertTrue(NativeHandlesTest.DESTROYED.contains(73L));
+    }
+
+    @Test
+    public void testAttachmentGivenToDestruction() {
+        final Object attachment = new Object();
+        NativeHandles.register(new Owner(), 91L, NativeHandlesTest.ATTACHED_TYPE, attachment).release();
+
+        Assert.assertSame(attachment, NativeHandlesTest.ATTACHMENTS.get(91L));
+        Assert.assertFalse(NativeHandlesTest.DESTROYED.contains(91L));
+    }
+
+    @Test
+    public void testUnknownType() {
+        Assert.assertEquals(0, NativeHandles.getLiveHandleCount(String.class));
+    }
+}
@@ -0,0 +1,146 @@
+package com.aldebaran.qi;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link NativeTools} calls from native side
+ */
+public class NativeToolsTest {
+    /**
+     * Service used as call target
+     */
+    public static class Calculator {
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        public String concat(String a, String b) {
+            return a + b;
+        }
+
+        public void nothing() {
+        }
+
+        public int check(int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("negative: " + value);
+            }
+
+            return value;
+        }
+    }
+
+    @Test
+    public void testCallJavaResolvesOnce() {
+        final Calculator calculator = new Calculator();
+        final MethodDispatchCache.Dispatch dispatch = MethodDispatchCache.obtain(Calculator.class, "add", "(II)I");
+        Assert.assertNotNull(dispatch);
+        Assert.assertSame(dispatch, MethodDispatchCache.obtain(Calculator.class, "add", "(II)I"));
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i + 3, NativeTools.callJava(calculator, "add", "(II)I", new Object[]{i, 3}));
+        }
+
+        Assert.assertEquals("ab", NativeTools.callJava(calculator, "concat",
+                "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;", new Object[]{"a", "b"}));
+        Assert.assertNull(NativeTools.callJava(calculator, "nothing", "()V", new Object[0]));
+    }
+
+    @Test
+    public void testCallJavaConvertsArguments() {
+        final Calculator calculator = new Calculator();
+        Assert.assertEquals(5, NativeTools.callJava(calculator, "add", "(II)I", new Object[]{2L, 3.0f}));
+    }
+
+    @Test
+    public void testCallJavaUnknownMethod() {
+        Assert.assertNull(MethodDispatchCache.obtain(Calculator.class, "unknown", "()V"));
+        Assert.assertNull(NativeTools.callJava(new Calculator(), "unknown", "()V", new Object[0]));
+    }
+
+    /**
+     * Call {@link Calculator#check(int)} from "native" with a negative value
+     *
+     * @return Exception that native side would receive
+     */
+    private static RuntimeException callCheckFailing() {
+        try {
+            NativeTools.callJava(new Calculator(), "check", "(I)I", new Object[]{-1});
+        } catch (RuntimeException exception) {
+            return exception;
+        }
+
+        Assert.fail("Exception expected");
+        return null;
+    }
+
+    @Test
+    public void testStoredExceptionResolved() {
+        final long stored = NativeTools.getStoredExceptionCount();
+        final long resolved = NativeTools.getResolvedExceptionCount();
+        final RuntimeException thrown = NativeToolsTest.callCheckFailing();
+        Assert.assertEquals(stored + 1, NativeTools.getStoredExceptionCount());
+
+        // Native side only transmits the message
+        final QiException received = new QiException(thrown.getMessage());
+        final Exception real = NativeTools.obtainRealException(received);
+        Assert.assertTrue(real instanceof IllegalArgumentException);
+        Assert.assertEquals("negative: -1", real.getMessage());
+        Assert.assertEquals(resolved + 1, NativeTools.getResolvedExceptionCount());
+
+        // Still available for an other reader, but resolved only once
+        Assert.assertSame(real, NativeTools.obtainRealException(received));
+        Assert.assertEquals(resolved + 1, NativeTools.getResolvedExceptionCount());
+    }
+
+    @Test
+    public void testStoredExceptionsBounded() {
+        final long expired = NativeTools.getExpiredExceptionCount();
+
+        for (int i = 0; i <= NativeTools.MAXIMUM_STORED_EXCEPTIONS; i++) {
+            NativeToolsTest.callCheckFailing();
+        }
+
+        Assert.assertTrue(NativeTools.getPendingExceptionCount() <= NativeTools.MAXIMUM_STORED_EXCEPTIONS);
+        Assert.assertTrue(NativeTools.getExpiredExceptionCount() > expired);
+    }
+
+    @Test
+    public void testListFromArray() {
+        Assert.assertEquals(Arrays.<Object>asList(1, 2, 3), NativeTools.listFromArray(new int[] { 1, 2, 3 }));
+        Assert.assertEquals(Arrays.<Object>asList(4L), NativeTools.listFromArray(new long[] { 4L }));
+        Assert.assertEquals(Arrays.<Object>asList(0.5f), NativeTools.listFromArray(new float[] { 0.5f }));
+        Assert.assertEquals(Arrays.<Object>asList(0.25), NativeTools.listFromArray(new double[] { 0.25 }));
+        Assert.assertEquals(Arrays.<Object>asList(-1, 7), NativeTools.listFromArray(new byte[] { -1, 7 }));
+    }
+
+    @Test
+    public void testMapToArray() {
+        final Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+        map.put("one", 1);
+        map.put("two", 2);
+        Assert.assertArrayEquals(new Object[] { "one", 1, "two", 2 }, NativeTools.mapToArray(map));
+        Assert.assertEquals(0, NativeTools.mapToArray(new LinkedHashMap<String, Integer>()).length);
+    }
+
+    @Test
+    public void testMapToArrayUsesIteratedEntries() {
+        // A map changing between size() and its iteration
+        final Map<String, Integer> map = new LinkedHashMap<String, Integer>() {
+            @Override
+            public int size() {
+                return 1;
+            }
+        };
+        map.put("one", 1);
+        map.put("two", 2);
+        map.put("three", 3);
+
+        Assert.assertArrayEquals(new Object[] { "one", 1, "two", 2, "three", 3 }, NativeTools.mapToArray(map));
+    }
+}
@@ -34,6 +34,72 @@ public class QiSerializerTest {
         }
     }
 
+    @QiStruct
+    public static class Team {
+        @QiField(0)
+        Person leader;
+        @QiField(1)
+        List<Person> members;
+
+        public Team() {
+        }
+    }
+
+    /**
+     * Converter changing strings to upper case, to check converters added later are used
+     */
+    static class UpperCaseConverter implements QiSerializer.Converter {
+        @Override
+        public boolean canSerialize(Object object) {
+            return object instanceof String;
+        }
+
+        @Override
+        public Object serialize(QiSerializer serializer, Object object) {
+            return ((String) object).toUpperCase();
+        }
+
+        @Override
+        public boolean canDeserialize(Object object, Type targetType) {
+            return object instanceof String;
+        }
+
+        @Override
+        public Object deserialize(QiSerializer serializer, Object object, Type targetType) {
+            return ((String) object).toUpperCase();
+        }
+    }
+
+    /**
+     * Converter counting the calls to decide if it converts, never converts
+     */
+    static class CountingConverter implements QiSerializer.Converter {
+        int canSerializeCalls;
+        int canDeserializeCalls;
+
+        @Override
+        public boolean canSerialize(Object object) {
+            canSerializeCalls++;
+            return false;
+        }
+
+        @Override
+        public Object serialize(QiSerializer serializer, Object object) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean canDeserialize(Object object, Type targetType) {
+            canDeserializeCalls++;
+            return false;
+        }
+
+        @Override
+        public Object deserialize(QiSerializer serializer, Object object, Type targetType) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     private QiSerializer serializer;
 
     @Before
@@ -133,6 +199,22 @@ public class QiSerializerTest {
         assertEquals(12, unchanged.get(2));
     }
 
+    @Test
+    public void testDeserializePrimitiveArray() throws QiConversionException {
+        List<Object> numbers = new ArrayList<Object>();
+        numbers.add(1);
+        numbers.add(2L);
+        numbers.add(3.5f);
+        int[] ints = (int[]) serializer.deserialize(numbers, int[].class);
+        assertEquals(3, ints.length);
+        assertEquals(3, ints[2]);
+        double[] doubles = (double[]) serializer.deserialize(numbers, double[].class);
+        assertEquals(3.5, doubles[2], 0);
+        long[] longs = { 4L, 5L };
+        assertTrue(longs == serializer.deserialize(longs, long[].class));
+        assertTrue(longs == serializer.serialize(longs));
+    }
+
     @Test
     public void testDeserializeMap() throws QiConversionException {
         Map<String, Tuple> tuples = new HashMap<String, Tuple>();
@@ -273,6 +355,17 @@ public class QiSerializerTest {
         assertEquals(12, tuple.get(2));
     }
 
+    @Test
+    public void testMapWithoutConversionNotCopied() throws QiConversionException {
+        Map<String, Float> values = new HashMap<String, Float>();
+        values.put("Device/Temperature", 42.5f);
+        values.put("Device/Battery", 0.75f);
+        assertTrue(values == serializer.serialize(values));
+        Type type = new TypeToken<Map<String, Float>>() {
+        }.getType();
+        assertTrue(values == serializer.deserialize(values, type));
+    }
+
     private static Type getListOfPersonsType() {
         return new TypeToken<List<Person>>() {
         }.getType();
@@ -282,4 +375,55 @@ public class QiSerializerTest {
         return new TypeToken<Map<String, Person>>() {
         }.getType();
     }
+
+    @Test
+    public void testNestedStructRoundTrip() throws QiConversionException {
+        Team team = new Team();
+        team.leader = new Person("aaa", "bbb", 12);
+        team.members = new ArrayList<Person>();
+        team.members.add(new Person("ccc", "ddd", 21));
+
+        for (int i = 0; i < 3; i++) {
+            Tuple tuple = (Tuple) serializer.serialize(team);
+            assertEquals("aaa", ((Tuple) tuple.get(0)).get(0));
+            assertEquals(21, ((Tuple) ((List<?>) tuple.get(1)).get(0)).get(2));
+
+            Team copy = (Team) serializer.deserialize(tuple, Team.class);
+            assertEquals("bbb", copy.leader.lastName);
+            assertEquals("ccc", copy.members.get(0).firstName);
+        }
+    }
+
+    @Test
+    public void testStructUsesConverterAddedLater() throws QiConversionException {
+        QiSerializer customSerializer = new QiSerializer();
+        Person person = new Person("aaa", "bbb", 12);
+        assertEquals("aaa", ((Tuple) customSerializer.serialize(person)).get(0));
+
+        customSerializer.getConverters().add(0, new UpperCaseConverter());
+        assertEquals("AAA", ((Tuple) customSerializer.serialize(person)).get(0));
+        assertEquals("BBB", ((Person) customSerializer.deserialize(Tuple.of("aaa", "bbb", 12), Person.class)).lastName);
+    }
+
+    @Test
+    public void testConverterLookupCached() throws QiConversionException {
+        CountingConverter counting = new CountingConverter();
+        QiSerializer customSerializer = new QiSerializer();
+        customSerializer.addConverter(counting);
+        List<Integer> integers = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++)
+            integers.add(i);
+
+        assertEquals(integers, customSerializer.serialize(integers));
+        // The list itself is handled by ListConverter, only Integer reaches the counting converter
+        assertEquals(1, counting.canSerializeCalls);
+
+        assertEquals(integers, customSerializer.deserialize(integers, new TypeToken<List<Integer>>() {
+        }.getType()));
+        assertEquals(1, counting.canDeserializeCalls);
+
+        customSerializer.addConverter(new UpperCaseConverter());
+        customSerializer.serialize(integers);
+        assertEquals(2, counting.canSerializeCalls);
+    }
 }
@@ -0,0 +1,78 @@
+package com.aldebaran.qi;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of raw buffers given as {@link ByteBuffer}, see {@link RawBuffer}
+ */
+public class RawBufferTest {
+    /**
+     * Service giving back what it receives
+     */
+    public static class EchoService extends QiService {
+        public ByteBuffer echo(ByteBuffer buffer) {
+            return buffer;
+        }
+    }
+
+    private AnyObject echo;
+
+    @Before
+    public void setUp() {
+        RawBuffer.setZeroCopy(true);
+        final DynamicObjectBuilder builder = new DynamicObjectBuilder();
+        builder.advertiseMethod("echo::r(r)", new EchoService(), "Give back the buffer");
+        this.echo = builder.object();
+    }
+
+    @After
+    public void tearDown() {
+        RawBuffer.setZeroCopy(false);
+    }
+
+    /**
+     * Read the remaining bytes of a buffer.
+     */
+    private static byte[] remaining(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void testDirectBufferFromPosition() throws ExecutionException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(6);
+        buffer.put(new byte[] { 1, 2, 3, 4, 5, 6 });
+        buffer.flip();
+        buffer.position(2);
+
+        final ByteBuffer result = this.echo.<ByteBuffer>call("echo", buffer).get();
+        Assert.assertTrue(result.isDirect());
+        Assert.assertArrayEquals(new byte[] { 3, 4, 5, 6 }, RawBufferTest.remaining(result));
+    }
+
+    @Test
+    public void testHeapBufferFromPosition() throws ExecutionException {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6 }, 1, 4);
+
+        final ByteBuffer result = this.echo.<ByteBuffer>call("echo", buffer).get();
+        Assert.assertArrayEquals(new byte[] { 2, 3, 4, 5 }, RawBufferTest.remaining(result));
+    }
+
+    @Test
+    public void testReceivedBufferSentBackFromPosition() throws ExecutionException {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+        final ByteBuffer received = this.echo.<ByteBuffer>call("echo", buffer).get();
+        received.position(1);
+
+        // A view on a native buffer, but only its end is sent
+        final ByteBuffer result = this.echo.<ByteBuffer>call("echo", received).get();
+        Assert.assertArrayEquals(new byte[] { 2, 3, 4 }, RawBufferTest.remaining(result));
+    }
+}
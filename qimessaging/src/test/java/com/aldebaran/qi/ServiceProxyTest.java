@@ -0,0 +1,107 @@
+package com.aldebaran.qi;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of remote services called through Java interfaces, see
+ * {@link Session#service(String, Class)}
+ */
+public class ServiceProxyTest {
+    /**
+     * Interface advertised by the service
+     */
+    public interface Calculator {
+        int add(int a, int b);
+
+        String concat(String a, String b);
+    }
+
+    /**
+     * Same service, seen from a client that does not want to block
+     */
+    public interface AsyncCalculator {
+        Future<Integer> add(int a, int b);
+
+        String concat(String a, String b);
+    }
+
+    /**
+     * Interface with a method the service does not have
+     */
+    public interface Unknown {
+        void missing();
+    }
+
+    /**
+     * Interface with a method of the same name and arity as a service method,
+     * but incompatible parameters
+     */
+    public interface IncompatibleCalculator {
+        String concat(List<String> a, List<String> b);
+    }
+
+    private ServiceDirectory serviceDirectory;
+    private Session server;
+    private Session client;
+
+    @Before
+    public void setUp() throws ExecutionException {
+        this.serviceDirectory = new ServiceDirectory();
+        final String url = this.serviceDirectory.listenUrl();
+
+        this.server = new Session();
+        this.server.connect(url).get();
+        final DynamicObjectBuilder builder = new DynamicObjectBuilder();
+        builder.advertiseMethods(Calculator.class, new Calculator() {
+            @Override
+            public int add(int a, int b) {
+                return a + b;
+            }
+
+            @Override
+            public String concat(String a, String b) {
+                return a + b;
+            }
+        });
+        this.server.registerService("calculator", builder.object());
+
+        this.client = new Session();
+        this.client.connect(url).get();
+    }
+
+    @After
+    public void tearDown() {
+        this.client.close();
+        this.server.close();
+        this.serviceDirectory.close();
+    }
+
+    @Test
+    public void testBlockingCalls() throws ExecutionException {
+        final Calculator calculator = this.client.service("calculator", Calculator.class).get();
+        Assert.assertEquals(5, calculator.add(2, 3));
+        Assert.assertEquals("ab", calculator.concat("a", "b"));
+    }
+
+    @Test
+    public void testFutureCall() throws ExecutionException {
+        final AsyncCalculator calculator = this.client.service("calculator", AsyncCalculator.class).get();
+        Assert.assertEquals(Integer.valueOf(7), calculator.add(3, 4).get());
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testIncompatibleMethod() throws ExecutionException {
+        this.client.service("calculator", IncompatibleCalculator.class).get();
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testMissingMethod() throws ExecutionException {
+        this.client.service("calculator", Unknown.class).get();
+    }
+}
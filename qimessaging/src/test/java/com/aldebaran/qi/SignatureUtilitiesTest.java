@@ -5,6 +5,7 @@ import junit.framework.Assert;
 import org.junit.Test;
 
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -45,6 +46,18 @@ public class SignatureUtilitiesTest {
         public void triplet(Triplet triplet);
 
         public void triplet2(Triplet2 triplet);
+
+        public ByteBuffer rawRaw(ByteBuffer buffer);
+
+        public int[] intArray(int[] values);
+
+        public void longArray(long[] values);
+
+        public void floatArray(float[] values);
+
+        public double[] doubleArray(double[] values);
+
+        public void byteArray(byte[] values);
     }
 
     /**
@@ -132,6 +145,12 @@ public class SignatureUtilitiesTest {
                 "mapStringListString");
         this.assertSignature("void triplet(Triplet)", "triplet::v((is[s]))", "triplet");
         this.assertSignature("void triplet2(Triplet2)", "triplet2::v((is[s]))", "triplet2");
+        this.assertSignature("ByteBuffer rawRaw(ByteBuffer)", "rawRaw::r(r)", "rawRaw");
+        this.assertSignature("int[] intArray(int[])", "intArray::[i]([i])", "intArray");
+        this.assertSignature("void longArray(long[])", "longArray::v([l])", "longArray");
+        this.assertSignature("void floatArray(float[])", "floatArray::v([f])", "floatArray");
+        this.assertSignature("double[] doubleArray(double[])", "doubleArray::[d]([d])", "doubleArray");
+        this.assertSignature("void byteArray(byte[])", "byteArray::v([c])", "byteArray");
     }
 
     @Test
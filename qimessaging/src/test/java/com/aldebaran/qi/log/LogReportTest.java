@@ -0,0 +1,169 @@
+package com.aldebaran.qi.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LogReportTest {
+    /**
+     * Catcher recording the messages and their threads
+     */
+    private static class RecordingCatcher implements LogCatcher {
+        final List<String> messages = new ArrayList<String>();
+        final List<Thread> threads = new ArrayList<Thread>();
+
+        @Override
+        public synchronized void log(final LogLevel logLevel, final String message) {
+            this.messages.add(message);
+            this.threads.add(Thread.currentThread());
+        }
+    }
+
+    private final RecordingCatcher catcher = new RecordingCatcher();
+
+    @After
+    public void tearDown() {
+        LogReport.stopAsynchronousDispatch();
+        LogReport.unregisterAll(this.catcher);
+    }
+
+    @Test
+    public void testSynchronousDispatch() {
+        LogReport.register(this.catcher, LogLevel.ERROR);
+        LogReport.error("error");
+        LogReport.warning("warning");
+
+        Assert.assertEquals(1, this.catcher.messages.size());
+        Assert.assertEquals("error", this.catcher.messages.get(0));
+        Assert.assertSame(Thread.currentThread(), this.catcher.threads.get(0));
+
+        LogReport.unregisterAll(this.catcher);
+        LogReport.error("error");
+        Assert.assertEquals(1, this.catcher.messages.size());
+    }
+
+    @Test
+    public void testLevelMaskFollowsRegistrations() {
+        final int errorBit = 1 << LogLevel.ERROR.level();
+        final int debugBit = 1 << LogLevel.DEBUG.level();
+        Assert.assertEquals(0, LogReport.levelMask());
+
+        LogReport.register(this.catcher, LogLevel.ERROR, LogLevel.DEBUG, LogLevel.SILENT);
+        Assert.assertEquals(errorBit | debugBit, LogReport.levelMask());
+
+        LogReport.unregister(this.catcher, LogLevel.DEBUG);
+        Assert.assertEquals(errorBit, LogReport.levelMask());
+
+        LogReport.unregisterAll(this.catcher);
+        Assert.assertEquals(0, LogReport.levelMask());
+    }
+
+    @Test
+    public void testAsynchronousDispatch() {
+        LogReport.registerAtLeast(this.catcher, LogLevel.INFORMATION);
+        LogReport.startAsynchronousDispatch(64);
+
+        for (int i = 0; i < 10; i++) {
+            LogReport.information("message " + i);
+        }
+
+        // Stopping dispatches the stored logs
+        LogReport.stopAsynchronousDispatch();
+
+        synchronized (this.catcher) {
+            Assert.assertEquals(10, this.catcher.messages.size());
+
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals("message " + i, this.catcher.messages.get(i));
+                Assert.assertNotSame(Thread.currentThread(), this.catcher.threads.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testStopWhileLogging() throws InterruptedException {
+        final int threads = 4;
+        final int count = 2000;
+        final CountDownLatch started = new CountDownLatch(threads);
+        final List<Thread> loggers = new ArrayList<Thread>();
+        LogReport.register(this.catcher, LogLevel.WARNING);
+        // Large enough to drop nothing
+        LogReport.startAsynchronousDispatch(threads * count);
+
+        for (int thread = 0; thread < threads; thread++) {
+            final Thread logger = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+
+                    for (int i = 0; i < count; i++) {
+                        LogReport.warning("message " + i);
+                    }
+                }
+            });
+            loggers.add(logger);
+            logger.start();
+        }
+
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        // Logs emitted during the stop are dispatched exactly once
+        LogReport.stopAsynchronousDispatch();
+
+        for (final Thread logger : loggers) {
+            logger.join(10000);
+        }
+
+        synchronized (this.catcher) {
+            Assert.assertEquals(threads * count, this.catcher.messages.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAsynchronousDispatchCapacityTooLarge() {
+        LogReport.startAsynchronousDispatch((1 << 30) + 1);
+    }
+
+    @Test
+    public void testAsynchronousDispatchDropsWhenFull() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final LogCatcher slowCatcher = new LogCatcher() {
+            @Override
+            public void log(final LogLevel logLevel, final String message) {
+                blocked.countDown();
+
+                try {
+                    release.await();
+                }
+                catch (final InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        LogReport.register(slowCatcher, LogLevel.ERROR);
+
+        try {
+            final long droppedBefore = LogReport.getDroppedLogCount();
+            LogReport.startAsynchronousDispatch(4);
+            LogReport.error("first");
+            Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            // The catcher is blocked: 4 logs fill the buffer, the others are dropped
+            for (int i = 0; i < 10; i++) {
+                LogReport.error("message " + i);
+            }
+
+            Assert.assertEquals(droppedBefore + 6, LogReport.getDroppedLogCount());
+            release.countDown();
+        }
+        finally {
+            release.countDown();
+            LogReport.unregisterAll(slowCatcher);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.aldebaran.qi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WeakKeyCacheTest {
+    @Test
+    public void testGetAndReplace() {
+        final WeakKeyCache<Class<?>, String> cache = new WeakKeyCache<Class<?>, String>();
+        Assert.assertNull(cache.get(String.class));
+
+        cache.put(String.class, "first");
+        cache.put(Integer.class, "integer");
+        Assert.assertEquals("first", cache.get(String.class));
+        Assert.assertEquals("integer", cache.get(Integer.class));
+
+        cache.put(String.class, "second");
+        Assert.assertEquals("second", cache.get(String.class));
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testEqualKeys() {
+        final WeakKeyCache<String, Integer> cache = new WeakKeyCache<String, Integer>();
+        final String key = "key";
+        cache.put(key, 1);
+
+        Assert.assertEquals(Integer.valueOf(1), cache.get(new String("key")));
+    }
+
+    @Test
+    public void testGrowth() {
+        final WeakKeyCache<String, Integer> cache = new WeakKeyCache<String, Integer>();
+        final List<String> keys = new ArrayList<String>();
+
+        for (int index = 0; index < 100; index++) {
+            final String key = "key" + index;
+            keys.add(key);
+            cache.put(key, index);
+        }
+
+        Assert.assertEquals(100, cache.size());
+
+        for (int index = 0; index < 100; index++) {
+            Assert.assertEquals(Integer.valueOf(index), cache.get(keys.get(index)));
+        }
+    }
+}